@@ -0,0 +1,72 @@
+package br.com.caelum.stella.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Lê os corpora de entrada dos benchmarks, gerados por
+ * {@link CorpusGenerator} e distribuídos em <code>/corpus/*.txt</code>.
+ * </p>
+ * <p>
+ * Cada linha do arquivo possui três colunas separadas por tabulação: o
+ * {@link TipoDeEntrada}, <code>formatado</code> ou <code>sem-formato</code>,
+ * e o valor. Linhas iniciadas por <code>#</code> são comentários.
+ * </p>
+ */
+public final class Corpus {
+
+    static final String FORMATADO = "formatado";
+
+    static final String SEM_FORMATO = "sem-formato";
+
+    private Corpus() {
+    }
+
+    /**
+     * @param nome
+     *            nome do corpus, como <code>cpf</code> ou <code>ie-sp</code>.
+     * @param tipo
+     *            categoria das entradas desejadas.
+     * @param isFormatted
+     *            se as entradas devem estar formatadas.
+     * @return as entradas do corpus, na ordem em que aparecem no arquivo.
+     */
+    public static String[] load(String nome, TipoDeEntrada tipo, boolean isFormatted) {
+        String recurso = "/corpus/" + nome + ".txt";
+        InputStream stream = Corpus.class.getResourceAsStream(recurso);
+        if (stream == null) {
+            throw new IllegalArgumentException("Corpus inexistente: " + recurso);
+        }
+        String formato = isFormatted ? FORMATADO : SEM_FORMATO;
+        List<String> valores = new ArrayList<String>();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+            try {
+                String linha;
+                while ((linha = reader.readLine()) != null) {
+                    if (linha.length() == 0 || linha.charAt(0) == '#') {
+                        continue;
+                    }
+                    String[] colunas = linha.split("\t", 3);
+                    if (colunas[0].equals(tipo.name()) && colunas[1].equals(formato)) {
+                        valores.add(colunas[2]);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler " + recurso, e);
+        }
+        if (valores.isEmpty()) {
+            throw new IllegalArgumentException("Corpus " + recurso + " não possui entradas " + tipo + " " + formato);
+        }
+        return valores.toArray(new String[valores.size()]);
+    }
+
+}
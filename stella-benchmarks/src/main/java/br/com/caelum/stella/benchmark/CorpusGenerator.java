@@ -0,0 +1,239 @@
+package br.com.caelum.stella.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.Validator;
+
+/**
+ * <p>
+ * Gera os corpora lidos por {@link Corpus}. A semente é fixa, de modo que
+ * executar o gerador novamente produz exatamente os mesmos arquivos e os
+ * resultados de versões diferentes podem ser comparados.
+ * </p>
+ * <p>
+ * Os documentos são gerados a partir de máscaras formatadas, onde
+ * <code>#</code> é um dígito qualquer, <code>D</code> um dígito verificador e
+ * os demais caracteres são copiados. Os dígitos verificadores são obtidos por
+ * tentativa, usando os próprios validadores, e a versão sem formato é a
+ * máscara preenchida sem os caracteres <code>.</code>, <code>/</code> e
+ * <code>-</code>.
+ * </p>
+ * <p>
+ * Uso: <code>mvn -Pbenchmark -pl stella-benchmarks exec:java</code>
+ * </p>
+ */
+public final class CorpusGenerator {
+
+    private static final long SEMENTE = 20081015L;
+
+    private static final int ENTRADAS_POR_CATEGORIA = 64;
+
+    private static final int MAXIMO_DE_TENTATIVAS = 100000;
+
+    private static final Map<Estado, String[]> MASCARAS_DE_IE = new EnumMap<Estado, String[]>(Estado.class);
+
+    static {
+        MASCARAS_DE_IE.put(Estado.AC, new String[] { "01.###.###/###-DD" });
+        MASCARAS_DE_IE.put(Estado.AL, new String[] { "24.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.AP, new String[] { "03.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.AM, new String[] { "04.###.###-D", "07.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.BA, new String[] { "######-DD" });
+        MASCARAS_DE_IE.put(Estado.CE, new String[] { "0#.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.DF, new String[] { "07.3##.###/###-DD", "07.4##.###/###-DD" });
+        MASCARAS_DE_IE.put(Estado.ES, new String[] { "00#.###.##-D", "08#.###.##-D" });
+        MASCARAS_DE_IE.put(Estado.GO, new String[] { "10.###.###-D", "11.###.###-D", "15.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.MA, new String[] { "12.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.MT, new String[] { "##########-D" });
+        MASCARAS_DE_IE.put(Estado.MS, new String[] { "28.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.MG, new String[] { "###.###.###/##DD" });
+        MASCARAS_DE_IE.put(Estado.PA, new String[] { "15.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.PB, new String[] { "16.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.PR, new String[] { "###.#####-DD" });
+        MASCARAS_DE_IE.put(Estado.PE, new String[] { "#######-DD", "18.1.###.#######-D" });
+        MASCARAS_DE_IE.put(Estado.PI, new String[] { "19.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.RJ, new String[] { "7#.###.##D", "8#.###.##D" });
+        MASCARAS_DE_IE.put(Estado.RN, new String[] { "20.###.###-D", "20.#.###.###-D" });
+        MASCARAS_DE_IE.put(Estado.RS, new String[] { "0##/######D", "4##/######D" });
+        MASCARAS_DE_IE.put(Estado.RO, new String[] { "1##.#####-D", "#############-D" });
+        MASCARAS_DE_IE.put(Estado.RR, new String[] { "24######-D" });
+        MASCARAS_DE_IE.put(Estado.SC, new String[] { "###.###.##D" });
+        MASCARAS_DE_IE.put(Estado.SP, new String[] { "###.###.##D.##D", "P-0#######.D/###" });
+        MASCARAS_DE_IE.put(Estado.SE, new String[] { "########-D" });
+        MASCARAS_DE_IE.put(Estado.TO, new String[] { "29.01.###.###-D", "29.99.###.###-D", "29.###.###-D" });
+    }
+
+    private final Random random;
+
+    private final String[] mascaras;
+
+    private final Validator<String> formatado;
+
+    private final Validator<String> semFormato;
+
+    private String mascaraAtual;
+
+    private CorpusGenerator(String nome, String[] mascaras, Validator<String> formatado, Validator<String> semFormato) {
+        this.random = new Random(SEMENTE ^ nome.hashCode());
+        this.mascaras = mascaras;
+        this.formatado = formatado;
+        this.semFormato = semFormato;
+    }
+
+    /**
+     * @param args
+     *            diretório onde os corpora serão gravados.
+     */
+    public static void main(String[] args) throws IOException {
+        File diretorio = new File(args.length > 0 ? args[0] : "src/main/resources/corpus");
+        if (!diretorio.isDirectory() && !diretorio.mkdirs()) {
+            throw new IOException("Não foi possível criar " + diretorio);
+        }
+        for (Documento documento : Documento.values()) {
+            CorpusGenerator gerador = new CorpusGenerator(documento.getCorpus(), documento.getMascaras(),
+                    documento.validator(true), documento.validator(false));
+            gerador.grava(new File(diretorio, documento.getCorpus() + ".txt"));
+        }
+        for (Estado estado : Estado.values()) {
+            String nome = corpusDeIE(estado);
+            CorpusGenerator gerador = new CorpusGenerator(nome, MASCARAS_DE_IE.get(estado), estado.getIEValidator(
+                    new SimpleMessageProducer(), true), estado.getIEValidator(new SimpleMessageProducer(), false));
+            gerador.grava(new File(diretorio, nome + ".txt"));
+        }
+    }
+
+    /**
+     * @return nome do corpus de inscrições estaduais do estado.
+     */
+    public static String corpusDeIE(Estado estado) {
+        return "ie-" + estado.name().toLowerCase(Locale.ENGLISH);
+    }
+
+    private void grava(File arquivo) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(arquivo), "UTF-8");
+        try {
+            writer.write("# Gerado por " + CorpusGenerator.class.getName() + "; não edite manualmente.\n");
+            for (int i = 0; i < ENTRADAS_POR_CATEGORIA; i++) {
+                String[] valido = geraValido();
+                String[] dvInvalido = alteraDV(valido);
+                grava(writer, TipoDeEntrada.VALIDO, valido);
+                grava(writer, TipoDeEntrada.DV_INVALIDO, dvInvalido);
+                grava(writer, TipoDeEntrada.FORMATO_INVALIDO, new String[] { quebraFormato(valido[0], formatado),
+                        quebraFormato(valido[1], semFormato) });
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void grava(Writer writer, TipoDeEntrada tipo, String[] valores) throws IOException {
+        writer.write(tipo.name() + "\t" + Corpus.FORMATADO + "\t" + valores[0] + "\n");
+        writer.write(tipo.name() + "\t" + Corpus.SEM_FORMATO + "\t" + valores[1] + "\n");
+    }
+
+    /**
+     * @return documento válido, formatado e sem formato.
+     */
+    private String[] geraValido() {
+        for (int tentativa = 0; tentativa < MAXIMO_DE_TENTATIVAS; tentativa++) {
+            mascaraAtual = mascaras[random.nextInt(mascaras.length)];
+            char[] valor = mascaraAtual.toCharArray();
+            int quantidadeDeDVs = 0;
+            for (int i = 0; i < valor.length; i++) {
+                if (valor[i] == '#') {
+                    valor[i] = (char) ('0' + random.nextInt(10));
+                } else if (valor[i] == 'D') {
+                    quantidadeDeDVs++;
+                }
+            }
+            String[] resultado = completaDVs(valor, quantidadeDeDVs);
+            if (resultado != null) {
+                return resultado;
+            }
+        }
+        throw new IllegalStateException("Nenhum documento válido gerado para " + mascaras[0]);
+    }
+
+    private String[] completaDVs(char[] mascara, int quantidadeDeDVs) {
+        int combinacoes = (int) Math.pow(10, quantidadeDeDVs);
+        for (int combinacao = 0; combinacao < combinacoes; combinacao++) {
+            char[] valor = mascara.clone();
+            int resto = combinacao;
+            for (int i = valor.length - 1; i >= 0; i--) {
+                if (valor[i] == 'D') {
+                    valor[i] = (char) ('0' + resto % 10);
+                    resto /= 10;
+                }
+            }
+            String[] documento = { new String(valor), semFormato(valor) };
+            if (isValido(documento)) {
+                return documento;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return o documento gerado por último, com o último dígito verificador
+     *         alterado.
+     */
+    private String[] alteraDV(String[] valido) {
+        int posicao = mascaraAtual.lastIndexOf('D');
+        for (int incremento = 1; incremento < 10; incremento++) {
+            char[] valor = valido[0].toCharArray();
+            valor[posicao] = (char) ('0' + (valor[posicao] - '0' + incremento) % 10);
+            String[] documento = { new String(valor), semFormato(valor) };
+            if (formatado.invalidMessagesFor(documento[0]).size() > 0
+                    && semFormato.invalidMessagesFor(documento[1]).size() > 0) {
+                return documento;
+            }
+        }
+        throw new IllegalStateException("Nenhum dígito verificador inválido para " + valido[0]);
+    }
+
+    private String quebraFormato(String valido, Validator<String> validator) {
+        for (int tentativa = 0; tentativa < MAXIMO_DE_TENTATIVAS; tentativa++) {
+            int posicao = random.nextInt(valido.length());
+            String resultado;
+            switch (random.nextInt(3)) {
+            case 0:
+                resultado = valido.substring(0, posicao) + 'x' + valido.substring(posicao + 1);
+                break;
+            case 1:
+                resultado = valido.substring(0, posicao) + valido.substring(posicao + 1);
+                break;
+            default:
+                resultado = valido + random.nextInt(10);
+            }
+            if (!validator.isEligible(resultado)) {
+                return resultado;
+            }
+        }
+        throw new IllegalStateException("Nenhum formato inválido gerado para " + valido);
+    }
+
+    private boolean isValido(String[] documento) {
+        return formatado.invalidMessagesFor(documento[0]).isEmpty()
+                && semFormato.invalidMessagesFor(documento[1]).isEmpty();
+    }
+
+    private static String semFormato(char[] valor) {
+        StringBuilder result = new StringBuilder(valor.length);
+        for (char c : valor) {
+            if (c != '.' && c != '/' && c != '-') {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+}
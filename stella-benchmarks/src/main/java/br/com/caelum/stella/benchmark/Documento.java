@@ -0,0 +1,89 @@
+package br.com.caelum.stella.benchmark;
+
+import br.com.caelum.stella.format.CNPJFormatter;
+import br.com.caelum.stella.format.CPFFormatter;
+import br.com.caelum.stella.format.Formatter;
+import br.com.caelum.stella.format.NITFormatter;
+import br.com.caelum.stella.format.RenavamFormatter;
+import br.com.caelum.stella.format.TituloEleitoralFormatter;
+import br.com.caelum.stella.validation.CNPJValidator;
+import br.com.caelum.stella.validation.CPFValidator;
+import br.com.caelum.stella.validation.NITValidator;
+import br.com.caelum.stella.validation.RenavamValidator;
+import br.com.caelum.stella.validation.TituloEleitoralValidator;
+import br.com.caelum.stella.validation.Validator;
+
+/**
+ * Documentos com validador e formatador próprios, com a máscara usada pelo
+ * {@link CorpusGenerator} para gerar suas entradas.
+ */
+public enum Documento {
+
+    CPF("cpf", "###.###.###-DD") {
+        public Validator<String> validator(boolean isFormatted) {
+            return new CPFValidator(isFormatted);
+        }
+
+        public Formatter formatter() {
+            return new CPFFormatter();
+        }
+    },
+    CNPJ("cnpj", "##.###.###/####-DD") {
+        public Validator<String> validator(boolean isFormatted) {
+            return new CNPJValidator(isFormatted);
+        }
+
+        public Formatter formatter() {
+            return new CNPJFormatter();
+        }
+    },
+    NIT("nit", "###.#####.##-D") {
+        public Validator<String> validator(boolean isFormatted) {
+            return new NITValidator(isFormatted);
+        }
+
+        public Formatter formatter() {
+            return new NITFormatter();
+        }
+    },
+    TITULO_ELEITORAL("titulo-eleitoral", "########0#/DD", "########1#/DD", "########2#/DD") {
+        public Validator<String> validator(boolean isFormatted) {
+            return new TituloEleitoralValidator(isFormatted);
+        }
+
+        public Formatter formatter() {
+            return new TituloEleitoralFormatter();
+        }
+    },
+    RENAVAM("renavam", "##.######-D") {
+        public Validator<String> validator(boolean isFormatted) {
+            return new RenavamValidator(isFormatted);
+        }
+
+        public Formatter formatter() {
+            return new RenavamFormatter();
+        }
+    };
+
+    private final String corpus;
+
+    private final String[] mascaras;
+
+    private Documento(String corpus, String... mascaras) {
+        this.corpus = corpus;
+        this.mascaras = mascaras;
+    }
+
+    public String getCorpus() {
+        return corpus;
+    }
+
+    String[] getMascaras() {
+        return mascaras;
+    }
+
+    public abstract Validator<String> validator(boolean isFormatted);
+
+    public abstract Formatter formatter();
+
+}
@@ -0,0 +1,78 @@
+package br.com.caelum.stella.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.caelum.stella.format.Formatter;
+
+/**
+ * Vazão dos formatadores de documentos. {@link #format()} consome as entradas
+ * sem formato do corpus e {@link #unformat()} as formatadas; entradas com
+ * formato inválido medem o custo do {@link IllegalArgumentException}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatterBenchmark {
+
+    @Param( { "CPF", "CNPJ", "NIT", "TITULO_ELEITORAL", "RENAVAM" })
+    private Documento documento;
+
+    @Param( { "VALIDO", "FORMATO_INVALIDO", "DV_INVALIDO" })
+    private TipoDeEntrada entrada;
+
+    private Formatter formatter;
+
+    private String[] formatados;
+
+    private String[] semFormato;
+
+    private int indice;
+
+    @Setup
+    public void setUp() {
+        formatter = documento.formatter();
+        formatados = Corpus.load(documento.getCorpus(), entrada, true);
+        semFormato = Corpus.load(documento.getCorpus(), entrada, false);
+    }
+
+    private int proximo() {
+        if (indice == formatados.length) {
+            indice = 0;
+        }
+        return indice++;
+    }
+
+    @Benchmark
+    public Object format() {
+        try {
+            return formatter.format(semFormato[proximo()]);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object unformat() {
+        try {
+            return formatter.unformat(formatados[proximo()]);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+}
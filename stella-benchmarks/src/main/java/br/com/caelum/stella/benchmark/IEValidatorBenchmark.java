@@ -0,0 +1,95 @@
+package br.com.caelum.stella.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.InvalidStateException;
+import br.com.caelum.stella.validation.Validator;
+
+/**
+ * Vazão dos validadores de Inscrição Estadual de cada estado, obtidos através
+ * de {@link Estado#getIEValidator(br.com.caelum.stella.MessageProducer, boolean)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IEValidatorBenchmark {
+
+    @Param( { "AC", "AL", "AP", "AM", "BA", "CE", "DF", "ES", "GO", "MA", "MT", "MS", "MG", "PA", "PB", "PR", "PE",
+            "PI", "RJ", "RN", "RS", "RO", "RR", "SC", "SP", "SE", "TO" })
+    private Estado estado;
+
+    @Param( { "VALIDO", "FORMATO_INVALIDO", "DV_INVALIDO" })
+    private TipoDeEntrada entrada;
+
+    @Param( { "true", "false" })
+    private boolean isFormatted;
+
+    private Validator<String> validator;
+
+    private String[] valores;
+
+    private int indice;
+
+    @Setup
+    public void setUp() {
+        validator = estado.getIEValidator(new SimpleMessageProducer(), isFormatted);
+        valores = Corpus.load(CorpusGenerator.corpusDeIE(estado), entrada, isFormatted);
+    }
+
+    private String proximo() {
+        if (indice == valores.length) {
+            indice = 0;
+        }
+        return valores[indice++];
+    }
+
+    @Benchmark
+    public boolean isEligible() {
+        return validator.isEligible(proximo());
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(proximo());
+    }
+
+    @Benchmark
+    public int errorsFor() {
+        return validator.errorsFor(proximo());
+    }
+
+    @Benchmark
+    public List<ValidationMessage> invalidMessagesFor() {
+        return validator.invalidMessagesFor(proximo());
+    }
+
+    @Benchmark
+    public Object assertValid() {
+        try {
+            validator.assertValid(proximo());
+            return null;
+        } catch (InvalidStateException e) {
+            return e;
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package br.com.caelum.stella.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.validation.CNPJValidator;
+import br.com.caelum.stella.validation.CPFValidator;
+import br.com.caelum.stella.validation.InvalidStateException;
+import br.com.caelum.stella.validation.NITValidator;
+import br.com.caelum.stella.validation.RenavamValidator;
+import br.com.caelum.stella.validation.TituloEleitoralValidator;
+import br.com.caelum.stella.validation.Validator;
+
+/**
+ * Vazão da rejeição de documentos com dígito verificador inválido por
+ * {@link Validator#assertValid(Object)}, com e sem a pilha de execução em
+ * {@link InvalidStateException}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+    @Param( { "CPF", "CNPJ", "NIT", "TITULO_ELEITORAL", "RENAVAM" })
+    private Documento documento;
+
+    @Param( { "true", "false" })
+    private boolean stackTraceEnabled;
+
+    private Validator<String> validator;
+
+    private String[] valores;
+
+    private int indice;
+
+    @Setup
+    public void setUp() {
+        validator = validator(documento, stackTraceEnabled);
+        valores = Corpus.load(documento.getCorpus(), TipoDeEntrada.DV_INVALIDO, true);
+    }
+
+    private static Validator<String> validator(Documento documento, boolean stackTraceEnabled) {
+        SimpleMessageProducer messageProducer = new SimpleMessageProducer();
+        switch (documento) {
+        case CPF:
+            return new CPFValidator(messageProducer, true, true, null, stackTraceEnabled);
+        case CNPJ:
+            return new CNPJValidator(messageProducer, true, null, stackTraceEnabled);
+        case NIT:
+            return new NITValidator(messageProducer, true, stackTraceEnabled);
+        case TITULO_ELEITORAL:
+            return new TituloEleitoralValidator(messageProducer, true, stackTraceEnabled);
+        case RENAVAM:
+            return new RenavamValidator(messageProducer, true, stackTraceEnabled);
+        default:
+            throw new IllegalArgumentException(documento.name());
+        }
+    }
+
+    private String proximo() {
+        if (indice == valores.length) {
+            indice = 0;
+        }
+        return valores[indice++];
+    }
+
+    @Benchmark
+    public Object assertValid() {
+        try {
+            validator.assertValid(proximo());
+            return null;
+        } catch (InvalidStateException e) {
+            return e;
+        }
+    }
+
+}
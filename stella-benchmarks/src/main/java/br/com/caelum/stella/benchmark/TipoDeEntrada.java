@@ -0,0 +1,23 @@
+package br.com.caelum.stella.benchmark;
+
+/**
+ * Categorias de entrada presentes em cada corpus.
+ */
+public enum TipoDeEntrada {
+
+    /**
+     * Documento válido.
+     */
+    VALIDO,
+
+    /**
+     * Cadeia que não respeita o formato do documento.
+     */
+    FORMATO_INVALIDO,
+
+    /**
+     * Documento bem formado, mas com dígito verificador incorreto.
+     */
+    DV_INVALIDO
+
+}
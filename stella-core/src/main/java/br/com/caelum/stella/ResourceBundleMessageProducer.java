@@ -3,6 +3,8 @@ package br.com.caelum.stella;
 import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import br.com.caelum.stella.validation.InvalidValue;
 
@@ -29,6 +31,11 @@ import br.com.caelum.stella.validation.InvalidValue;
  * A chave do erro representado por CPFError.INVALID_DIGITS é
  * cpferror.invalid_digits .
  * </p>
+ * <p>
+ * A mensagem de cada erro enumerado é procurada no ResourceBundle apenas na
+ * primeira vez em que é pedida, e então compartilhada entre as chamadas.
+ * Mensagens de outros erros são geradas a cada chamada.
+ * </p>
  * 
  * @author Fabio Kung
  * @author Leonardo Bessa
@@ -38,6 +45,11 @@ public class ResourceBundleMessageProducer implements MessageProducer {
 
     private final ResourceBundle bundle;
 
+    private final Locale locale;
+
+    private final ConcurrentMap<InvalidValue, ValidationMessage> messages =
+            new ConcurrentHashMap<InvalidValue, ValidationMessage>();
+
     /**
      * @param bundle
      *            ResourceBlunde que contém o mapa que associa erros as
@@ -45,41 +57,78 @@ public class ResourceBundleMessageProducer implements MessageProducer {
      */
     public ResourceBundleMessageProducer(final ResourceBundle bundle) {
         this.bundle = bundle;
+        Locale bundleLocale = bundle.getLocale();
+        this.locale = bundleLocale == null ? Locale.getDefault() : bundleLocale;
     }
 
     public ValidationMessage getMessage(InvalidValue error) {
-        Locale locale = bundle.getLocale();
-        if (locale == null) {
-            locale = Locale.getDefault();
+        ValidationMessage message = messages.get(error);
+        if (message == null) {
+            message = newMessage(error);
+            if (error instanceof Enum<?>) {
+                ValidationMessage previous = messages.putIfAbsent(error, message);
+                if (previous != null) {
+                    message = previous;
+                }
+            }
         }
+        return message;
+    }
+
+    private ValidationMessage newMessage(InvalidValue error) {
         String key = messageKeyFor(locale, error.getClass(), error);
         String message;
         try {
             message = bundle.getString(key);
         } catch (MissingResourceException ex) {
-            message = key.replaceFirst("[.]", " : ").replaceAll("_", " ");
+            message = defaultMessageFor(key);
         }
         return new SimpleValidationMessage(message);
     }
 
     /**
+     * @return a chave com o primeiro ponto trocado por " : " e os
+     *         <code>_</code> por espaços. Ex.: <b>cpferror : invalid digits</b>.
+     */
+    private static String defaultMessageFor(String key) {
+        StringBuilder message = new StringBuilder(key.length() + 2);
+        boolean isFirstDot = true;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '.' && isFirstDot) {
+                message.append(" : ");
+                isFirstDot = false;
+            } else if (c == '_') {
+                message.append(' ');
+            } else {
+                message.append(c);
+            }
+        }
+        return message.toString();
+    }
+
+    /**
+     * <p>
      * A chave padrao é gerada com base no nome da classe do erro e do nome do
      * erro, sempre minúscula.
-     * 
+     * </p>
      * <p>
      * Ex.:
+     * </p>
      * <ul>
      * <li>classe do erro: CPFError</li>
      * <li>nome do erro: INVALID_DIGITS</li>
      * </ul>
-     * 
+     * <p>
      * Chave gerada: <b>cpferror.invalid_digits</b>.
      * </p>
      * 
      * @param locale
      *            a ser usado na conversão para minúsculo
      * @param errorClass
+     *            classe do erro, cujo nome simples inicia a chave.
      * @param error
+     *            erro cujo nome completa a chave.
      * @return chave que representa o erro a ser usada para recuperar sua
      *         mensagem associada
      */
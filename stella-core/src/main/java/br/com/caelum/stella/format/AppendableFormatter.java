@@ -0,0 +1,57 @@
+package br.com.caelum.stella.format;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * Formatter capaz de escrever o resultado diretamente em um {@link Appendable},
+ * sem criar uma {@link String} intermediária para cada valor.
+ * </p>
+ * <p>
+ * Todos os formatadores do Stella implementam esta interface; para os demais,
+ * {@link Formatters} recorre a {@link Formatter#format(String)} e
+ * {@link Formatter#unformat(String)}.
+ * </p>
+ */
+public interface AppendableFormatter extends Formatter {
+
+    /**
+     * <p>
+     * Formata uma cadeia, escrevendo o resultado diretamente em um
+     * {@link Appendable}, como um {@link StringBuilder} ou um
+     * {@link java.io.Writer}.
+     * </p>
+     * 
+     * @param value
+     *            cadeia sem formatado
+     * @param out
+     *            recebe a cadeia formatada; nada é escrito caso a cadeia seja
+     *            inválida.
+     * @throws IllegalArgumentException
+     *             caso argumento seja nulo ou não represente propriamente um
+     *             valor sem formato.
+     * @throws IOException
+     *             caso ocorra um erro ao escrever em <code>out</code>.
+     */
+    public abstract void formatTo(CharSequence value, Appendable out) throws IllegalArgumentException, IOException;
+
+    /**
+     * <p>
+     * Remove a formatação de uma cadeia, escrevendo o resultado diretamente em
+     * um {@link Appendable}.
+     * </p>
+     * 
+     * @param value
+     *            cadeia formatada
+     * @param out
+     *            recebe a cadeia sem formato; nada é escrito caso a cadeia seja
+     *            inválida.
+     * @throws IllegalArgumentException
+     *             caso argumento seja nulo ou não represente propriamente um
+     *             valor formatado.
+     * @throws IOException
+     *             caso ocorra um erro ao escrever em <code>out</code>.
+     */
+    public abstract void unformatTo(CharSequence value, Appendable out) throws IllegalArgumentException, IOException;
+
+}
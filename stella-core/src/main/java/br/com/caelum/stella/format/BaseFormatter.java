@@ -1,9 +1,10 @@
 package br.com.caelum.stella.format;
 
+import java.io.IOException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class BaseFormatter implements Formatter {
+public class BaseFormatter implements AppendableFormatter {
 
     private final Pattern formatted;
 
@@ -52,4 +53,12 @@ public class BaseFormatter implements Formatter {
         this.unformattedReplacement = unformattedReplacement;
     }
 
+    public void formatTo(CharSequence value, Appendable out) throws IllegalArgumentException, IOException {
+        out.append(format(value == null ? null : value.toString()));
+    }
+
+    public void unformatTo(CharSequence value, Appendable out) throws IllegalArgumentException, IOException {
+        out.append(unformat(value == null ? null : value.toString()));
+    }
+
 }
@@ -1,16 +1,23 @@
 package br.com.caelum.stella.format;
 
+import java.io.IOException;
+
 import br.com.caelum.stella.validation.CNPJValidator;
 
 /**
  * @author Leonardo Bessa
  * 
  */
-public class CNPJFormatter implements Formatter {
-    private final BaseFormatter base;
+public class CNPJFormatter implements AppendableFormatter {
+    private static final Mascara FORMATADO = CNPJValidator.MASCARA_FORMATADA;
+
+    private static final Mascara SEM_FORMATO = CNPJValidator.MASCARA_SEM_FORMATO;
+
+    private final AppendableFormatter base;
 
     public CNPJFormatter() {
-        this.base = new BaseFormatter(CNPJValidator.FORMATED, "$1.$2.$3/$4-$5", CNPJValidator.UNFORMATED, "$1$2$3$4$5");
+        this.base = new MascaraFormatter(FORMATADO, SEM_FORMATO, new BaseFormatter(
+                CNPJValidator.FORMATED, "$1.$2.$3/$4-$5", CNPJValidator.UNFORMATED, "$1$2$3$4$5"));
     }
 
     public String format(String value) {
@@ -21,4 +28,12 @@ public class CNPJFormatter implements Formatter {
         return base.unformat(value);
     }
 
+    public void formatTo(CharSequence value, Appendable out) throws IOException {
+        base.formatTo(value, out);
+    }
+
+    public void unformatTo(CharSequence value, Appendable out) throws IOException {
+        base.unformatTo(value, out);
+    }
+
 }
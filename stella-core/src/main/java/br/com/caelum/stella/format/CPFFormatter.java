@@ -1,17 +1,24 @@
 package br.com.caelum.stella.format;
 
+import java.io.IOException;
+
 import br.com.caelum.stella.validation.CPFValidator;
 
 /**
  * @author Leonardo Bessa
  * 
  */
-public class CPFFormatter implements Formatter {
+public class CPFFormatter implements AppendableFormatter {
+
+    private static final Mascara FORMATADO = CPFValidator.MASCARA_FORMATADA;
 
-    private final BaseFormatter base;
+    private static final Mascara SEM_FORMATO = CPFValidator.MASCARA_SEM_FORMATO;
+
+    private final AppendableFormatter base;
 
     public CPFFormatter() {
-        this.base = new BaseFormatter(CPFValidator.FORMATED, "$1.$2.$3-$4", CPFValidator.UNFORMATED, "$1$2$3$4");
+        this.base = new MascaraFormatter(FORMATADO, SEM_FORMATO, new BaseFormatter(
+                CPFValidator.FORMATED, "$1.$2.$3-$4", CPFValidator.UNFORMATED, "$1$2$3$4"));
     }
 
     public String format(String value) {
@@ -22,4 +29,12 @@ public class CPFFormatter implements Formatter {
         return base.unformat(value);
     }
 
+    public void formatTo(CharSequence value, Appendable out) throws IOException {
+        base.formatTo(value, out);
+    }
+
+    public void unformatTo(CharSequence value, Appendable out) throws IOException {
+        base.unformatTo(value, out);
+    }
+
 }
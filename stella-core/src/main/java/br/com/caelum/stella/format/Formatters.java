@@ -0,0 +1,92 @@
+package br.com.caelum.stella.format;
+
+import java.io.IOException;
+
+/**
+ * Formata ou remove a formatação de colunas inteiras de valores, escrevendo o
+ * resultado em um único {@link Appendable}, como um {@link StringBuilder} ou
+ * um {@link java.io.Writer}, sem cadeias intermediárias quando o formatador
+ * é um {@link AppendableFormatter}. Os demais formatadores continuam
+ * aceitos: cada valor é convertido com {@link Formatter#format(String)} ou
+ * {@link Formatter#unformat(String)} e então escrito.
+ * 
+ * @see AppendableFormatter#formatTo(CharSequence, Appendable)
+ */
+public final class Formatters {
+
+    private Formatters() {
+    }
+
+    /**
+     * @param formatter
+     *            formatador de cada valor.
+     * @param values
+     *            cadeias sem formatação.
+     * @param separator
+     *            escrito entre dois valores consecutivos, como
+     *            <code>"\n"</code> ou <code>";"</code>.
+     * @param out
+     *            recebe os valores formatados.
+     * @throws IllegalArgumentException
+     *             caso algum valor seja nulo ou não represente propriamente um
+     *             valor sem formato; os valores anteriores a ele já terão sido
+     *             escritos.
+     * @throws IOException
+     *             caso ocorra um erro ao escrever em <code>out</code>.
+     */
+    public static void formatAllTo(Formatter formatter, CharSequence[] values, CharSequence separator,
+            Appendable out) throws IllegalArgumentException, IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(separator);
+            }
+            formatTo(formatter, values[i], out);
+        }
+    }
+
+    /**
+     * @param formatter
+     *            formatador de cada valor.
+     * @param values
+     *            cadeias formatadas.
+     * @param separator
+     *            escrito entre dois valores consecutivos, como
+     *            <code>"\n"</code> ou <code>";"</code>.
+     * @param out
+     *            recebe os valores sem formatação.
+     * @throws IllegalArgumentException
+     *             caso algum valor seja nulo ou não represente propriamente um
+     *             valor formatado; os valores anteriores a ele já terão sido
+     *             escritos.
+     * @throws IOException
+     *             caso ocorra um erro ao escrever em <code>out</code>.
+     */
+    public static void unformatAllTo(Formatter formatter, CharSequence[] values, CharSequence separator,
+            Appendable out) throws IllegalArgumentException, IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(separator);
+            }
+            unformatTo(formatter, values[i], out);
+        }
+    }
+
+    static void formatTo(Formatter formatter, CharSequence value, Appendable out) throws IllegalArgumentException,
+            IOException {
+        if (formatter instanceof AppendableFormatter) {
+            ((AppendableFormatter) formatter).formatTo(value, out);
+        } else {
+            out.append(formatter.format(value == null ? null : value.toString()));
+        }
+    }
+
+    static void unformatTo(Formatter formatter, CharSequence value, Appendable out) throws IllegalArgumentException,
+            IOException {
+        if (formatter instanceof AppendableFormatter) {
+            ((AppendableFormatter) formatter).unformatTo(value, out);
+        } else {
+            out.append(formatter.unformat(value == null ? null : value.toString()));
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package br.com.caelum.stella.format;
 
+import java.io.IOException;
+
 /**
  * Formatador que insere ou remove zeros a esquerda de um String que <b>deve</b>
  * representar um numero decimal.
@@ -7,7 +9,7 @@ package br.com.caelum.stella.format;
  * @author Leonardo Bessa
  * 
  */
-public class LeftSideZerosFormatter implements Formatter {
+public class LeftSideZerosFormatter implements AppendableFormatter {
 
     /**
      * Tamanaho da cadeia a ser retornada quando se chama o metodo
@@ -43,4 +45,12 @@ public class LeftSideZerosFormatter implements Formatter {
         return formated;
     }
 
+    public void formatTo(CharSequence value, Appendable out) throws IOException {
+        out.append(format(value.toString()));
+    }
+
+    public void unformatTo(CharSequence value, Appendable out) throws IOException {
+        out.append(unformat(value.toString()));
+    }
+
 }
@@ -0,0 +1,625 @@
+package br.com.caelum.stella.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Formato de tamanho fixo de um documento, verificado sem expressões
+ * regulares. Uma única passada pela cadeia confere seu formato e extrai seus
+ * dígitos.
+ * </p>
+ * <p>
+ * Na descrição da máscara, <code>#</code> representa um dígito qualquer, um
+ * dígito representa ele mesmo e <code>[...]</code> representa um dígito dentre
+ * os listados, aceitando intervalos como em <code>[0-4]</code>. Os demais
+ * caracteres devem aparecer literalmente na cadeia e não fazem parte dos
+ * dígitos extraídos. Exemplo: <code>###.###.###-##</code> para o CPF.
+ * </p>
+ * <p>
+ * Documentos com mais de um formato são descritos por várias alternativas,
+ * verificadas na ordem em que foram informadas.
+ * </p>
+ * <p>
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ * </p>
+ */
+public final class Mascara {
+
+    /**
+     * Valor devolvido por {@link #digitos(CharSequence)} quando a cadeia não
+     * respeita a máscara.
+     */
+    public static final long INVALIDA = -1L;
+
+    private static final int MAXIMO_DE_DIGITOS = 18;
+
+    private static final short QUALQUER_DIGITO = 0x3FF;
+
+    /**
+     * Para cada alternativa e posição, o caractere esperado; ou
+     * <code>0</code>, se a posição é um dígito.
+     */
+    private final char[][] literais;
+
+    /**
+     * Para cada alternativa e posição, os dígitos aceitos, um bit por dígito.
+     */
+    private final short[][] digitosAceitos;
+
+    /**
+     * @param alternativas
+     *            descrição de cada formato aceito.
+     * @throws IllegalArgumentException
+     *             caso alguma descrição seja inválida ou tenha mais de 18
+     *             dígitos.
+     */
+    public Mascara(String... alternativas) {
+        if (alternativas.length == 0) {
+            throw new IllegalArgumentException("Ao menos uma alternativa deve ser informada.");
+        }
+        literais = new char[alternativas.length][];
+        digitosAceitos = new short[alternativas.length][];
+        for (int i = 0; i < alternativas.length; i++) {
+            compila(i, alternativas[i]);
+        }
+    }
+
+    private void compila(int alternativa, String descricao) {
+        StringBuilder literal = new StringBuilder();
+        short[] aceitos = new short[descricao.length()];
+        int posicao = 0;
+        int quantidadeDeDigitos = 0;
+        for (int i = 0; i < descricao.length(); i++) {
+            char c = descricao.charAt(i);
+            short aceito = 0;
+            if (c == '#') {
+                aceito = QUALQUER_DIGITO;
+            } else if (c >= '0' && c <= '9') {
+                aceito = (short) (1 << (c - '0'));
+            } else if (c == '[') {
+                int fim = descricao.indexOf(']', i);
+                if (fim < 0) {
+                    throw new IllegalArgumentException("Classe de dígitos não terminada em " + descricao);
+                }
+                aceito = classeDeDigitos(descricao.substring(i + 1, fim), descricao);
+                i = fim;
+            }
+            if (aceito != 0) {
+                literal.append('\0');
+                quantidadeDeDigitos++;
+            } else {
+                literal.append(c);
+            }
+            aceitos[posicao++] = aceito;
+        }
+        if (quantidadeDeDigitos > MAXIMO_DE_DIGITOS) {
+            throw new IllegalArgumentException("Máscara com mais de " + MAXIMO_DE_DIGITOS + " dígitos: " + descricao);
+        }
+        literais[alternativa] = literal.toString().toCharArray();
+        digitosAceitos[alternativa] = new short[posicao];
+        System.arraycopy(aceitos, 0, digitosAceitos[alternativa], 0, posicao);
+    }
+
+    private static short classeDeDigitos(String classe, String descricao) {
+        short result = 0;
+        for (int i = 0; i < classe.length(); i++) {
+            char inicio = classe.charAt(i);
+            char fim = inicio;
+            if (i + 2 < classe.length() && classe.charAt(i + 1) == '-') {
+                fim = classe.charAt(i + 2);
+                i += 2;
+            }
+            if (inicio < '0' || fim > '9' || inicio > fim) {
+                throw new IllegalArgumentException("Classe de dígitos inválida em " + descricao);
+            }
+            for (char c = inicio; c <= fim; c++) {
+                result |= 1 << (c - '0');
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param valor
+     *            cadeia a ser verificada.
+     * @return os dígitos da cadeia como um número, ou {@link #INVALIDA} caso a
+     *         cadeia não respeite nenhuma das alternativas.
+     */
+    public long digitos(CharSequence valor) {
+        int tamanho = valor.length();
+        for (int alternativa = 0; alternativa < literais.length; alternativa++) {
+            if (literais[alternativa].length == tamanho) {
+                long result = digitos(alternativa, valor);
+                if (result != INVALIDA) {
+                    return result;
+                }
+            }
+        }
+        return INVALIDA;
+    }
+
+    private long digitos(int alternativa, CharSequence valor) {
+        char[] literal = literais[alternativa];
+        short[] aceitos = digitosAceitos[alternativa];
+        long result = 0;
+        for (int i = 0; i < literal.length; i++) {
+            char c = valor.charAt(i);
+            if (aceitos[i] == 0) {
+                if (c != literal[i]) {
+                    return INVALIDA;
+                }
+            } else {
+                int digito = c - '0';
+                if (digito < 0 || digito > 9 || (aceitos[i] & (1 << digito)) == 0) {
+                    return INVALIDA;
+                }
+                result = result * 10 + digito;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Verifica um trecho de um buffer de caracteres, sem copiá-lo.
+     * 
+     * @param buffer
+     *            buffer que contém a cadeia.
+     * @param inicio
+     *            posição do primeiro caractere da cadeia no buffer.
+     * @param tamanho
+     *            quantidade de caracteres da cadeia.
+     * @return os dígitos da cadeia como um número, ou {@link #INVALIDA} caso a
+     *         cadeia não respeite nenhuma das alternativas.
+     * @throws IndexOutOfBoundsException
+     *             caso o trecho não esteja contido no buffer.
+     */
+    public long digitos(char[] buffer, int inicio, int tamanho) {
+        if (inicio < 0 || tamanho < 0 || inicio > buffer.length - tamanho) {
+            throw new IndexOutOfBoundsException("Trecho [" + inicio + ", " + (inicio + tamanho)
+                    + ") fora do buffer de tamanho " + buffer.length);
+        }
+        for (int alternativa = 0; alternativa < literais.length; alternativa++) {
+            if (literais[alternativa].length == tamanho) {
+                long result = digitos(alternativa, buffer, inicio);
+                if (result != INVALIDA) {
+                    return result;
+                }
+            }
+        }
+        return INVALIDA;
+    }
+
+    private long digitos(int alternativa, char[] buffer, int inicio) {
+        char[] literal = literais[alternativa];
+        short[] aceitos = digitosAceitos[alternativa];
+        long result = 0;
+        for (int i = 0; i < literal.length; i++) {
+            char c = buffer[inicio + i];
+            if (aceitos[i] == 0) {
+                if (c != literal[i]) {
+                    return INVALIDA;
+                }
+            } else {
+                int digito = c - '0';
+                if (digito < 0 || digito > 9 || (aceitos[i] & (1 << digito)) == 0) {
+                    return INVALIDA;
+                }
+                result = result * 10 + digito;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Verifica um trecho de um buffer de bytes ASCII, sem decodificá-lo.
+     * 
+     * @param buffer
+     *            buffer que contém a cadeia, codificada em ASCII (ou UTF-8).
+     * @param inicio
+     *            posição do primeiro byte da cadeia no buffer.
+     * @param tamanho
+     *            quantidade de bytes da cadeia.
+     * @return os dígitos da cadeia como um número, ou {@link #INVALIDA} caso a
+     *         cadeia não respeite nenhuma das alternativas.
+     * @throws IndexOutOfBoundsException
+     *             caso o trecho não esteja contido no buffer.
+     */
+    public long digitos(byte[] buffer, int inicio, int tamanho) {
+        if (inicio < 0 || tamanho < 0 || inicio > buffer.length - tamanho) {
+            throw new IndexOutOfBoundsException("Trecho [" + inicio + ", " + (inicio + tamanho)
+                    + ") fora do buffer de tamanho " + buffer.length);
+        }
+        for (int alternativa = 0; alternativa < literais.length; alternativa++) {
+            if (literais[alternativa].length == tamanho) {
+                long result = digitos(alternativa, buffer, inicio);
+                if (result != INVALIDA) {
+                    return result;
+                }
+            }
+        }
+        return INVALIDA;
+    }
+
+    private long digitos(int alternativa, byte[] buffer, int inicio) {
+        char[] literal = literais[alternativa];
+        short[] aceitos = digitosAceitos[alternativa];
+        long result = 0;
+        for (int i = 0; i < literal.length; i++) {
+            int c = buffer[inicio + i] & 0xFF;
+            if (aceitos[i] == 0) {
+                if (c != literal[i]) {
+                    return INVALIDA;
+                }
+            } else {
+                int digito = c - '0';
+                if (digito < 0 || digito > 9 || (aceitos[i] & (1 << digito)) == 0) {
+                    return INVALIDA;
+                }
+                result = result * 10 + digito;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Verifica os bytes ASCII entre a posição e o limite do buffer, que pode ser
+     * direto. A posição do buffer não é alterada.
+     * 
+     * @param buffer
+     *            buffer que contém a cadeia, codificada em ASCII (ou UTF-8).
+     * @return os dígitos da cadeia como um número, ou {@link #INVALIDA} caso a
+     *         cadeia não respeite nenhuma das alternativas.
+     */
+    public long digitos(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return digitos(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        int tamanho = buffer.remaining();
+        for (int alternativa = 0; alternativa < literais.length; alternativa++) {
+            if (literais[alternativa].length == tamanho) {
+                long result = digitos(alternativa, buffer);
+                if (result != INVALIDA) {
+                    return result;
+                }
+            }
+        }
+        return INVALIDA;
+    }
+
+    private long digitos(int alternativa, ByteBuffer buffer) {
+        char[] literal = literais[alternativa];
+        short[] aceitos = digitosAceitos[alternativa];
+        int inicio = buffer.position();
+        long result = 0;
+        for (int i = 0; i < literal.length; i++) {
+            int c = buffer.get(inicio + i) & 0xFF;
+            if (aceitos[i] == 0) {
+                if (c != literal[i]) {
+                    return INVALIDA;
+                }
+            } else {
+                int digito = c - '0';
+                if (digito < 0 || digito > 9 || (aceitos[i] & (1 << digito)) == 0) {
+                    return INVALIDA;
+                }
+                result = result * 10 + digito;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Formata dígitos extraídos por {@link #digitos(CharSequence)} segundo a
+     * primeira alternativa da máscara, completando com zeros à esquerda. As
+     * classes de dígitos não são verificadas.
+     * 
+     * @param digitos
+     *            dígitos a serem formatados.
+     * @return a cadeia formatada.
+     * @throws IllegalArgumentException
+     *             caso os dígitos sejam negativos ou não caibam na máscara.
+     */
+    public String formata(long digitos) {
+        return formata(digitos, 0);
+    }
+
+    /**
+     * Formata dígitos segundo uma das alternativas da máscara, completando com
+     * zeros à esquerda. As classes de dígitos não são verificadas.
+     * 
+     * @param digitos
+     *            dígitos a serem formatados.
+     * @param alternativa
+     *            índice da alternativa, na ordem em que foram informadas.
+     * @return a cadeia formatada.
+     * @throws IllegalArgumentException
+     *             caso os dígitos sejam negativos ou não caibam na máscara.
+     */
+    public String formata(long digitos, int alternativa) {
+        if (digitos < 0) {
+            throw new IllegalArgumentException("Dígitos negativos: " + digitos);
+        }
+        char[] literal = literais[alternativa];
+        short[] aceitos = digitosAceitos[alternativa];
+        char[] result = new char[literal.length];
+        long resto = digitos;
+        for (int i = literal.length - 1; i >= 0; i--) {
+            if (aceitos[i] == 0) {
+                result[i] = literal[i];
+            } else {
+                result[i] = (char) ('0' + resto % 10);
+                resto /= 10;
+            }
+        }
+        if (resto != 0) {
+            throw new IllegalArgumentException("Dígitos não cabem na máscara: " + digitos);
+        }
+        return new String(result);
+    }
+
+    /**
+     * Reescreve uma cadeia que respeita esta máscara segundo a primeira
+     * alternativa de outra, em uma única passada: cada dígito da cadeia é
+     * copiado diretamente para a próxima posição de dígito do destino, e os
+     * demais caracteres do destino são inseridos entre eles. As classes de
+     * dígitos do destino não são verificadas.
+     * 
+     * @param valor
+     *            cadeia a ser reescrita.
+     * @param destino
+     *            máscara do resultado.
+     * @return a cadeia reescrita, ou <code>null</code> caso ela não respeite
+     *         nenhuma das alternativas desta máscara ou sua quantidade de
+     *         dígitos seja diferente da do destino.
+     */
+    public String converte(CharSequence valor, Mascara destino) {
+        int tamanho = valor.length();
+        char[] literalDoDestino = destino.literais[0];
+        short[] aceitosDoDestino = destino.digitosAceitos[0];
+        char[] result = null;
+        for (int alternativa = 0; alternativa < literais.length; alternativa++) {
+            if (literais[alternativa].length != tamanho) {
+                continue;
+            }
+            if (result == null) {
+                result = new char[literalDoDestino.length];
+            }
+            char[] literal = literais[alternativa];
+            short[] aceitos = digitosAceitos[alternativa];
+            int j = 0;
+            boolean respeita = true;
+            for (int i = 0; respeita && i < tamanho; i++) {
+                char c = valor.charAt(i);
+                if (aceitos[i] == 0) {
+                    respeita = c == literal[i];
+                } else {
+                    int digito = c - '0';
+                    while (j < result.length && aceitosDoDestino[j] == 0) {
+                        result[j] = literalDoDestino[j];
+                        j++;
+                    }
+                    respeita = digito >= 0 && digito <= 9 && (aceitos[i] & (1 << digito)) != 0 && j < result.length;
+                    if (respeita) {
+                        result[j++] = c;
+                    }
+                }
+            }
+            while (respeita && j < result.length) {
+                respeita = aceitosDoDestino[j] == 0;
+                result[j] = literalDoDestino[j];
+                j++;
+            }
+            if (respeita) {
+                return new String(result);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Escreve uma cadeia que respeita esta máscara segundo a primeira
+     * alternativa de outra, como em {@link #converte(CharSequence, Mascara)},
+     * mas diretamente em um {@link Appendable}, sem criar objetos. A cadeia é
+     * verificada antes que qualquer caractere seja escrito.
+     * 
+     * @param valor
+     *            cadeia a ser reescrita.
+     * @param destino
+     *            máscara do resultado.
+     * @param out
+     *            recebe a cadeia reescrita.
+     * @return <code>false</code>, sem escrever nada, caso a cadeia não
+     *         respeite nenhuma das alternativas desta máscara ou sua
+     *         quantidade de dígitos seja diferente da do destino.
+     * @throws IOException
+     *             caso ocorra um erro ao escrever em <code>out</code>.
+     */
+    public boolean converte(CharSequence valor, Mascara destino, Appendable out) throws IOException {
+        int alternativa = alternativaDe(valor, destino.quantidadeDeDigitos(0));
+        if (alternativa < 0) {
+            return false;
+        }
+        char[] literal = literais[alternativa];
+        char[] literalDoDestino = destino.literais[0];
+        int i = 0;
+        for (char c : literalDoDestino) {
+            if (c == '\0') {
+                while (literal[i] != '\0') {
+                    i++;
+                }
+                out.append(valor.charAt(i++));
+            } else {
+                out.append(c);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a primeira alternativa que a cadeia respeita, se ela tiver a
+     *         quantidade de dígitos informada; ou <code>-1</code>.
+     */
+    private int alternativaDe(CharSequence valor, int quantidadeDeDigitos) {
+        int tamanho = valor.length();
+        for (int alternativa = 0; alternativa < literais.length; alternativa++) {
+            if (literais[alternativa].length == tamanho && quantidadeDeDigitos(alternativa) == quantidadeDeDigitos
+                    && digitos(alternativa, valor) != INVALIDA) {
+                return alternativa;
+            }
+        }
+        return -1;
+    }
+
+    private int quantidadeDeDigitos(int alternativa) {
+        int result = 0;
+        for (short aceito : digitosAceitos[alternativa]) {
+            if (aceito != 0) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Substitui, no próprio buffer, os dígitos de uma cadeia que respeita a
+     * máscara, mantendo os demais caracteres. A alternativa usada é a mesma
+     * considerada por {@link #digitos(char[], int, int)}; as classes de dígitos
+     * não são verificadas para os novos dígitos.
+     * 
+     * @param buffer
+     *            buffer que contém a cadeia.
+     * @param inicio
+     *            posição do primeiro caractere da cadeia no buffer.
+     * @param tamanho
+     *            quantidade de caracteres da cadeia.
+     * @param digitos
+     *            novos dígitos, completados com zeros à esquerda.
+     * @return <code>false</code>, sem alterar o buffer, caso a cadeia não
+     *         respeite nenhuma das alternativas.
+     * @throws IllegalArgumentException
+     *             caso os dígitos sejam negativos ou não caibam na máscara.
+     * @throws IndexOutOfBoundsException
+     *             caso o trecho não esteja contido no buffer.
+     */
+    public boolean substituiDigitos(char[] buffer, int inicio, int tamanho, long digitos) {
+        if (digitos < 0) {
+            throw new IllegalArgumentException("Dígitos negativos: " + digitos);
+        }
+        if (inicio < 0 || tamanho < 0 || inicio > buffer.length - tamanho) {
+            throw new IndexOutOfBoundsException("Trecho [" + inicio + ", " + (inicio + tamanho)
+                    + ") fora do buffer de tamanho " + buffer.length);
+        }
+        for (int alternativa = 0; alternativa < literais.length; alternativa++) {
+            if (literais[alternativa].length == tamanho && digitos(alternativa, buffer, inicio) != INVALIDA) {
+                short[] aceitos = digitosAceitos[alternativa];
+                long resto = digitos;
+                for (int i = tamanho - 1; i >= 0; i--) {
+                    if (aceitos[i] != 0) {
+                        resto /= 10;
+                    }
+                }
+                if (resto != 0) {
+                    throw new IllegalArgumentException("Dígitos não cabem na máscara: " + digitos);
+                }
+                resto = digitos;
+                for (int i = tamanho - 1; i >= 0; i--) {
+                    if (aceitos[i] != 0) {
+                        buffer[inicio + i] = (char) ('0' + resto % 10);
+                        resto /= 10;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Escolhe dígitos que respeitam uma das alternativas da máscara a partir de
+     * um número aleatório, para a geração de documentos: cada posição recebe
+     * um dos dígitos que aceita, escolhido pelos bits ainda não usados do
+     * número.
+     * 
+     * @param aleatorio
+     *            número aleatório, com bits uniformemente distribuídos.
+     * @param alternativa
+     *            índice da alternativa, na ordem em que foram informadas.
+     * @return os dígitos escolhidos, como em {@link #digitos(CharSequence)}.
+     */
+    public long sorteia(long aleatorio, int alternativa) {
+        short[] aceitos = digitosAceitos[alternativa];
+        long resto = aleatorio >>> 1;
+        long result = 0;
+        for (short aceito : aceitos) {
+            if (aceito != 0) {
+                int escolha = (int) (resto % Integer.bitCount(aceito));
+                resto /= Integer.bitCount(aceito);
+                int digito = Integer.numberOfTrailingZeros(aceito);
+                for (int i = 0; i < escolha; i++) {
+                    digito = Integer.numberOfTrailingZeros(aceito >>> (digito + 1)) + digito + 1;
+                }
+                result = result * 10 + digito;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return quantidade de alternativas da máscara.
+     */
+    public int getQuantidadeDeAlternativas() {
+        return literais.length;
+    }
+
+    /**
+     * Permite descartar rapidamente cadeias que não podem respeitar a máscara.
+     * 
+     * @param tamanho
+     *            tamanho da cadeia.
+     * @param primeiro
+     *            primeiro caractere da cadeia.
+     * @return <code>true</code> se alguma alternativa tem o tamanho informado
+     *         e aceita o caractere em sua primeira posição.
+     */
+    public boolean aceitaInicio(int tamanho, char primeiro) {
+        for (int alternativa = 0; alternativa < literais.length; alternativa++) {
+            char[] literal = literais[alternativa];
+            if (literal.length == tamanho && tamanho > 0) {
+                short aceitos = digitosAceitos[alternativa][0];
+                if (aceitos == 0) {
+                    if (literal[0] == primeiro) {
+                        return true;
+                    }
+                } else {
+                    int digito = primeiro - '0';
+                    if (digito >= 0 && digito <= 9 && (aceitos & (1 << digito)) != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return tamanho da maior alternativa, em caracteres.
+     */
+    public int getTamanhoMaximo() {
+        int result = 0;
+        for (char[] literal : literais) {
+            result = Math.max(result, literal.length);
+        }
+        return result;
+    }
+
+    /**
+     * @param valor
+     *            cadeia a ser verificada.
+     * @return <code>true</code> se a cadeia respeita alguma das alternativas.
+     */
+    public boolean matches(CharSequence valor) {
+        return digitos(valor) != INVALIDA;
+    }
+
+}
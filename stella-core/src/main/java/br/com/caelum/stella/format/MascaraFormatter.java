@@ -0,0 +1,78 @@
+package br.com.caelum.stella.format;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * Formatador de documentos de tamanho fixo que, sem expressões regulares,
+ * escreve os dígitos e os separadores diretamente no resultado, em uma única
+ * passada pela cadeia.
+ * </p>
+ * <p>
+ * Cadeias que não respeitam as máscaras são repassadas a outro formatador,
+ * normalmente um {@link BaseFormatter}, que decide se são aceitas ou lança a
+ * exceção. Assim, o comportamento é o mesmo do outro formatador sempre que as
+ * máscaras descrevem o mesmo formato que ele, ou um formato mais restrito.
+ * </p>
+ * 
+ * @see Mascara#converte(CharSequence, Mascara)
+ */
+public class MascaraFormatter implements AppendableFormatter {
+
+    private final Mascara formatada;
+
+    private final Mascara semFormato;
+
+    private final Formatter alternativo;
+
+    /**
+     * @param formatada
+     *            máscara das cadeias formatadas.
+     * @param semFormato
+     *            máscara das cadeias sem formatação, com a mesma quantidade
+     *            de dígitos.
+     * @param alternativo
+     *            formatador usado para as cadeias que não respeitam as
+     *            máscaras.
+     */
+    public MascaraFormatter(Mascara formatada, Mascara semFormato, Formatter alternativo) {
+        this.formatada = formatada;
+        this.semFormato = semFormato;
+        this.alternativo = alternativo;
+    }
+
+    public String format(String value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value may not be null.");
+        }
+        String result = semFormato.converte(value, formatada);
+        return result != null ? result : alternativo.format(value);
+    }
+
+    public String unformat(String value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value may not be null.");
+        }
+        String result = formatada.converte(value, semFormato);
+        return result != null ? result : alternativo.unformat(value);
+    }
+
+    public void formatTo(CharSequence value, Appendable out) throws IllegalArgumentException, IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value may not be null.");
+        }
+        if (!semFormato.converte(value, formatada, out)) {
+            Formatters.formatTo(alternativo, value, out);
+        }
+    }
+
+    public void unformatTo(CharSequence value, Appendable out) throws IllegalArgumentException, IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value may not be null.");
+        }
+        if (!formatada.converte(value, semFormato, out)) {
+            Formatters.unformatTo(alternativo, value, out);
+        }
+    }
+
+}
@@ -1,16 +1,23 @@
 package br.com.caelum.stella.format;
 
+import java.io.IOException;
+
 import br.com.caelum.stella.validation.NITValidator;
 
 /**
  * @author Leonardo Bessa
  */
-public class NITFormatter implements Formatter {
+public class NITFormatter implements AppendableFormatter {
+
+    private static final Mascara FORMATADO = NITValidator.MASCARA_FORMATADA;
 
-    private final BaseFormatter base;
+    private static final Mascara SEM_FORMATO = NITValidator.MASCARA_SEM_FORMATO;
+
+    private final AppendableFormatter base;
 
     public NITFormatter() {
-        this.base = new BaseFormatter(NITValidator.NIT_FORMATED, "$1.$2.$3-$4", NITValidator.NIT_UNFORMATED, "$1$2$3$4");
+        this.base = new MascaraFormatter(FORMATADO, SEM_FORMATO, new BaseFormatter(
+                NITValidator.NIT_FORMATED, "$1.$2.$3-$4", NITValidator.NIT_UNFORMATED, "$1$2$3$4"));
     }
 
     public String format(String value) {
@@ -21,4 +28,12 @@ public class NITFormatter implements Formatter {
         return base.unformat(value);
     }
 
+    public void formatTo(CharSequence value, Appendable out) throws IOException {
+        base.formatTo(value, out);
+    }
+
+    public void unformatTo(CharSequence value, Appendable out) throws IOException {
+        base.unformatTo(value, out);
+    }
+
 }
@@ -0,0 +1,134 @@
+package br.com.caelum.stella.format;
+
+import br.com.caelum.stella.validation.CNPJValidator;
+import br.com.caelum.stella.validation.CPFValidator;
+import br.com.caelum.stella.validation.MascaraValidator;
+import br.com.caelum.stella.validation.NITValidator;
+import br.com.caelum.stella.validation.RenavamValidator;
+import br.com.caelum.stella.validation.TituloEleitoralValidator;
+
+/**
+ * <p>
+ * Lê documentos digitados ou importados sem padrão de formatação, como
+ * <code>" 248.438.034 - 80"</code>, <code>"248438034/80"</code> ou um CNPJ
+ * separado por espaços não separáveis, e extrai seus dígitos.
+ * </p>
+ * <p>
+ * A cadeia é percorrida uma única vez: espaços de qualquer tipo, hífens e
+ * traços, pontos, vírgulas, barras e dois-pontos são descartados; qualquer
+ * outro caractere torna a cadeia inválida. Documentos guardados como números
+ * perdem seus zeros à esquerda, por isso cadeias compostas apenas por dígitos
+ * podem ter menos dígitos que o documento e são completadas com zeros, como
+ * faz o {@link LeftSideZerosFormatter}; cadeias com separadores devem ter a
+ * quantidade exata de dígitos.
+ * </p>
+ * <p>
+ * Nenhum método lança exceções ou cria objetos: os dígitos são devolvidos como
+ * um número e conferidos diretamente pelas regras do validador do documento,
+ * sem nova leitura da cadeia.
+ * </p>
+ */
+public enum Normalizador {
+
+    CPF(11, new CPFValidator(false)),
+    CNPJ(14, new CNPJValidator(false)),
+    NIT(11, new NITValidator(false)),
+    TITULO_ELEITORAL(12, new TituloEleitoralValidator(false)),
+    RENAVAM(9, new RenavamValidator(false));
+
+    private final int quantidadeDeDigitos;
+
+    private final MascaraValidator<?> validador;
+
+    private Normalizador(int quantidadeDeDigitos, MascaraValidator<?> validador) {
+        this.quantidadeDeDigitos = quantidadeDeDigitos;
+        this.validador = validador;
+    }
+
+    /**
+     * @param valor
+     *            cadeia a ser normalizada.
+     * @return os dígitos do documento como um número, ou
+     *         {@link Mascara#INVALIDA} caso a cadeia seja nula, contenha algum
+     *         caractere que não seja dígito nem separador, ou não tenha a
+     *         quantidade de dígitos do documento.
+     */
+    public long digitos(CharSequence valor) {
+        if (valor == null) {
+            return Mascara.INVALIDA;
+        }
+        long result = 0;
+        int digitos = 0;
+        boolean temSeparador = false;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > quantidadeDeDigitos) {
+                    return Mascara.INVALIDA;
+                }
+                result = result * 10 + (c - '0');
+            } else if (isSeparador(c)) {
+                temSeparador = true;
+            } else {
+                return Mascara.INVALIDA;
+            }
+        }
+        if (digitos == 0 || (temSeparador && digitos != quantidadeDeDigitos)) {
+            return Mascara.INVALIDA;
+        }
+        return result;
+    }
+
+    /**
+     * Aplica aos dígitos normalizados todas as regras do validador padrão do
+     * documento, como o código de estado do Título Eleitoral.
+     * 
+     * @param valor
+     *            cadeia a ser normalizada.
+     * @return <code>true</code> se a cadeia pode ser normalizada, não é
+     *         composta apenas por zeros e é um documento válido.
+     */
+    public boolean isValid(CharSequence valor) {
+        return isValid(valor, validador);
+    }
+
+    /**
+     * Como {@link #isValid(CharSequence)}, com as regras de um validador
+     * configurado, por exemplo um
+     * {@link CPFValidator#CPFValidator(br.com.caelum.stella.MessageProducer, boolean, boolean)}
+     * que não aceita dígitos repetidos.
+     * 
+     * @param valor
+     *            cadeia a ser normalizada.
+     * @param validador
+     *            validador do mesmo documento; sua formatação é indiferente.
+     * @return <code>true</code> se a cadeia pode ser normalizada, não é
+     *         composta apenas por zeros e é válida para o validador.
+     */
+    public boolean isValid(CharSequence valor, MascaraValidator<?> validador) {
+        long digitos = digitos(valor);
+        return digitos != Mascara.INVALIDA && digitos != 0 && validador.errorsForDigitos(digitos) == 0;
+    }
+
+    /**
+     * @return quantidade de dígitos do documento, incluindo os dígitos
+     *         verificadores.
+     */
+    public int getQuantidadeDeDigitos() {
+        return quantidadeDeDigitos;
+    }
+
+    private static boolean isSeparador(char c) {
+        switch (c) {
+        case '.':
+        case ',':
+        case '/':
+        case ':':
+            return true;
+        default:
+            return Character.isWhitespace(c) || Character.isSpaceChar(c)
+                    || Character.getType(c) == Character.DASH_PUNCTUATION;
+        }
+    }
+
+}
@@ -1,20 +1,28 @@
 package br.com.caelum.stella.format;
 
+import java.io.IOException;
 import java.util.regex.Pattern;
 
+import br.com.caelum.stella.validation.RenavamValidator;
+
 /**
  * @author Rafael Carvalho
- *
+ * 
  */
-public class RenavamFormatter implements Formatter {
+public class RenavamFormatter implements AppendableFormatter {
 
     public static final Pattern FORMATTED = Pattern.compile("(\\d{2}).(\\d{6})-(\\d{1})");
     public static final Pattern UNFORMATTED = Pattern.compile("(\\d{2})(\\d{6})(\\d{1})");
 
-    private final BaseFormatter base;
+    private static final Mascara FORMATADO = RenavamValidator.MASCARA_FORMATADA;
+
+    private static final Mascara SEM_FORMATO = RenavamValidator.MASCARA_SEM_FORMATO;
+
+    private final AppendableFormatter base;
 
     public RenavamFormatter() {
-        this.base = new BaseFormatter(FORMATTED, "$1.$2-$3", UNFORMATTED, "$1$2$3");
+        this.base = new MascaraFormatter(FORMATADO, SEM_FORMATO, new BaseFormatter(
+                FORMATTED, "$1.$2-$3", UNFORMATTED, "$1$2$3"));
     }
 
     public String format(String renavam) throws IllegalArgumentException {
@@ -25,4 +33,12 @@ public class RenavamFormatter implements Formatter {
         return base.unformat(renavam);
     }
 
+    public void formatTo(CharSequence value, Appendable out) throws IOException {
+        base.formatTo(value, out);
+    }
+
+    public void unformatTo(CharSequence value, Appendable out) throws IOException {
+        base.unformatTo(value, out);
+    }
+
 }
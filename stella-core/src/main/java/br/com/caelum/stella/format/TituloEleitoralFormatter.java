@@ -1,15 +1,21 @@
 package br.com.caelum.stella.format;
 
+import java.io.IOException;
 
 import br.com.caelum.stella.validation.TituloEleitoralValidator;
 
-public class TituloEleitoralFormatter implements Formatter{
+public class TituloEleitoralFormatter implements AppendableFormatter{
 	  
 	
-	private final BaseFormatter base;
+	private static final Mascara FORMATADO = TituloEleitoralValidator.MASCARA_FORMATADA;
+
+	private static final Mascara SEM_FORMATO = TituloEleitoralValidator.MASCARA_SEM_FORMATO;
+
+	private final AppendableFormatter base;
 	
     public TituloEleitoralFormatter() {
-        this.base = new BaseFormatter(TituloEleitoralValidator.FORMATED, "$1/$2",TituloEleitoralValidator.UNFORMATED, "$1$2");
+        this.base = new MascaraFormatter(FORMATADO, SEM_FORMATO, new BaseFormatter(
+                TituloEleitoralValidator.FORMATED, "$1/$2", TituloEleitoralValidator.UNFORMATED, "$1$2"));
     }
 
     public String format(String value) {
@@ -19,5 +25,13 @@ public class TituloEleitoralFormatter implements Formatter{
     public String unformat(String value) {
         return base.unformat(value);
     }
-	
+
+    public void formatTo(CharSequence value, Appendable out) throws IOException {
+        base.formatTo(value, out);
+    }
+
+    public void unformatTo(CharSequence value, Appendable out) throws IOException {
+        base.unformatTo(value, out);
+    }
+
 }
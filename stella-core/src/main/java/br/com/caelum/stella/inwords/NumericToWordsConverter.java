@@ -5,7 +5,15 @@ import java.text.DecimalFormatSymbols;
 import java.util.MissingResourceException;
 
 /**
+ * <p>
  * Responsável por transformar um número em sua representação por extenso.
+ * </p>
+ * <p>
+ * As palavras de todos os números de 0 a 999 e os nomes das potências de mil
+ * são lidos das {@link Messages} uma única vez, na inicialização da classe.
+ * Números inteiros são então transformados apenas com aritmética e consultas a
+ * essas tabelas.
+ * </p>
  * 
  * @author Victor dos Santos Pereira
  * @author Leonardo Bessa
@@ -13,6 +21,23 @@ import java.util.MissingResourceException;
  */
 public class NumericToWordsConverter {
 
+    private static final String SEPARADOR = getString("sep");
+
+    private static final String SEPARADOR_DE_MILHAR = getString("sep.mil");
+
+    /**
+     * Palavras de cada número de 0 a 999, indexadas pelo próprio número.
+     */
+    private static final String[] PALAVRAS = palavras();
+
+    /**
+     * Nomes das potências de mil, indexados pelo expoente: a posição 1 é mil,
+     * a 2 é milhão e assim por diante. A posição 0 não é usada.
+     */
+    private static final String[] POTENCIAS_NO_SINGULAR = potencias("singular");
+
+    private static final String[] POTENCIAS_NO_PLURAL = potencias("plural");
+
     private final FormatoDeExtenso formato;
 
     /**
@@ -29,33 +54,28 @@ public class NumericToWordsConverter {
      * @return Representação do número por extenso.
      */
     public String toWords(long number) {
-        try {
-            if (number < 0) {
-                throw new IllegalArgumentException("Não é possível transforma número negativos.");
+        if (number < 0) {
+            throw new IllegalArgumentException("Não é possível transforma número negativos.");
+        }
+        StringBuffer result = new StringBuffer();
+        if (number == 0) {
+            result.append(PALAVRAS[0]);
+        } else {
+            int quantidade = 0;
+            for (long resto = number; resto > 0; resto /= 1000) {
+                quantidade++;
             }
-            StringBuffer result = new StringBuffer();
-            if (number == 0) {
-                result.append(getNumber(0));
-            } else {
-                DecimalFormatSymbols symbols = new DecimalFormatSymbols();
-                symbols.setGroupingSeparator(',');
-                symbols.setDecimalSeparator('.');
-                DecimalFormat formatter = new DecimalFormat("###,###", symbols);
-                String formattedInt = formatter.format(number);
-                String[] ints = formattedInt.split("[,]");
-                ThousandBlock[] blocks = new ThousandBlock[ints.length];
-                for (int i = 0; i < blocks.length; i++) {
-                    String block = ints[i];
-                    blocks[i] = new ThousandBlock(block);
-                }
-
-                appendIntegers(result, blocks);
-                appendIntegersUnits(number, result, blocks);
+            int[] blocks = new int[quantidade];
+            long resto = number;
+            for (int i = blocks.length - 1; i >= 0; i--) {
+                blocks[i] = (int) (resto % 1000);
+                resto /= 1000;
             }
-            return result.toString();
-        } catch (MissingResourceException e) {
-            throw new IllegalArgumentException("Número muito grande para ser transformado em extenso.");
+
+            appendIntegers(result, blocks);
+            appendIntegersUnits(number, result, blocks);
         }
+        return result.toString();
     }
 
     /**
@@ -64,57 +84,50 @@ public class NumericToWordsConverter {
      * @return Representação do número por extenso.
      */
     public String toWords(double number) {
-        try {
-            if (number < 0) {
-                throw new IllegalArgumentException("Não é possível transforma número negativos.");
-            }
-            StringBuffer result = new StringBuffer();
-            if (number == 0) {
-                result.append(getNumber(0));
-            } else {
-
-                String[] parts = split(number);
-                String formattedInt = parts[0];
-                String[] ints = formattedInt.split("[,]");
-                ThousandBlock[] blocks = new ThousandBlock[ints.length];
-                for (int i = 0; i < blocks.length; i++) {
-                    String block = ints[i];
-                    blocks[i] = new ThousandBlock(block);
-                }
-                String formattedMod = parts[1];
-                ThousandBlock modBlock = new ThousandBlock(formattedMod);
+        if (number < 0) {
+            throw new IllegalArgumentException("Não é possível transforma número negativos.");
+        }
+        StringBuffer result = new StringBuffer();
+        if (number == 0) {
+            result.append(PALAVRAS[0]);
+        } else {
+            String formatted = format(number);
+            int ponto = formatted.indexOf('.');
+            int[] blocks = blocks(formatted, 0, ponto);
+            int modBlock = blocks(formatted, ponto + 1, formatted.length())[0];
 
-                boolean hasMod = !modBlock.isZero();
-                boolean hasInteger = (blocks.length > 1) || (!blocks[blocks.length - 1].isZero());
+            boolean hasMod = modBlock != 0;
+            boolean hasInteger = (blocks.length > 1) || (blocks[blocks.length - 1] != 0);
 
-                if (hasInteger) {
-                    appendIntegers(result, blocks);
-                    appendIntegersUnits(number, result, blocks);
-                }
-                if (hasInteger && hasMod) {
-                    result.append(getAndSeparator());
-                }
-                if (hasMod) {
-                    appendIntegers(result, modBlock);
-                    appendDecimalUnits(result, modBlock);
-                }
+            if (hasInteger) {
+                appendIntegers(result, blocks);
+                appendIntegersUnits(number, result, blocks);
+            }
+            if (hasInteger && hasMod) {
+                result.append(SEPARADOR);
+            }
+            if (hasMod) {
+                appendIntegers(result, modBlock);
+                appendDecimalUnits(result, modBlock);
             }
-            return result.toString();
-        } catch (MissingResourceException e) {
-            throw new IllegalArgumentException("Número muito grande para ser transformado em extenso.");
         }
+        return result.toString();
     }
 
-    private void appendDecimalUnits(StringBuffer result, ThousandBlock modBlock) {
+    private void appendDecimalUnits(StringBuffer result, int modBlock) {
         result.append(" ");
-        if (modBlock.isUnitary()) {
+        if (modBlock == 1) {
             result.append(formato.getUnidadeDecimalNoSingular());
         } else {
             result.append(formato.getUnidadeDecimalNoPlural());
         }
     }
 
-    private String[] split(double number) {
+    /**
+     * O {@link DecimalFormat} é mantido apenas para números reais, pois define
+     * o arredondamento das casas decimais.
+     */
+    private String format(double number) {
         final StringBuffer pattern = new StringBuffer();
         pattern.append("###,000.");
         for (int i = 1; i <= formato.getCasasDecimais(); i++) {
@@ -124,17 +137,45 @@ public class NumericToWordsConverter {
         symbols.setGroupingSeparator(',');
         symbols.setDecimalSeparator('.');
         DecimalFormat decimalFormat = new DecimalFormat(pattern.toString(), symbols);
-        String formatted = decimalFormat.format(number);
-        String[] parts = formatted.split("[.]");
-        return parts;
+        return decimalFormat.format(number);
+    }
+
+    /**
+     * @return os valores dos blocos de até três dígitos, separados por
+     *         vírgulas, do trecho <code>[inicio, fim)</code> da cadeia.
+     */
+    private static int[] blocks(String formatted, int inicio, int fim) {
+        int quantidade = 1;
+        for (int i = inicio; i < fim; i++) {
+            if (formatted.charAt(i) == ',') {
+                quantidade++;
+            }
+        }
+        int[] blocks = new int[quantidade];
+        int block = 0;
+        int digitos = 0;
+        for (int i = inicio; i < fim; i++) {
+            char c = formatted.charAt(i);
+            if (c == ',') {
+                block++;
+                digitos = 0;
+            } else {
+                if (++digitos > 3) {
+                    throw new IllegalArgumentException("ThousandBlock deve conter numeros"
+                            + " de no maximo 3 digitos.");
+                }
+                blocks[block] = blocks[block] * 10 + (c - '0');
+            }
+        }
+        return blocks;
     }
 
-    private void appendIntegersUnits(double number, StringBuffer result, ThousandBlock[] blocks) {
-        if (blocks.length != 1 || !blocks[0].isZero()) {
+    private void appendIntegersUnits(double number, StringBuffer result, int[] blocks) {
+        if (blocks.length != 1 || blocks[0] != 0) {
             result.append(" ");
             if (number >= 2) {
                 int length = blocks.length;
-                if (length > 2 && blocks[length - 1].isZero() && blocks[length - 2].isZero()) {
+                if (length > 2 && blocks[length - 1] == 0 && blocks[length - 2] == 0) {
                     result.append("de ");
                 }
                 result.append(formato.getUnidadeInteiraNoPlural());
@@ -144,117 +185,114 @@ public class NumericToWordsConverter {
         }
     }
 
-    private void appendIntegers(StringBuffer result, ThousandBlock... blocks) {
+    private void appendIntegers(StringBuffer result, int... blocks) {
+        if (blocks.length > POTENCIAS_NO_PLURAL.length) {
+            throw new IllegalArgumentException("Número muito grande para ser transformado em extenso.");
+        }
         boolean hasStarted = false;
         for (int i = 0; i < blocks.length; i++) {
-            ThousandBlock thousandBlock = blocks[i];
-            if (!(hasStarted && thousandBlock.isZero())) {
+            int thousandBlock = blocks[i];
+            if (!(hasStarted && thousandBlock == 0)) {
                 int thousandPower = (blocks.length - i - 1);
                 if (hasStarted) {
-                    if (thousandBlock.isUnitary()) {
-                        result.append(getAndSeparator());
+                    if (thousandBlock == 1 || thousandPower < 1) {
+                        result.append(SEPARADOR);
                     } else {
-                        if (thousandPower < 1) {
-                            result.append(getAndSeparator());
-                        } else {
-                            result.append(getThousandSeparator());
-                        }
+                        result.append(SEPARADOR_DE_MILHAR);
                     }
                 }
 
-                result.append(thousandBlock.toWords());
+                result.append(PALAVRAS[thousandBlock]);
 
                 if (thousandPower > 0) {
                     result.append(" ");
-                    result.append(this.getString("1e" + 3 * thousandPower + "."
-                            + (thousandBlock.isUnitary() ? "singular" : "plural")));
+                    result.append(thousandBlock == 1 ? POTENCIAS_NO_SINGULAR[thousandPower]
+                            : POTENCIAS_NO_PLURAL[thousandPower]);
                 }
                 hasStarted = true;
             }
         }
     }
 
-    private final class ThousandBlock {
-
-        private int numberValue;
-
-        public ThousandBlock(String number) {
-            super();
-            if (number.length() > 3) {
-                throw new IllegalArgumentException("ThousandBlock deve conter numeros" + " de no maximo 3 digitos.");
-            }
-            this.numberValue = Integer.parseInt(number);
-        }
-
-        public boolean isZero() {
-            return numberValue == 0;
-        }
-
-        public boolean isUnitary() {
-            return numberValue == 1;
-        }
-
-        public String toWords() {
+    private static String[] palavras() {
+        String[] palavras = new String[1000];
+        for (int numberValue = 0; numberValue < palavras.length; numberValue++) {
             String result;
             if (numberValue <= 20) {
-                result = NumericToWordsConverter.this.getNumber(numberValue);
+                result = getNumber(numberValue);
             } else if (numberValue <= 99) {
                 result = getNumberUnder100(numberValue);
             } else if (numberValue == 100) {
-                result = NumericToWordsConverter.this.getNumber(100);
+                result = getNumber(100);
             } else {
                 int c = (numberValue / 100) * 100;
                 String centena;
                 if (c == 100) {
-                    centena = NumericToWordsConverter.this.getString("100+?");
+                    centena = getString("100+?");
                 } else {
-                    centena = NumericToWordsConverter.this.getNumber(c);
+                    centena = getNumber(c);
                 }
                 int resto = numberValue % 100;
                 if (resto == 0) {
                     result = centena;
                 } else {
-                    result = centena + getAndSeparator() + getNumberUnder100(resto);
+                    result = centena + SEPARADOR + getNumberUnder100(resto);
                 }
             }
-            return result;
+            palavras[numberValue] = result;
         }
+        return palavras;
+    }
 
-        private String getNumberUnder100(int number) {
-            String result = null;
-            if (number <= 20) {
-                result = getNumber(number);
-            } else if (number <= 99) {
-                int d = number / 10;
-                int u = number % 10;
-                String dezena = getNumber(d * 10);
-                if (u == 0) {
-                    result = dezena;
-                } else {
-                    String unidade = getNumber(u);
-                    result = dezena + getAndSeparator() + unidade;
-                }
+    private static String getNumberUnder100(int number) {
+        String result;
+        if (number <= 20) {
+            result = getNumber(number);
+        } else {
+            int d = number / 10;
+            int u = number % 10;
+            String dezena = getNumber(d * 10);
+            if (u == 0) {
+                result = dezena;
+            } else {
+                String unidade = getNumber(u);
+                result = dezena + SEPARADOR + unidade;
             }
-            return result;
         }
-
+        return result;
     }
 
-    private String getThousandSeparator() {
-        return getString("sep.mil");
+    /**
+     * Lê as potências de mil até a primeira que não estiver nas
+     * {@link Messages}.
+     */
+    private static String[] potencias(String numero) {
+        int quantidade = 1;
+        while (contains("1e" + 3 * quantidade + "." + numero)) {
+            quantidade++;
+        }
+        String[] potencias = new String[quantidade];
+        for (int i = 1; i < quantidade; i++) {
+            potencias[i] = getString("1e" + 3 * i + "." + numero);
+        }
+        return potencias;
     }
 
-    private String getAndSeparator() {
-        return getString("sep");
+    private static boolean contains(String paramMessage) {
+        try {
+            getString(paramMessage);
+            return true;
+        } catch (MissingResourceException e) {
+            return false;
+        }
     }
 
-    private String getString(String paramMessage) {
+    private static String getString(String paramMessage) {
         return Messages.getString("Extenso." + paramMessage);
     }
 
-    private String getNumber(int number) {
-        DecimalFormat formater = new DecimalFormat("000");
-        String formatted = formater.format(number);
-        return Messages.getString("Extenso." + formatted);
+    private static String getNumber(int number) {
+        char[] formatted = { (char) ('0' + number / 100), (char) ('0' + number / 10 % 10), (char) ('0' + number % 10) };
+        return getString(new String(formatted));
     }
-}
\ No newline at end of file
+}
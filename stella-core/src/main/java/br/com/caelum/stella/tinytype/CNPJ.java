@@ -1,13 +1,40 @@
 package br.com.caelum.stella.tinytype;
 
+import br.com.caelum.stella.format.Mascara;
+import br.com.caelum.stella.validation.CNPJValidator;
+
 /**
+ * <p>
  * Representa um Cadastro Nacional da Pessoa Jurídica - CNPJ.
+ * </p>
+ * <p>
+ * Números nos formatos "dd.ddd.ddd/dddd-dd" ou "dddddddddddddd", onde "d" é um dígito
+ * decimal, são guardados como um <code>long</code> e formatados apenas quando
+ * pedidos; os demais são guardados como foram informados.
+ * </p>
  * 
  * @author leobessa
  * 
  */
 public final class CNPJ {
 
+    private static final Mascara FORMATADO = CNPJValidator.MASCARA_FORMATADA;
+
+    private static final Mascara SEM_FORMATACAO = CNPJValidator.MASCARA_SEM_FORMATO;
+
+    private static final long MAIOR_NUMERO = 99999999999999L;
+
+    /**
+     * Dígitos do CNPJ, ou {@link Mascara#INVALIDA} se o número não está em
+     * nenhum dos formatos de CNPJ.
+     */
+    private final long digitos;
+
+    private final boolean formatado;
+
+    /**
+     * Número informado, apenas quando não está em nenhum dos formatos de CNPJ.
+     */
     private final String numero;
 
     /**
@@ -15,14 +42,69 @@ public final class CNPJ {
      *            do CNPJ
      */
     public CNPJ(String numero) {
-        this.numero = numero;
+        long digitosDoNumero = Mascara.INVALIDA;
+        boolean numeroFormatado = false;
+        if (numero != null) {
+            digitosDoNumero = SEM_FORMATACAO.digitos(numero);
+            if (digitosDoNumero == Mascara.INVALIDA) {
+                digitosDoNumero = FORMATADO.digitos(numero);
+                numeroFormatado = digitosDoNumero != Mascara.INVALIDA;
+            }
+        }
+        this.digitos = digitosDoNumero;
+        this.formatado = numeroFormatado;
+        this.numero = digitosDoNumero == Mascara.INVALIDA ? numero : null;
+    }
+
+    private CNPJ(long digitos) {
+        this.digitos = digitos;
+        this.formatado = false;
+        this.numero = null;
+    }
+
+    /**
+     * @param numero
+     *            dígitos do CNPJ.
+     * @return CNPJ cujo número são os 14 dígitos informados, sem formatação.
+     * @throws IllegalArgumentException
+     *             caso o número seja negativo ou tenha mais de 14 dígitos.
+     */
+    public static CNPJ fromLong(long numero) {
+        if (numero < 0 || numero > MAIOR_NUMERO) {
+            throw new IllegalArgumentException("Número de CNPJ inválido: " + numero);
+        }
+        return new CNPJ(numero);
+    }
+
+    /**
+     * @return dígitos do CNPJ.
+     * @throws IllegalStateException
+     *             caso o número não esteja em nenhum dos formatos de CNPJ.
+     * @see #isCompactado()
+     */
+    public long toLong() {
+        if (!isCompactado()) {
+            throw new IllegalStateException("CNPJ fora do formato: " + numero);
+        }
+        return digitos;
+    }
+
+    /**
+     * @return <code>true</code> se o número está em um dos formatos de CNPJ e é
+     *         guardado como um <code>long</code>.
+     */
+    public boolean isCompactado() {
+        return digitos != Mascara.INVALIDA;
     }
 
     /**
      * @return número do CNPJ.
      */
     public String getNumero() {
-        return numero;
+        if (!isCompactado()) {
+            return numero;
+        }
+        return (formatado ? FORMATADO : SEM_FORMATACAO).formata(digitos);
     }
 
     /**
@@ -30,13 +112,15 @@ public final class CNPJ {
      */
     @Override
     public String toString() {
-        return numero;
+        return getNumero();
     }
 
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
+        result = prime * result + (int) (digitos ^ (digitos >>> 32));
+        result = prime * result + (formatado ? 1 : 0);
         result = prime * result + ((numero == null) ? 0 : numero.hashCode());
         return result;
     }
@@ -50,6 +134,8 @@ public final class CNPJ {
         if (getClass() != obj.getClass())
             return false;
         final CNPJ other = (CNPJ) obj;
+        if (digitos != other.digitos || formatado != other.formatado)
+            return false;
         if (numero == null) {
             if (other.numero != null)
                 return false;
@@ -1,13 +1,40 @@
 package br.com.caelum.stella.tinytype;
 
+import br.com.caelum.stella.format.Mascara;
+import br.com.caelum.stella.validation.CPFValidator;
+
 /**
+ * <p>
  * Representa um CPF (Cadastro de Pessoas Física).
+ * </p>
+ * <p>
+ * Números nos formatos "ddd.ddd.ddd-dd" ou "ddddddddddd", onde "d" é um dígito
+ * decimal, são guardados como um <code>long</code> e formatados apenas quando
+ * pedidos; os demais são guardados como foram informados.
+ * </p>
  * 
  * @author leobessa
  * 
  */
 public final class CPF {
 
+    private static final Mascara FORMATADO = CPFValidator.MASCARA_FORMATADA;
+
+    private static final Mascara SEM_FORMATACAO = CPFValidator.MASCARA_SEM_FORMATO;
+
+    private static final long MAIOR_NUMERO = 99999999999L;
+
+    /**
+     * Dígitos do CPF, ou {@link Mascara#INVALIDA} se o número não está em
+     * nenhum dos formatos de CPF.
+     */
+    private final long digitos;
+
+    private final boolean formatado;
+
+    /**
+     * Número informado, apenas quando não está em nenhum dos formatos de CPF.
+     */
     private final String numero;
 
     /**
@@ -15,14 +42,69 @@ public final class CPF {
      *            do CPF
      */
     public CPF(String numero) {
-        this.numero = numero;
+        long digitosDoNumero = Mascara.INVALIDA;
+        boolean numeroFormatado = false;
+        if (numero != null) {
+            digitosDoNumero = SEM_FORMATACAO.digitos(numero);
+            if (digitosDoNumero == Mascara.INVALIDA) {
+                digitosDoNumero = FORMATADO.digitos(numero);
+                numeroFormatado = digitosDoNumero != Mascara.INVALIDA;
+            }
+        }
+        this.digitos = digitosDoNumero;
+        this.formatado = numeroFormatado;
+        this.numero = digitosDoNumero == Mascara.INVALIDA ? numero : null;
+    }
+
+    private CPF(long digitos) {
+        this.digitos = digitos;
+        this.formatado = false;
+        this.numero = null;
+    }
+
+    /**
+     * @param numero
+     *            dígitos do CPF.
+     * @return CPF cujo número são os 11 dígitos informados, sem formatação.
+     * @throws IllegalArgumentException
+     *             caso o número seja negativo ou tenha mais de 11 dígitos.
+     */
+    public static CPF fromLong(long numero) {
+        if (numero < 0 || numero > MAIOR_NUMERO) {
+            throw new IllegalArgumentException("Número de CPF inválido: " + numero);
+        }
+        return new CPF(numero);
+    }
+
+    /**
+     * @return dígitos do CPF.
+     * @throws IllegalStateException
+     *             caso o número não esteja em nenhum dos formatos de CPF.
+     * @see #isCompactado()
+     */
+    public long toLong() {
+        if (!isCompactado()) {
+            throw new IllegalStateException("CPF fora do formato: " + numero);
+        }
+        return digitos;
+    }
+
+    /**
+     * @return <code>true</code> se o número está em um dos formatos de CPF e é
+     *         guardado como um <code>long</code>.
+     */
+    public boolean isCompactado() {
+        return digitos != Mascara.INVALIDA;
     }
 
     /**
      * @return número do CPF
      */
     public String getNumero() {
-        return numero;
+        if (!isCompactado()) {
+            return numero;
+        }
+        return (formatado ? FORMATADO : SEM_FORMATACAO).formata(digitos);
     }
 
     /**
@@ -30,13 +112,15 @@ public final class CPF {
      */
     @Override
     public String toString() {
-        return numero;
+        return getNumero();
     }
 
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
+        result = prime * result + (int) (digitos ^ (digitos >>> 32));
+        result = prime * result + (formatado ? 1 : 0);
         result = prime * result + ((numero == null) ? 0 : numero.hashCode());
         return result;
     }
@@ -50,6 +134,8 @@ public final class CPF {
         if (getClass() != obj.getClass())
             return false;
         final CPF other = (CPF) obj;
+        if (digitos != other.digitos || formatado != other.formatado)
+            return false;
         if (numero == null) {
             if (other.numero != null)
                 return false;
@@ -65,6 +65,24 @@ public class AcceptAnyValidator implements Validator<String> {
         return result;
     }
 
+    public boolean isValid(String value) {
+        return errorsFor(value) == 0;
+    }
+
+    public int errorsFor(String value) {
+        int result = 0;
+        for (Validator<String> validator : validators) {
+            int errors = validator.errorsFor(value);
+            if (errors == 0) {
+                result = 0;
+                break;
+            } else {
+                result |= errors;
+            }
+        }
+        return result;
+    }
+
     public boolean isEligible(String object) {
         boolean result = false;
         for (Validator<String> validator : validators) {
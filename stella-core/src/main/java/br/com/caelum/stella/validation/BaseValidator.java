@@ -1,7 +1,10 @@
 package br.com.caelum.stella.validation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
@@ -18,17 +21,28 @@ import br.com.caelum.stella.ValidationMessage;
  * dos métodos {@link #generateValidationMessages(List)} e
  * {@link #assertValid(List)} as mensagens de validação são geradas.
  * </p>
+ * <p>
+ * Os erros também podem ser representados por uma máscara de bits, na qual
+ * cada erro de um enum ocupa o bit de seu ordinal e os demais erros ocupam o
+ * bit reservado {@link #ERRO_NAO_ENUMERADO} (veja
+ * {@link #maskOf(InvalidValue)}). Com ela, a validação é feita sem alocar
+ * listas e as mensagens só são geradas quando há erros.
+ * </p>
  * 
  * @author leobessa
  */
 public class BaseValidator {
     private final MessageProducer messageProducer;
 
+    private final boolean isStackTraceEnabled;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Integer, List<ValidationMessage>>> sharedMessages;
+
     /**
      * Utiliza um {@linkplain SimpleMessageProducer}.
      */
     public BaseValidator() {
-        this.messageProducer = new SimpleMessageProducer();
+        this(new SimpleMessageProducer());
     }
 
     /**
@@ -36,7 +50,27 @@ public class BaseValidator {
      *            produtor das mensagens de validação.
      */
     public BaseValidator(MessageProducer messageProducer) {
+        this(messageProducer, true);
+    }
+
+    /**
+     * @param messageProducer
+     *            produtor das mensagens de validação.
+     * @param isStackTraceEnabled
+     *            <code>false</code> para lançar {@link InvalidStateException}
+     *            sem a pilha de execução e, em
+     *            {@link #assertValid(int, Class)}, reaproveitar as mensagens já
+     *            geradas para cada máscara de erros. Indicado para rejeitar
+     *            valores em grande volume.
+     */
+    public BaseValidator(MessageProducer messageProducer, boolean isStackTraceEnabled) {
         this.messageProducer = messageProducer;
+        this.isStackTraceEnabled = isStackTraceEnabled;
+        if (isStackTraceEnabled) {
+            this.sharedMessages = null;
+        } else {
+            this.sharedMessages = new ConcurrentHashMap<Class<?>, ConcurrentMap<Integer, List<ValidationMessage>>>();
+        }
     }
 
     /**
@@ -61,8 +95,160 @@ public class BaseValidator {
      */
     public void assertValid(List<InvalidValue> invalidValues) {
         if (!invalidValues.isEmpty()) {
-            throw new InvalidStateException(generateValidationMessages(invalidValues));
+            throw newInvalidStateException(generateValidationMessages(invalidValues));
+        }
+    }
+
+    /**
+     * @param errors
+     *            máscara de bits dos erros de validação.
+     * @param errorType
+     *            enum dos erros representados na máscara.
+     * @return lista de mensagens inválidas obtida pelo produto de mensagem.
+     */
+    public <E extends Enum<E> & InvalidValue> List<ValidationMessage> generateValidationMessages(int errors,
+            Class<E> errorType) {
+        return generateValidationMessages(invalidValuesOf(errors, errorType));
+    }
+
+    /**
+     * @param errors
+     *            máscara de bits dos erros de validação.
+     * @param errorType
+     *            enum dos erros representados na máscara.
+     * @throws InvalidStateException
+     *             caso a máscara não seja zero.
+     */
+    public <E extends Enum<E> & InvalidValue> void assertValid(int errors, Class<E> errorType) {
+        if (errors != 0) {
+            List<ValidationMessage> messages;
+            if (isStackTraceEnabled) {
+                messages = generateValidationMessages(errors, errorType);
+            } else {
+                messages = sharedValidationMessages(errors, errorType);
+            }
+            throw newInvalidStateException(messages);
+        }
+    }
+
+    private InvalidStateException newInvalidStateException(List<ValidationMessage> messages) {
+        InvalidStateException result;
+        if (isStackTraceEnabled) {
+            result = new InvalidStateException(messages);
+        } else {
+            result = new InvalidStateExceptionSemPilha(messages);
+        }
+        return result;
+    }
+
+    /**
+     * @return lista imutável das mensagens dos erros, gerada uma única vez
+     *         para cada máscara.
+     */
+    private <E extends Enum<E> & InvalidValue> List<ValidationMessage> sharedValidationMessages(int errors,
+            Class<E> errorType) {
+        ConcurrentMap<Integer, List<ValidationMessage>> messagesByErrors = sharedMessages.get(errorType);
+        if (messagesByErrors == null) {
+            messagesByErrors = new ConcurrentHashMap<Integer, List<ValidationMessage>>();
+            ConcurrentMap<Integer, List<ValidationMessage>> previous = sharedMessages.putIfAbsent(errorType,
+                    messagesByErrors);
+            if (previous != null) {
+                messagesByErrors = previous;
+            }
+        }
+        List<ValidationMessage> messages = messagesByErrors.get(errors);
+        if (messages == null) {
+            messages = Collections.unmodifiableList(generateValidationMessages(errors, errorType));
+            messagesByErrors.put(errors, messages);
+        }
+        return messages;
+    }
+
+    /**
+     * Quantidade de bits das máscaras de erros. Elas cabem em um
+     * <code>byte</code>, como em
+     * {@link BatchValidator#validateAll(CharSequence[], byte[])}.
+     */
+    public static final int BITS_DA_MASCARA = Byte.SIZE;
+
+    /**
+     * Bit reservado aos erros que não são enums, como
+     * {@link br.com.caelum.stella.validation.error.LengthError}. Por ser o
+     * último bit da máscara, ele não coincide com o ordinal de nenhum erro
+     * enumerado.
+     */
+    public static final int ERRO_NAO_ENUMERADO = 1 << (BITS_DA_MASCARA - 1);
+
+    /**
+     * @param invalidValue
+     *            valor que descreve um erro de validação.
+     * @return máscara com o bit do ordinal do erro, caso ele seja um enum; ou
+     *         {@link #ERRO_NAO_ENUMERADO}, caso contrário.
+     * @throws IllegalArgumentException
+     *             caso o ordinal do erro alcance o bit reservado
+     *             {@link #ERRO_NAO_ENUMERADO}; ou seja, um enum de erros pode
+     *             ter no máximo <code>BITS_DA_MASCARA - 1</code> constantes.
+     */
+    public static int maskOf(InvalidValue invalidValue) {
+        int result = ERRO_NAO_ENUMERADO;
+        if (invalidValue instanceof Enum<?>) {
+            int ordinal = ((Enum<?>) invalidValue).ordinal();
+            if (ordinal >= BITS_DA_MASCARA - 1) {
+                throw new IllegalArgumentException("Error " + invalidValue.name() + " has ordinal " + ordinal
+                        + ", but error masks only have " + (BITS_DA_MASCARA - 1) + " bits for enum errors");
+            }
+            result = 1 << ordinal;
+        }
+        return result;
+    }
+
+    /**
+     * @param errors
+     *            máscara de bits dos erros de validação.
+     * @param errorType
+     *            enum dos erros representados na máscara.
+     * @return lista dos erros presentes na máscara, na ordem do enum.
+     */
+    public static <E extends Enum<E> & InvalidValue> List<InvalidValue> invalidValuesOf(int errors,
+            Class<E> errorType) {
+        List<InvalidValue> invalidValues = new ArrayList<InvalidValue>();
+        if (errors != 0) {
+            for (E error : errorType.getEnumConstants()) {
+                if ((errors & maskOf(error)) != 0) {
+                    invalidValues.add(error);
+                }
+            }
+        }
+        return invalidValues;
+    }
+
+    /**
+     * Exception sem a pilha de execução. A lista recebida pode ser
+     * compartilhada entre exceptions e é copiada na primeira vez em que as
+     * mensagens são pedidas.
+     */
+    private static final class InvalidStateExceptionSemPilha extends InvalidStateException {
+
+        private static final long serialVersionUID = 1L;
+
+        private List<ValidationMessage> validationMessages;
+
+        InvalidStateExceptionSemPilha(List<ValidationMessage> sharedMessages) {
+            super(sharedMessages);
+        }
+
+        @Override
+        public Throwable fillInStackTrace() {
+            return this;
+        }
+
+        @Override
+        public List<ValidationMessage> getInvalidMessages() {
+            if (validationMessages == null) {
+                validationMessages = new ArrayList<ValidationMessage>(super.getInvalidMessages());
+            }
+            return validationMessages;
         }
     }
 
-}
\ No newline at end of file
+}
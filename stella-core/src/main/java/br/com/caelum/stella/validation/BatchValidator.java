@@ -0,0 +1,106 @@
+package br.com.caelum.stella.validation;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * <p>
+ * Validador de documentos que aceita qualquer {@link CharSequence} e valida
+ * lotes de cadeias sem gerar mensagens nem lançar exceptions.
+ * </p>
+ * <p>
+ * Os erros são representados pela mesma máscara de bits devolvida por
+ * {@link Validator#errorsFor(Object)}.
+ * </p>
+ * 
+ * @see BaseValidator#maskOf(InvalidValue)
+ */
+public interface BatchValidator {
+
+    /**
+     * @param value
+     *            cadeia que se deseja validar
+     * @return máscara de bits dos erros de validação, ou <code>0</code> se a
+     *         cadeia é válida ou nula
+     */
+    int errorsFor(CharSequence value);
+
+    /**
+     * @param value
+     *            cadeia que se deseja validar
+     * @return <code>true</code> se a cadeia é válida ou nula
+     */
+    boolean isValid(CharSequence value);
+
+    /**
+     * @param value
+     *            cadeia a ser verificada
+     * @return <code>true</code> se a cadeia respeita o formato do documento,
+     *         mesmo que seus dígitos verificadores sejam inválidos
+     */
+    boolean isEligible(CharSequence value);
+
+    /**
+     * Valida um trecho de um buffer de caracteres, sem copiá-lo.
+     * 
+     * @param buffer
+     *            buffer que contém a cadeia.
+     * @param offset
+     *            posição do primeiro caractere da cadeia no buffer.
+     * @param length
+     *            quantidade de caracteres da cadeia.
+     * @return <code>true</code> se a cadeia é válida
+     * @throws IndexOutOfBoundsException
+     *             caso o trecho não esteja contido no buffer.
+     */
+    boolean isValid(char[] buffer, int offset, int length);
+
+    /**
+     * Valida um trecho de um buffer de bytes ASCII, sem decodificá-lo nem
+     * copiá-lo.
+     * 
+     * @param buffer
+     *            buffer que contém a cadeia, codificada em ASCII (ou UTF-8).
+     * @param offset
+     *            posição do primeiro byte da cadeia no buffer.
+     * @param length
+     *            quantidade de bytes da cadeia.
+     * @return <code>true</code> se a cadeia é válida
+     * @throws IndexOutOfBoundsException
+     *             caso o trecho não esteja contido no buffer.
+     */
+    boolean isValidAscii(byte[] buffer, int offset, int length);
+
+    /**
+     * Valida os bytes ASCII entre a posição e o limite de um buffer, que pode
+     * ser direto, sem decodificá-los nem copiá-los. A posição do buffer não é
+     * alterada.
+     * 
+     * @param buffer
+     *            buffer que contém a cadeia, codificada em ASCII (ou UTF-8).
+     * @return <code>true</code> se a cadeia é válida
+     */
+    boolean isValidAscii(ByteBuffer buffer);
+
+    /**
+     * @param values
+     *            cadeias a serem validadas.
+     * @param validOut
+     *            recebe o bit de cada posição ligado se a cadeia correspondente
+     *            é válida ou nula, e desligado caso contrário.
+     */
+    void validateAll(CharSequence[] values, BitSet validOut);
+
+    /**
+     * @param values
+     *            cadeias a serem validadas.
+     * @param errorsOut
+     *            recebe, na posição de cada cadeia, a máscara de seus erros;
+     *            deve ter ao menos o tamanho de <code>values</code>. A máscara
+     *            cabe em um <code>byte</code> porque
+     *            {@link BaseValidator#maskOf(InvalidValue)} só usa os
+     *            {@link BaseValidator#BITS_DA_MASCARA} primeiros bits.
+     */
+    void validateAll(CharSequence[] values, byte[] errorsOut);
+
+}
@@ -1,13 +1,10 @@
 package br.com.caelum.stella.validation;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
-import br.com.caelum.stella.format.CNPJFormatter;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.error.CNPJError;
 
 /**
@@ -15,11 +12,7 @@ import br.com.caelum.stella.validation.error.CNPJError;
  * 
  * @author Leonardo Bessa
  */
-public class CNPJValidator implements Validator<String> {
-
-    private final BaseValidator baseValidator;
-
-    private final boolean isFormatted;
+public class CNPJValidator extends MascaraValidator<CNPJError> {
 
     private static final int MOD = 11;
 
@@ -35,6 +28,12 @@ public class CNPJValidator implements Validator<String> {
 
     public static final Pattern UNFORMATED = Pattern.compile("(\\d{2})(\\d{3})(\\d{3})(\\d{4})(\\d{2})");
 
+    public static final Mascara MASCARA_FORMATADA = new Mascara("##.###.###/####-##");
+
+    public static final Mascara MASCARA_SEM_FORMATO = new Mascara("##############");
+
+    private static final int QUANTIDADE_DE_DIGITOS = 14;
+
 
     private static final DigitoVerificadorInfo DV1_INFO = new DigitoVerificadorInfo(0,
             new RotinaComumDeDigitoVerificador[] { new RotinaComumDeDigitoVerificador() }, MOD, DV1_MULTIPLIERS,
@@ -65,8 +64,7 @@ public class CNPJValidator implements Validator<String> {
      *            "d" é um dígito decimal.
      */
     public CNPJValidator(boolean isFormatted) {
-        this.baseValidator = new BaseValidator();
-        this.isFormatted = isFormatted;
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     /**
@@ -82,56 +80,65 @@ public class CNPJValidator implements Validator<String> {
      *            "d" é um dígito decimal.
      */
     public CNPJValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
+        this(messageProducer, isFormatted, null);
     }
 
-    private List<InvalidValue> getInvalidValues(String cnpj) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        errors.clear();
-        if (cnpj != null) {
-            if (!isEligible(cnpj)) {
-                if (isFormatted) {
-                    errors.add(CNPJError.INVALID_FORMAT);
-                } else {
-                    errors.add(CNPJError.INVALID_DIGITS);
-                }
-            } else {
-                String unformatedCNPJ;
-                if (isFormatted) {
-                    CNPJFormatter formatter = new CNPJFormatter();
-                    unformatedCNPJ = formatter.unformat(cnpj);
-                } else {
-                    unformatedCNPJ = cnpj;
-                }
-                if (!hasValidCheckDigits(unformatedCNPJ)) {
-                    errors.add(CNPJError.INVALID_CHECK_DIGITS);
-                }
-            }
-        }
-        return errors;
+    /**
+     * @param messageProducer
+     *            produtor de mensagem de erro.
+     * @param isFormatted
+     *            considera cadeia no formato de CNPJ: "dd.ddd.ddd/dddd-dd" onde
+     *            "d" é um dígito decimal.
+     * @param cache
+     *            cache dos resultados de validação, exclusivo deste validador;
+     *            ou <code>null</code> para não usar cache.
+     */
+    public CNPJValidator(MessageProducer messageProducer, boolean isFormatted, CacheDeValidacao cache) {
+        this(messageProducer, isFormatted, cache, true);
     }
 
-    private boolean hasValidCheckDigits(String value) {
-        return (DV1_CHECKER.isDVValid(value)) && (DV2_CHECKER.isDVValid(value));
+    /**
+     * @param messageProducer
+     *            produtor de mensagem de erro.
+     * @param isFormatted
+     *            considera cadeia no formato de CNPJ: "dd.ddd.ddd/dddd-dd" onde
+     *            "d" é um dígito decimal.
+     * @param cache
+     *            cache dos resultados de validação, exclusivo deste validador;
+     *            ou <code>null</code> para não usar cache.
+     * @param isStackTraceEnabled
+     *            <code>false</code> para rejeitar valores com
+     *            {@link InvalidStateException} sem a pilha de execução e com
+     *            as mensagens já geradas para os mesmos erros.
+     */
+    public CNPJValidator(MessageProducer messageProducer, boolean isFormatted, CacheDeValidacao cache,
+            boolean isStackTraceEnabled) {
+        super(new BaseValidator(messageProducer, isStackTraceEnabled), isFormatted, MASCARA_FORMATADA,
+                MASCARA_SEM_FORMATO, CNPJError.INVALID_FORMAT, CNPJError.INVALID_DIGITS, cache);
     }
 
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = FORMATED.matcher(value).matches();
-        } else {
-            result = UNFORMATED.matcher(value).matches();
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(CNPJError.INVALID_CHECK_DIGITS);
         }
-        return result;
+        return errors;
     }
 
-    public void assertValid(String cnpj) {
-        baseValidator.assertValid(getInvalidValues(cnpj));
+    static boolean hasValidCheckDigits(long value) {
+        return (DV1_CHECKER.isDVValid(value, QUANTIDADE_DE_DIGITOS))
+                && (DV2_CHECKER.isDVValid(value, QUANTIDADE_DE_DIGITOS));
     }
 
-    public List<ValidationMessage> invalidMessagesFor(String cnpj) {
-        return baseValidator.generateValidationMessages(getInvalidValues(cnpj));
+    /**
+     * @param digitos
+     *            dígitos do documento; os dígitos nas posições dos DVs são
+     *            ignorados.
+     * @return os mesmos dígitos com os DVs calculados.
+     */
+    static long completaDVs(long digitos) {
+        return DV2_CHECKER.completaDV(DV1_CHECKER.completaDV(digitos, QUANTIDADE_DE_DIGITOS), QUANTIDADE_DE_DIGITOS);
     }
 
 }
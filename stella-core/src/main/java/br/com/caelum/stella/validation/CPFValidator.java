@@ -1,13 +1,10 @@
 package br.com.caelum.stella.validation;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
-import br.com.caelum.stella.format.CPFFormatter;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.error.CPFError;
 
 /**
@@ -16,19 +13,23 @@ import br.com.caelum.stella.validation.error.CPFError;
  * 
  * @author Leonardo Bessa
  */
-public class CPFValidator implements Validator<String> {
-    private final BaseValidator baseValidator;
-
+public class CPFValidator extends MascaraValidator<CPFError> {
     private static final int MOD = 11;
 
-    private final boolean isFormatted;
-
     private final boolean isIgnoringRepeatedDigits;
 
     public static final Pattern FORMATED = Pattern.compile("(\\d{3})[.](\\d{3})[.](\\d{3})-(\\d{2})");
 
     public static final Pattern UNFORMATED = Pattern.compile("(\\d{3})(\\d{3})(\\d{3})(\\d{2})");
 
+    public static final Mascara MASCARA_FORMATADA = new Mascara("###.###.###-##");
+
+    public static final Mascara MASCARA_SEM_FORMATO = new Mascara("###########");
+
+    private static final int QUANTIDADE_DE_DIGITOS = 11;
+
+    private static final long REPETICAO_DE_DIGITOS = 11111111111L;
+
     private static final Integer DV1_POSITION = 10;
 
     private static final Integer[] DV1_MULTIPLIERS = { 10, 9, 8, 7, 6, 5, 4, 3, 2 };
@@ -63,9 +64,7 @@ public class CPFValidator implements Validator<String> {
      * {@linkplain SimpleMessageProducer} para geração de mensagens.
      */
     public CPFValidator(boolean isFormatted) {
-        this.baseValidator = new BaseValidator();
-        this.isFormatted = isFormatted;
-        this.isIgnoringRepeatedDigits = true;
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     /**
@@ -101,80 +100,85 @@ public class CPFValidator implements Validator<String> {
      *            repetidos.
      */
     public CPFValidator(MessageProducer messageProducer, boolean isFormatted, boolean isIgnoringRepeatedDigits) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
-        this.isIgnoringRepeatedDigits = isIgnoringRepeatedDigits;
+        this(messageProducer, isFormatted, isIgnoringRepeatedDigits, null);
     }
 
     /**
-     * Valida se a cadeia está de acordo com as regras de um CPF.
-     * 
-     * @see br.com.caelum.stella.validation.Validator#assertValid(java.lang.Object)
-     * @return <code>true</code> se a cadeia é válida ou é nula;
-     *         <code>false</code> caso contrario.
+     * @param messageProducer
+     *            produtor de mensagem de erro.
+     * @param isFormatted
+     *            condição para considerar cadeia no formato de CPF:
+     *            "ddd.ddd.ddd-dd" onde "d" é um dígito decimal.
+     * @param isIgnoringRepeatedDigits
+     *            condição para ignorar cadeias de CPF com todos os dígitos
+     *            repetidos.
+     * @param cache
+     *            cache dos resultados de validação, exclusivo deste validador;
+     *            ou <code>null</code> para não usar cache.
      */
-    private List<InvalidValue> getInvalidValues(String cpf) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        if (cpf != null) {
-
-            if (!isEligible(cpf)) {
-                if (isFormatted) {
-                    errors.add(CPFError.INVALID_FORMAT);
-                } else {
-                    errors.add(CPFError.INVALID_DIGITS);
-                }
-            } else {
-                String unformatedCPF;
-                if (isFormatted) {
-                    CPFFormatter formatter = new CPFFormatter();
-                    unformatedCPF = formatter.unformat(cpf);
-                } else {
-                    unformatedCPF = cpf;
-                }
-                if (errors.isEmpty()) {
-                    if ((!isIgnoringRepeatedDigits) && hasAllRepeatedDigits(unformatedCPF)) {
-                        errors.add(CPFError.REPEATED_DIGITS);
-                    }
-                }
-                if (errors.isEmpty()) {
-                    if (!hasValidCheckDigits(unformatedCPF)) {
-                        errors.add(CPFError.INVALID_CHECK_DIGITS);
-                    }
-                }
-            }
-        }
-        return errors;
+    public CPFValidator(MessageProducer messageProducer, boolean isFormatted, boolean isIgnoringRepeatedDigits,
+            CacheDeValidacao cache) {
+        this(messageProducer, isFormatted, isIgnoringRepeatedDigits, cache, true);
     }
 
-    private boolean hasValidCheckDigits(String value) {
-        return (DV1_CHECKER.isDVValid(value)) && (DV2_CHECKER.isDVValid(value));
+    /**
+     * @param messageProducer
+     *            produtor de mensagem de erro.
+     * @param isFormatted
+     *            condição para considerar cadeia no formato de CPF:
+     *            "ddd.ddd.ddd-dd" onde "d" é um dígito decimal.
+     * @param isIgnoringRepeatedDigits
+     *            condição para ignorar cadeias de CPF com todos os dígitos
+     *            repetidos.
+     * @param cache
+     *            cache dos resultados de validação, exclusivo deste validador;
+     *            ou <code>null</code> para não usar cache.
+     * @param isStackTraceEnabled
+     *            <code>false</code> para rejeitar valores com
+     *            {@link InvalidStateException} sem a pilha de execução e com
+     *            as mensagens já geradas para os mesmos erros.
+     */
+    public CPFValidator(MessageProducer messageProducer, boolean isFormatted, boolean isIgnoringRepeatedDigits,
+            CacheDeValidacao cache, boolean isStackTraceEnabled) {
+        super(new BaseValidator(messageProducer, isStackTraceEnabled), isFormatted, MASCARA_FORMATADA,
+                MASCARA_SEM_FORMATO, CPFError.INVALID_FORMAT, CPFError.INVALID_DIGITS, cache);
+        this.isIgnoringRepeatedDigits = isIgnoringRepeatedDigits;
     }
 
-    private boolean hasAllRepeatedDigits(String cpf) {
-        for (int i = 1; i < cpf.length(); i++) {
-            if (cpf.charAt(i) != cpf.charAt(0)) {
-                return false;
-            }
+    /**
+     * Valida se os dígitos estão de acordo com as regras de um CPF.
+     * 
+     * @return máscara dos {@linkplain CPFError} encontrados, ou <code>0</code>
+     *         se os dígitos formam um CPF válido.
+     */
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if ((!isIgnoringRepeatedDigits) && hasAllRepeatedDigits(digitos)) {
+            errors |= BaseValidator.maskOf(CPFError.REPEATED_DIGITS);
+        } else if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(CPFError.INVALID_CHECK_DIGITS);
         }
-        return true;
+        return errors;
     }
 
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = FORMATED.matcher(value).matches();
-        } else {
-            result = UNFORMATED.matcher(value).matches();
-        }
-        return result;
+    static boolean hasValidCheckDigits(long value) {
+        return (DV1_CHECKER.isDVValid(value, QUANTIDADE_DE_DIGITOS))
+                && (DV2_CHECKER.isDVValid(value, QUANTIDADE_DE_DIGITOS));
     }
 
-    public void assertValid(String cpf) {
-        baseValidator.assertValid(getInvalidValues(cpf));
+    /**
+     * @param digitos
+     *            dígitos do documento; os dígitos nas posições dos DVs são
+     *            ignorados.
+     * @return os mesmos dígitos com os DVs calculados.
+     */
+    static long completaDVs(long digitos) {
+        return DV2_CHECKER.completaDV(DV1_CHECKER.completaDV(digitos, QUANTIDADE_DE_DIGITOS), QUANTIDADE_DE_DIGITOS);
     }
 
-    public List<ValidationMessage> invalidMessagesFor(String cpf) {
-        return baseValidator.generateValidationMessages(getInvalidValues(cpf));
+    private boolean hasAllRepeatedDigits(long cpf) {
+        return cpf % REPETICAO_DE_DIGITOS == 0;
     }
 
 }
@@ -0,0 +1,161 @@
+package br.com.caelum.stella.validation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Cache limitado de resultados de validação, indexado pelos dígitos do
+ * documento empacotados em um <code>long</code>, como os extraídos por
+ * {@link br.com.caelum.stella.format.Mascara}. Consultas repetidas custam uma
+ * única sondagem na tabela, sem criação de objetos.
+ * </p>
+ * <p>
+ * A tabela usa endereçamento aberto: cada entrada ocupa um único
+ * <code>long</code>, com a chave, a máscara de erros e um bit de referência, e
+ * é procurada em uma janela de posições consecutivas a partir do hash da chave.
+ * Quando a janela está cheia, a entrada a ser substituída é escolhida pelo
+ * algoritmo do relógio (<em>clock</em>): entradas consultadas desde a última
+ * passagem recebem uma segunda chance.
+ * </p>
+ * <p>
+ * As atualizações são feitas por <em>compare-and-set</em>, sem locks, e
+ * instâncias podem ser compartilhadas entre threads. Uma inserção concorrente
+ * pode ser perdida, o que só custa uma nova validação.
+ * </p>
+ * <p>
+ * Cada cache deve ser usado por um único validador, já que a chave não
+ * identifica o tipo de documento.
+ * </p>
+ * 
+ * @see CPFValidator#CPFValidator(br.com.caelum.stella.MessageProducer, boolean,
+ *      boolean, CacheDeValidacao)
+ * @see CNPJValidator#CNPJValidator(br.com.caelum.stella.MessageProducer,
+ *      boolean, CacheDeValidacao)
+ */
+public final class CacheDeValidacao {
+
+    /**
+     * Valor devolvido por {@link #get(long)} quando a chave não está no cache.
+     */
+    public static final int AUSENTE = -1;
+
+    /**
+     * Maior chave aceita: 47 bits, suficientes para os 14 dígitos de um CNPJ.
+     */
+    public static final long MAIOR_CHAVE = (1L << 47) - 1;
+
+    private static final int JANELA = 8;
+
+    private static final int CAPACIDADE_MAXIMA = 1 << 30;
+
+    private static final long VAZIA = 0L;
+
+    private static final long ERROS = 0xFFL;
+
+    private static final long REFERENCIADA = 0x100L;
+
+    private static final long CHAVE = ~0xFFFFL;
+
+    private final AtomicLongArray entradas;
+
+    private final int mascaraDeIndice;
+
+    /**
+     * @param capacidade
+     *            quantidade máxima de resultados guardados; é arredondada para
+     *            a próxima potência de 2.
+     * @throws IllegalArgumentException
+     *             caso a capacidade não seja positiva ou seja maior que 2^30.
+     */
+    public CacheDeValidacao(int capacidade) {
+        if (capacidade < 1 || capacidade > CAPACIDADE_MAXIMA) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacidade);
+        }
+        int tamanho = JANELA;
+        while (tamanho < capacidade) {
+            tamanho <<= 1;
+        }
+        this.entradas = new AtomicLongArray(tamanho);
+        this.mascaraDeIndice = tamanho - 1;
+    }
+
+    /**
+     * @return quantidade máxima de resultados guardados.
+     */
+    public int getCapacidade() {
+        return entradas.length();
+    }
+
+    /**
+     * @param chave
+     *            dígitos do documento.
+     * @return máscara de erros guardada para a chave, ou {@link #AUSENTE}.
+     */
+    public int get(long chave) {
+        if (chave < 0 || chave > MAIOR_CHAVE) {
+            return AUSENTE;
+        }
+        long marca = marcaDe(chave);
+        int inicio = indiceDe(chave);
+        for (int i = 0; i < JANELA; i++) {
+            int posicao = (inicio + i) & mascaraDeIndice;
+            long entrada = entradas.get(posicao);
+            if (entrada == VAZIA) {
+                return AUSENTE;
+            }
+            if ((entrada & CHAVE) == marca) {
+                if ((entrada & REFERENCIADA) == 0) {
+                    entradas.compareAndSet(posicao, entrada, entrada | REFERENCIADA);
+                }
+                return (int) (entrada & ERROS);
+            }
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * Guarda o resultado de uma validação, substituindo, se necessário, uma
+     * entrada não consultada recentemente. Chaves fora do intervalo aceito e
+     * máscaras de erro maiores que 8 bits são ignoradas.
+     * 
+     * @param chave
+     *            dígitos do documento.
+     * @param erros
+     *            máscara de erros do documento.
+     */
+    public void put(long chave, int erros) {
+        if (chave < 0 || chave > MAIOR_CHAVE || erros < 0 || erros > ERROS) {
+            return;
+        }
+        long marca = marcaDe(chave);
+        long nova = marca | erros;
+        int inicio = indiceDe(chave);
+        for (int i = 0; i < JANELA; i++) {
+            int posicao = (inicio + i) & mascaraDeIndice;
+            long entrada = entradas.get(posicao);
+            if (entrada == VAZIA || (entrada & CHAVE) == marca) {
+                entradas.compareAndSet(posicao, entrada, nova);
+                return;
+            }
+        }
+        for (int i = 0; i < 2 * JANELA; i++) {
+            int posicao = (inicio + i % JANELA) & mascaraDeIndice;
+            long entrada = entradas.get(posicao);
+            if ((entrada & REFERENCIADA) == 0) {
+                entradas.compareAndSet(posicao, entrada, nova);
+                return;
+            }
+            entradas.compareAndSet(posicao, entrada, entrada & ~REFERENCIADA);
+        }
+    }
+
+    private static long marcaDe(long chave) {
+        return (chave + 1) << 16;
+    }
+
+    private int indiceDe(long chave) {
+        long hash = chave * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mascaraDeIndice;
+    }
+
+}
@@ -0,0 +1,104 @@
+package br.com.caelum.stella.validation;
+
+import java.nio.ByteBuffer;
+
+import br.com.caelum.stella.format.Mascara;
+
+/**
+ * Chave numérica de um CPF ou CNPJ válido: seus dígitos, um bit que distingue
+ * o CNPJ do CPF e um bit de presença, que torna toda chave positiva e
+ * diferente de zero. Chaves de CPF são menores que as de CNPJ.
+ * 
+ * @see ConjuntoDeDocumentos
+ * @see IndiceDeDocumentos
+ */
+final class ChaveDeDocumento {
+
+    /**
+     * Valor devolvido por {@link #de(CharSequence)} quando a cadeia não é um
+     * CPF ou CNPJ válido.
+     */
+    static final long AUSENTE = -1L;
+
+    private static final Mascara CPF_FORMATADO = CPFValidator.MASCARA_FORMATADA;
+
+    private static final Mascara CPF_SEM_FORMATO = CPFValidator.MASCARA_SEM_FORMATO;
+
+    private static final Mascara CNPJ_FORMATADO = CNPJValidator.MASCARA_FORMATADA;
+
+    private static final Mascara CNPJ_SEM_FORMATO = CNPJValidator.MASCARA_SEM_FORMATO;
+
+    private static final long PRESENTE = 1L << 62;
+
+    private static final long CNPJ = 1L << 61;
+
+    private ChaveDeDocumento() {
+    }
+
+    /**
+     * Confere o formato e os dígitos verificadores do documento e empacota
+     * seus dígitos, em uma única passada.
+     * 
+     * @param documento
+     *            CPF ou CNPJ, formatado ou não.
+     * @return chave do documento, ou {@link #AUSENTE}.
+     */
+    static long de(CharSequence documento) {
+        if (documento == null) {
+            return AUSENTE;
+        }
+        switch (documento.length()) {
+        case 11:
+            return deCPF(CPF_SEM_FORMATO.digitos(documento));
+        case 14:
+            if (documento.charAt(3) == '.') {
+                return deCPF(CPF_FORMATADO.digitos(documento));
+            }
+            return deCNPJ(CNPJ_SEM_FORMATO.digitos(documento));
+        case 18:
+            return deCNPJ(CNPJ_FORMATADO.digitos(documento));
+        default:
+            return AUSENTE;
+        }
+    }
+
+    /**
+     * Como {@link #de(CharSequence)}, para os bytes ASCII entre a posição e o
+     * limite do buffer, que pode ser direto ou mapeado. A posição do buffer não
+     * é alterada.
+     * 
+     * @param documento
+     *            buffer que contém o CPF ou CNPJ, formatado ou não.
+     * @return chave do documento, ou {@link #AUSENTE}.
+     */
+    static long de(ByteBuffer documento) {
+        switch (documento.remaining()) {
+        case 11:
+            return deCPF(CPF_SEM_FORMATO.digitos(documento));
+        case 14:
+            if (documento.get(documento.position() + 3) == '.') {
+                return deCPF(CPF_FORMATADO.digitos(documento));
+            }
+            return deCNPJ(CNPJ_SEM_FORMATO.digitos(documento));
+        case 18:
+            return deCNPJ(CNPJ_FORMATADO.digitos(documento));
+        default:
+            return AUSENTE;
+        }
+    }
+
+    private static long deCPF(long digitos) {
+        if (digitos == Mascara.INVALIDA || !CPFValidator.hasValidCheckDigits(digitos)) {
+            return AUSENTE;
+        }
+        return PRESENTE | digitos;
+    }
+
+    private static long deCNPJ(long digitos) {
+        if (digitos == Mascara.INVALIDA || !CNPJValidator.hasValidCheckDigits(digitos)) {
+            return AUSENTE;
+        }
+        return PRESENTE | CNPJ | digitos;
+    }
+
+}
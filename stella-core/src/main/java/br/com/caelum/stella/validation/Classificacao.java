@@ -0,0 +1,66 @@
+package br.com.caelum.stella.validation;
+
+/**
+ * <p>
+ * Resultado da classificação de uma cadeia por um
+ * {@link ClassificadorDeDocumentos}: o tipo de documento detectado e se o
+ * documento é válido.
+ * </p>
+ * <p>
+ * Instâncias são imutáveis e compartilhadas, uma para cada combinação de tipo e
+ * validade.
+ * </p>
+ */
+public final class Classificacao {
+
+    private static final Classificacao[][] INSTANCIAS = new Classificacao[TipoDeDocumento.values().length][2];
+
+    static {
+        for (TipoDeDocumento tipo : TipoDeDocumento.values()) {
+            INSTANCIAS[tipo.ordinal()][0] = new Classificacao(tipo, false);
+            INSTANCIAS[tipo.ordinal()][1] = new Classificacao(tipo, tipo != TipoDeDocumento.DESCONHECIDO);
+        }
+    }
+
+    private final TipoDeDocumento tipo;
+
+    private final boolean valido;
+
+    private Classificacao(TipoDeDocumento tipo, boolean valido) {
+        this.tipo = tipo;
+        this.valido = valido;
+    }
+
+    /**
+     * @param tipo
+     *            tipo de documento detectado.
+     * @param valido
+     *            se o documento é válido; ignorado para
+     *            {@link TipoDeDocumento#DESCONHECIDO}, que nunca é válido.
+     * @return a classificação compartilhada correspondente.
+     */
+    public static Classificacao de(TipoDeDocumento tipo, boolean valido) {
+        return INSTANCIAS[tipo.ordinal()][valido ? 1 : 0];
+    }
+
+    /**
+     * @return tipo de documento detectado.
+     */
+    public TipoDeDocumento getTipo() {
+        return tipo;
+    }
+
+    /**
+     * @return <code>true</code> se o documento tem o formato de seu tipo e
+     *         passa na validação de seu validador padrão.
+     */
+    public boolean isValido() {
+        return valido;
+    }
+
+    @Override
+    public String toString() {
+        return tipo + (valido ? " válido" : " inválido");
+    }
+
+}
@@ -0,0 +1,117 @@
+package br.com.caelum.stella.validation;
+
+import br.com.caelum.stella.format.Mascara;
+
+/**
+ * <p>
+ * Detecta se uma cadeia é um CPF, um CNPJ, um NIT ou um Título Eleitoral,
+ * formatado ou não, e confere apenas os dígitos verificadores do tipo
+ * detectado.
+ * </p>
+ * <p>
+ * O tipo é decidido pelo tamanho da cadeia e, quando necessário, pela
+ * pontuação em posições fixas; a cadeia é então percorrida uma única vez, sem
+ * expressões regulares e sem geração de mensagens.
+ * </p>
+ * <p>
+ * Um CPF e um NIT sem formatação têm ambos 11 dígitos. Nesse caso, a cadeia é
+ * classificada como o documento cujos dígitos verificadores conferem,
+ * preferindo o CPF quando os dois conferem, e como um CPF inválido quando
+ * nenhum confere.
+ * </p>
+ * <p>
+ * Instâncias não têm estado e podem ser compartilhadas entre threads.
+ * </p>
+ */
+public class ClassificadorDeDocumentos {
+
+    private static final Mascara ONZE_DIGITOS = CPFValidator.MASCARA_SEM_FORMATO;
+
+    private static final Mascara CPF_FORMATADO = CPFValidator.MASCARA_FORMATADA;
+
+    private static final Mascara NIT_FORMATADO = NITValidator.MASCARA_FORMATADA;
+
+    private static final Mascara CNPJ_FORMATADO = CNPJValidator.MASCARA_FORMATADA;
+
+    private static final Mascara CNPJ_SEM_FORMATO = CNPJValidator.MASCARA_SEM_FORMATO;
+
+    private static final Mascara TITULO_FORMATADO = TituloEleitoralValidator.MASCARA_FORMATADA;
+
+    private static final Mascara TITULO_SEM_FORMATO = TituloEleitoralValidator.MASCARA_SEM_FORMATO;
+
+    private static final Classificacao DESCONHECIDO = Classificacao.de(TipoDeDocumento.DESCONHECIDO, false);
+
+    /**
+     * @param documento
+     *            cadeia a ser classificada.
+     * @return tipo detectado e validade do documento; documentos nulos ou sem
+     *         nenhum dos formatos conhecidos são do tipo
+     *         {@link TipoDeDocumento#DESCONHECIDO}.
+     */
+    public Classificacao classifica(CharSequence documento) {
+        if (documento == null) {
+            return DESCONHECIDO;
+        }
+        switch (documento.length()) {
+        case 11:
+            return cpfOuNit(ONZE_DIGITOS.digitos(documento));
+        case 12:
+            return tituloEleitoral(TITULO_SEM_FORMATO.digitos(documento));
+        case 13:
+            return tituloEleitoral(TITULO_FORMATADO.digitos(documento));
+        case 14:
+            if (documento.charAt(3) != '.') {
+                return cnpj(CNPJ_SEM_FORMATO.digitos(documento));
+            } else if (documento.charAt(7) == '.') {
+                return cpf(CPF_FORMATADO.digitos(documento));
+            } else {
+                return nit(NIT_FORMATADO.digitos(documento));
+            }
+        case 18:
+            return cnpj(CNPJ_FORMATADO.digitos(documento));
+        default:
+            return DESCONHECIDO;
+        }
+    }
+
+    private Classificacao cpfOuNit(long digitos) {
+        if (digitos == Mascara.INVALIDA) {
+            return DESCONHECIDO;
+        }
+        if (!CPFValidator.hasValidCheckDigits(digitos) && NITValidator.hasValidCheckDigits(digitos)) {
+            return Classificacao.de(TipoDeDocumento.NIT, true);
+        }
+        return cpf(digitos);
+    }
+
+    private Classificacao cpf(long digitos) {
+        if (digitos == Mascara.INVALIDA) {
+            return DESCONHECIDO;
+        }
+        return Classificacao.de(TipoDeDocumento.CPF, CPFValidator.hasValidCheckDigits(digitos));
+    }
+
+    private Classificacao nit(long digitos) {
+        if (digitos == Mascara.INVALIDA) {
+            return DESCONHECIDO;
+        }
+        return Classificacao.de(TipoDeDocumento.NIT, NITValidator.hasValidCheckDigits(digitos));
+    }
+
+    private Classificacao cnpj(long digitos) {
+        if (digitos == Mascara.INVALIDA) {
+            return DESCONHECIDO;
+        }
+        return Classificacao.de(TipoDeDocumento.CNPJ, CNPJValidator.hasValidCheckDigits(digitos));
+    }
+
+    private Classificacao tituloEleitoral(long digitos) {
+        if (digitos == Mascara.INVALIDA) {
+            return DESCONHECIDO;
+        }
+        boolean valido = TituloEleitoralValidator.hasValidCheckDigits(digitos)
+                && !TituloEleitoralValidator.hasCodigoDeEstadoInvalido(digitos);
+        return Classificacao.de(TipoDeDocumento.TITULO_ELEITORAL, valido);
+    }
+
+}
@@ -0,0 +1,203 @@
+package br.com.caelum.stella.validation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Conjunto imutável de CPFs e CNPJs, para consultas a listas de bloqueio ou de
+ * sanções com milhões de documentos.
+ * </p>
+ * <p>
+ * Cada documento é guardado como seus dígitos empacotados em um
+ * <code>long</code>, em uma tabela de endereçamento aberto fora do heap (um
+ * {@link ByteBuffer} direto), de modo que o conjunto não cria objetos por
+ * documento nem pesa na coleta de lixo. Após a construção o conjunto não muda,
+ * e as consultas podem ser feitas por várias threads sem sincronização.
+ * </p>
+ * <p>
+ * Documentos são aceitos formatados ou não. Cadeias que não são um CPF ou um
+ * CNPJ válido não são incluídas e nunca pertencem ao conjunto. Cada conjunto
+ * comporta até 2^26 documentos.
+ * </p>
+ */
+public final class ConjuntoDeDocumentos {
+
+    private static final long VAZIA = 0L;
+
+    private static final int CAPACIDADE_MAXIMA = 1 << 27;
+
+    private final LongBuffer tabela;
+
+    private final int mascaraDeIndice;
+
+    private final int quantidade;
+
+    private ConjuntoDeDocumentos(LongBuffer tabela, int quantidade) {
+        this.tabela = tabela;
+        this.mascaraDeIndice = tabela.capacity() - 1;
+        this.quantidade = quantidade;
+    }
+
+    /**
+     * @param documentos
+     *            CPFs e CNPJs, formatados ou não.
+     * @return conjunto com os documentos válidos informados.
+     */
+    public static ConjuntoDeDocumentos de(CharSequence... documentos) {
+        LongBuffer tabela = novaTabela(documentos.length);
+        int quantidade = 0;
+        for (CharSequence documento : documentos) {
+            long chave = ChaveDeDocumento.de(documento);
+            if (chave != ChaveDeDocumento.AUSENTE && insere(tabela, chave)) {
+                quantidade++;
+            }
+        }
+        return new ConjuntoDeDocumentos(tabela, quantidade);
+    }
+
+    /**
+     * <p>
+     * O arquivo é mapeado em memória e percorrido duas vezes: a primeira conta
+     * as linhas com tamanho de CPF ou CNPJ, para dimensionar a tabela, e a
+     * segunda insere os documentos válidos diretamente na tabela, sem criar
+     * uma {@link String} por linha.
+     * </p>
+     * 
+     * @param arquivo
+     *            arquivo ASCII (ou UTF-8) com um CPF ou CNPJ, formatado ou não,
+     *            por linha, terminada em <code>\n</code> ou <code>\r\n</code>.
+     * @return conjunto com os documentos válidos do arquivo; as demais linhas
+     *         são ignoradas.
+     * @throws IOException
+     *             caso não seja possível ler o arquivo, ou ele tenha mais de 2GB.
+     */
+    public static ConjuntoDeDocumentos de(File arquivo) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(arquivo, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo grande demais: " + arquivo);
+            }
+            MappedByteBuffer conteudo = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            LongBuffer tabela = novaTabela(contaCandidatos(conteudo));
+            int quantidade = 0;
+            ByteBuffer linha = conteudo.duplicate();
+            int inicio = 0;
+            while (inicio < conteudo.limit()) {
+                int fim = fimDaLinha(conteudo, inicio);
+                linha.limit(fimDoRegistro(conteudo, inicio, fim));
+                linha.position(inicio);
+                long chave = ChaveDeDocumento.de(linha);
+                if (chave != ChaveDeDocumento.AUSENTE && insere(tabela, chave)) {
+                    quantidade++;
+                }
+                inicio = fim + 1;
+            }
+            return new ConjuntoDeDocumentos(tabela, quantidade);
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * @return quantidade de linhas que podem conter um CPF ou CNPJ.
+     */
+    private static int contaCandidatos(ByteBuffer conteudo) {
+        int candidatos = 0;
+        int inicio = 0;
+        while (inicio < conteudo.limit()) {
+            int fim = fimDaLinha(conteudo, inicio);
+            int tamanho = fimDoRegistro(conteudo, inicio, fim) - inicio;
+            if (tamanho == 11 || tamanho == 14 || tamanho == 18) {
+                candidatos++;
+            }
+            inicio = fim + 1;
+        }
+        return candidatos;
+    }
+
+    private static int fimDaLinha(ByteBuffer conteudo, int inicio) {
+        int fim = inicio;
+        while (fim < conteudo.limit() && conteudo.get(fim) != '\n') {
+            fim++;
+        }
+        return fim;
+    }
+
+    private static int fimDoRegistro(ByteBuffer conteudo, int inicio, int fimDaLinha) {
+        if (fimDaLinha > inicio && conteudo.get(fimDaLinha - 1) == '\r') {
+            return fimDaLinha - 1;
+        }
+        return fimDaLinha;
+    }
+
+    private static LongBuffer novaTabela(int quantidadeMaxima) {
+        int capacidade = 2;
+        while (capacidade < 2L * quantidadeMaxima) {
+            if (capacidade == CAPACIDADE_MAXIMA) {
+                throw new IllegalArgumentException("Documentos demais: " + quantidadeMaxima);
+            }
+            capacidade <<= 1;
+        }
+        return ByteBuffer.allocateDirect(capacidade * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    /**
+     * Verifica, em uma única passada pela cadeia, se ela é um CPF ou CNPJ
+     * válido e se pertence ao conjunto.
+     * 
+     * @param documento
+     *            CPF ou CNPJ, formatado ou não.
+     * @return <code>true</code> se o documento é válido e pertence ao
+     *         conjunto.
+     */
+    public boolean contem(CharSequence documento) {
+        long chave = ChaveDeDocumento.de(documento);
+        if (chave == ChaveDeDocumento.AUSENTE) {
+            return false;
+        }
+        for (int posicao = indiceDe(chave, mascaraDeIndice);; posicao = (posicao + 1) & mascaraDeIndice) {
+            long entrada = tabela.get(posicao);
+            if (entrada == chave) {
+                return true;
+            }
+            if (entrada == VAZIA) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return quantidade de documentos distintos do conjunto.
+     */
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    private static boolean insere(LongBuffer tabela, long chave) {
+        int mascaraDeIndice = tabela.capacity() - 1;
+        for (int posicao = indiceDe(chave, mascaraDeIndice);; posicao = (posicao + 1) & mascaraDeIndice) {
+            long entrada = tabela.get(posicao);
+            if (entrada == chave) {
+                return false;
+            }
+            if (entrada == VAZIA) {
+                tabela.put(posicao, chave);
+                return true;
+            }
+        }
+    }
+
+    private static int indiceDe(long chave, int mascaraDeIndice) {
+        long hash = chave * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mascaraDeIndice;
+    }
+
+}
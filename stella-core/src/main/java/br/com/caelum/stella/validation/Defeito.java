@@ -0,0 +1,35 @@
+package br.com.caelum.stella.validation;
+
+/**
+ * Defeito introduzido propositalmente em um documento gerado, para testes de
+ * carga e de desempenho que precisam de documentos inválidos.
+ * 
+ * @see GeradorDeDocumentos
+ * @see br.com.caelum.stella.validation.ie.GeradorDeIE
+ */
+public enum Defeito {
+
+    /**
+     * Documento válido.
+     */
+    NENHUM,
+
+    /**
+     * Formato e demais dígitos válidos, com um dígito verificador alterado.
+     */
+    DV_INVALIDO,
+
+    /**
+     * Todos os dígitos iguais. Apenas para CPF: os dígitos verificadores estão
+     * corretos, e o documento é rejeitado apenas pelo {@link CPFValidator} que
+     * não ignora dígitos repetidos.
+     */
+    DIGITOS_REPETIDOS,
+
+    /**
+     * Código de estado fora do intervalo de <code>01</code> a <code>28</code>.
+     * Apenas para Título Eleitoral: os dígitos verificadores estão corretos.
+     */
+    CODIGO_DE_ESTADO_INVALIDO
+
+}
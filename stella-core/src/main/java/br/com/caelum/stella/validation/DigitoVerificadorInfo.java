@@ -15,6 +15,8 @@ public class DigitoVerificadorInfo {
 
     private final Integer[] pesos;
 
+    private final int[] pesosPrimitivos;
+
     private final Integer posicaoDoDv;
 
     public DigitoVerificadorInfo(Integer fator, RotinaDeDigitoVerificador[] rotinas, Integer mod, Integer[] pesos,
@@ -24,6 +26,10 @@ public class DigitoVerificadorInfo {
         this.mod = mod;
         this.pesos = pesos;
         this.posicaoDoDv = posicaoDoDv;
+        this.pesosPrimitivos = new int[pesos.length];
+        for (int i = 0; i < pesos.length; i++) {
+            this.pesosPrimitivos[i] = pesos[i];
+        }
     }
 
     public Integer getFator() {
@@ -42,7 +48,15 @@ public class DigitoVerificadorInfo {
         return pesos;
     }
 
+    /**
+     * @return os mesmos valores de {@link #getPesos()}, como primitivos. O
+     *         array retornado é compartilhado e não deve ser alterado.
+     */
+    public int[] getPesosPrimitivos() {
+        return pesosPrimitivos;
+    }
+
     public Integer getPosicaoDoDv() {
         return posicaoDoDv;
     }
-}
\ No newline at end of file
+}
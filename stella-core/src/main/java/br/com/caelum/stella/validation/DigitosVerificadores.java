@@ -0,0 +1,186 @@
+package br.com.caelum.stella.validation;
+
+/**
+ * <p>
+ * Calcula os dígitos verificadores de CPFs, CNPJs, NITs, Títulos Eleitorais e
+ * Renavams a partir de seus dígitos base, com as mesmas regras
+ * ({@link DigitoVerificadorInfo}) usadas pelos validadores.
+ * </p>
+ * <p>
+ * Os documentos são representados como números, sem formatação: a base de um
+ * CPF, por exemplo, são seus 9 primeiros dígitos, e o resultado são os 11
+ * dígitos do CPF. Os zeros à esquerda são implícitos. Nenhum método aloca
+ * objetos, exceto para lançar exceções.
+ * </p>
+ * 
+ * @see br.com.caelum.stella.validation.ie.DigitosVerificadoresDeIE
+ */
+public final class DigitosVerificadores {
+
+    private static final long LIMITE_DA_BASE_DO_CPF = 1000000000L;
+
+    private static final long LIMITE_DA_BASE_DO_CNPJ = 1000000000000L;
+
+    private static final long LIMITE_DA_BASE_DO_NIT = 10000000000L;
+
+    private static final long LIMITE_DA_BASE_DO_TITULO = 10000000000L;
+
+    private static final long LIMITE_DA_BASE_DO_RENAVAM = 100000000L;
+
+    private DigitosVerificadores() {
+    }
+
+    /**
+     * @param base
+     *            os 9 primeiros dígitos do CPF.
+     * @return os 11 dígitos do CPF.
+     * @throws IllegalArgumentException
+     *             caso a base seja negativa ou tenha mais de 9 dígitos.
+     */
+    public static long completaCPF(long base) {
+        verificaBase(base, LIMITE_DA_BASE_DO_CPF, "CPF");
+        return CPFValidator.completaDVs(base * 100);
+    }
+
+    /**
+     * @param bases
+     *            os 9 primeiros dígitos de cada CPF.
+     * @param cpfsOut
+     *            recebe, na posição de cada base, os 11 dígitos do CPF; deve
+     *            ter ao menos o tamanho de <code>bases</code> e pode ser o
+     *            próprio array <code>bases</code>.
+     * @throws IllegalArgumentException
+     *             caso alguma base seja negativa ou tenha mais de 9 dígitos;
+     *             as posições anteriores a ela já terão sido preenchidas.
+     */
+    public static void completaCPFs(long[] bases, long[] cpfsOut) {
+        for (int i = 0; i < bases.length; i++) {
+            cpfsOut[i] = completaCPF(bases[i]);
+        }
+    }
+
+    /**
+     * @param base
+     *            os 12 primeiros dígitos do CNPJ.
+     * @return os 14 dígitos do CNPJ.
+     * @throws IllegalArgumentException
+     *             caso a base seja negativa ou tenha mais de 12 dígitos.
+     */
+    public static long completaCNPJ(long base) {
+        verificaBase(base, LIMITE_DA_BASE_DO_CNPJ, "CNPJ");
+        return CNPJValidator.completaDVs(base * 100);
+    }
+
+    /**
+     * @param bases
+     *            os 12 primeiros dígitos de cada CNPJ.
+     * @param cnpjsOut
+     *            recebe, na posição de cada base, os 14 dígitos do CNPJ; deve
+     *            ter ao menos o tamanho de <code>bases</code> e pode ser o
+     *            próprio array <code>bases</code>.
+     * @throws IllegalArgumentException
+     *             caso alguma base seja negativa ou tenha mais de 12 dígitos;
+     *             as posições anteriores a ela já terão sido preenchidas.
+     */
+    public static void completaCNPJs(long[] bases, long[] cnpjsOut) {
+        for (int i = 0; i < bases.length; i++) {
+            cnpjsOut[i] = completaCNPJ(bases[i]);
+        }
+    }
+
+    /**
+     * @param base
+     *            os 10 primeiros dígitos do NIT.
+     * @return os 11 dígitos do NIT.
+     * @throws IllegalArgumentException
+     *             caso a base seja negativa ou tenha mais de 10 dígitos.
+     */
+    public static long completaNIT(long base) {
+        verificaBase(base, LIMITE_DA_BASE_DO_NIT, "NIT");
+        return NITValidator.completaDVs(base * 10);
+    }
+
+    /**
+     * @param bases
+     *            os 10 primeiros dígitos de cada NIT.
+     * @param nitsOut
+     *            recebe, na posição de cada base, os 11 dígitos do NIT; deve
+     *            ter ao menos o tamanho de <code>bases</code> e pode ser o
+     *            próprio array <code>bases</code>.
+     * @throws IllegalArgumentException
+     *             caso alguma base seja negativa ou tenha mais de 10 dígitos;
+     *             as posições anteriores a ela já terão sido preenchidas.
+     */
+    public static void completaNITs(long[] bases, long[] nitsOut) {
+        for (int i = 0; i < bases.length; i++) {
+            nitsOut[i] = completaNIT(bases[i]);
+        }
+    }
+
+    /**
+     * @param base
+     *            os 10 primeiros dígitos do Título Eleitoral: o número
+     *            sequencial seguido do código do estado. O código do estado
+     *            não é verificado.
+     * @return os 12 dígitos do Título Eleitoral.
+     * @throws IllegalArgumentException
+     *             caso a base seja negativa ou tenha mais de 10 dígitos.
+     */
+    public static long completaTituloEleitoral(long base) {
+        verificaBase(base, LIMITE_DA_BASE_DO_TITULO, "Título Eleitoral");
+        return TituloEleitoralValidator.completaDVs(base * 100);
+    }
+
+    /**
+     * @param bases
+     *            os 10 primeiros dígitos de cada Título Eleitoral.
+     * @param titulosOut
+     *            recebe, na posição de cada base, os 12 dígitos do Título
+     *            Eleitoral; deve ter ao menos o tamanho de <code>bases</code>
+     *            e pode ser o próprio array <code>bases</code>.
+     * @throws IllegalArgumentException
+     *             caso alguma base seja negativa ou tenha mais de 10 dígitos;
+     *             as posições anteriores a ela já terão sido preenchidas.
+     */
+    public static void completaTitulosEleitorais(long[] bases, long[] titulosOut) {
+        for (int i = 0; i < bases.length; i++) {
+            titulosOut[i] = completaTituloEleitoral(bases[i]);
+        }
+    }
+
+    /**
+     * @param base
+     *            os 8 primeiros dígitos do Renavam.
+     * @return os 9 dígitos do Renavam.
+     * @throws IllegalArgumentException
+     *             caso a base seja negativa ou tenha mais de 8 dígitos.
+     */
+    public static long completaRenavam(long base) {
+        verificaBase(base, LIMITE_DA_BASE_DO_RENAVAM, "Renavam");
+        return RenavamValidator.completaDVs(base * 10);
+    }
+
+    /**
+     * @param bases
+     *            os 8 primeiros dígitos de cada Renavam.
+     * @param renavamsOut
+     *            recebe, na posição de cada base, os 9 dígitos do Renavam;
+     *            deve ter ao menos o tamanho de <code>bases</code> e pode ser
+     *            o próprio array <code>bases</code>.
+     * @throws IllegalArgumentException
+     *             caso alguma base seja negativa ou tenha mais de 8 dígitos;
+     *             as posições anteriores a ela já terão sido preenchidas.
+     */
+    public static void completaRenavams(long[] bases, long[] renavamsOut) {
+        for (int i = 0; i < bases.length; i++) {
+            renavamsOut[i] = completaRenavam(bases[i]);
+        }
+    }
+
+    private static void verificaBase(long base, long limite, String documento) {
+        if (base < 0 || base >= limite) {
+            throw new IllegalArgumentException("Base de " + documento + " inválida: " + base);
+        }
+    }
+
+}
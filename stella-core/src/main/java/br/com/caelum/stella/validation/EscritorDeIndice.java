@@ -0,0 +1,201 @@
+package br.com.caelum.stella.validation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * <p>
+ * Grava um {@link IndiceDeDocumentos}: CPFs e CNPJs ordenados, cada um com um
+ * conteúdo opcional de tamanho fixo, como uma situação cadastral ou uma data.
+ * </p>
+ * <p>
+ * Os documentos são acumulados em vetores de tipos primitivos, ordenados e
+ * gravados de uma só vez por {@link #escreve(File)}. Documentos repetidos são
+ * gravados uma única vez, com o conteúdo da última adição.
+ * </p>
+ * <p>
+ * O índice é mapeado em memória de uma só vez e, por isso, deve ter menos de
+ * 2GB; a quantidade máxima de documentos depende da largura do conteúdo (cerca
+ * de 268 milhões sem conteúdo, ou 53 milhões com 32 bytes de conteúdo).
+ * </p>
+ * <p>
+ * Instâncias não são thread-safe.
+ * </p>
+ */
+public class EscritorDeIndice {
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private final int larguraDoConteudo;
+
+    private final int maximoDeDocumentos;
+
+    private long[] chaves;
+
+    private byte[] conteudos;
+
+    private int quantidade;
+
+    /**
+     * @param larguraDoConteudo
+     *            tamanho, em bytes, do conteúdo de cada documento; pode ser
+     *            <code>0</code>.
+     * @throws IllegalArgumentException
+     *             caso a largura seja negativa ou grande demais para que um
+     *             documento caiba no índice.
+     */
+    public EscritorDeIndice(int larguraDoConteudo) {
+        this(larguraDoConteudo, IndiceDeDocumentos.maximoDeDocumentos(larguraDoConteudo));
+    }
+
+    EscritorDeIndice(int larguraDoConteudo, int maximoDeDocumentos) {
+        if (larguraDoConteudo < 0 || maximoDeDocumentos <= 0) {
+            throw new IllegalArgumentException("Largura de conteúdo inválida: " + larguraDoConteudo);
+        }
+        this.larguraDoConteudo = larguraDoConteudo;
+        this.maximoDeDocumentos = maximoDeDocumentos;
+        this.chaves = new long[Math.min(CAPACIDADE_INICIAL, maximoDeDocumentos)];
+        this.conteudos = new byte[chaves.length * larguraDoConteudo];
+    }
+
+    /**
+     * Adiciona um documento sem conteúdo; se o índice tem conteúdo, ele é
+     * preenchido com zeros.
+     * 
+     * @param documento
+     *            CPF ou CNPJ, formatado ou não.
+     * @return <code>false</code> se o documento não é um CPF ou CNPJ válido e
+     *         foi ignorado.
+     */
+    public boolean adiciona(CharSequence documento) {
+        return adiciona(documento, new byte[larguraDoConteudo]);
+    }
+
+    /**
+     * @param documento
+     *            CPF ou CNPJ, formatado ou não.
+     * @param conteudo
+     *            conteúdo do documento, com a largura do índice.
+     * @return <code>false</code> se o documento não é um CPF ou CNPJ válido e
+     *         foi ignorado.
+     * @throws IllegalArgumentException
+     *             caso o conteúdo não tenha a largura do índice.
+     * @throws IllegalStateException
+     *             caso o índice já tenha a quantidade máxima de documentos,
+     *             contando os repetidos.
+     */
+    public boolean adiciona(CharSequence documento, byte[] conteudo) {
+        if (conteudo.length != larguraDoConteudo) {
+            throw new IllegalArgumentException("Conteúdo deve ter " + larguraDoConteudo + " bytes");
+        }
+        long chave = ChaveDeDocumento.de(documento);
+        if (chave == ChaveDeDocumento.AUSENTE) {
+            return false;
+        }
+        if (quantidade == chaves.length) {
+            cresce();
+        }
+        chaves[quantidade] = chave;
+        System.arraycopy(conteudo, 0, conteudos, quantidade * larguraDoConteudo, larguraDoConteudo);
+        quantidade++;
+        return true;
+    }
+
+    /**
+     * Dobra a capacidade, sem passar do máximo de documentos. Como o máximo
+     * garante que o índice tenha menos de 2GB, os tamanhos e posições dos
+     * vetores cabem em um <code>int</code>.
+     */
+    private void cresce() {
+        if (quantidade == maximoDeDocumentos) {
+            throw new IllegalStateException("Índice com conteúdo de " + larguraDoConteudo
+                    + " bytes comporta no máximo " + maximoDeDocumentos + " documentos");
+        }
+        int capacidade = (int) Math.min(2L * chaves.length, maximoDeDocumentos);
+        long[] maisChaves = new long[capacidade];
+        System.arraycopy(chaves, 0, maisChaves, 0, quantidade);
+        chaves = maisChaves;
+        byte[] maisConteudos = new byte[capacidade * larguraDoConteudo];
+        System.arraycopy(conteudos, 0, maisConteudos, 0, quantidade * larguraDoConteudo);
+        conteudos = maisConteudos;
+    }
+
+    /**
+     * @param arquivo
+     *            arquivo do índice, sobrescrito se existir.
+     * @throws IOException
+     *             caso não seja possível gravar o arquivo.
+     */
+    public void escreve(File arquivo) throws IOException {
+        int[] ordem = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            ordem[i] = i;
+        }
+        ordena(ordem, 0, quantidade - 1);
+        int distintos = 0;
+        for (int i = 0; i < quantidade; i++) {
+            if (i + 1 == quantidade || chaves[ordem[i]] != chaves[ordem[i + 1]]) {
+                ordem[distintos++] = ordem[i];
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(arquivo), 1 << 16));
+        try {
+            out.writeInt(IndiceDeDocumentos.ASSINATURA);
+            out.writeInt(IndiceDeDocumentos.VERSAO);
+            out.writeInt(larguraDoConteudo);
+            out.writeInt(distintos);
+            for (int i = 0; i < distintos; i++) {
+                out.writeLong(chaves[ordem[i]]);
+                out.write(conteudos, ordem[i] * larguraDoConteudo, larguraDoConteudo);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Ordena as posições pela chave e, entre chaves iguais, pela ordem de
+     * adição.
+     */
+    private void ordena(int[] ordem, int inicio, int fim) {
+        while (inicio < fim) {
+            int pivo = ordem[(inicio + fim) >>> 1];
+            int i = inicio;
+            int j = fim;
+            while (i <= j) {
+                while (compara(ordem[i], pivo) < 0) {
+                    i++;
+                }
+                while (compara(ordem[j], pivo) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int troca = ordem[i];
+                    ordem[i++] = ordem[j];
+                    ordem[j--] = troca;
+                }
+            }
+            if (j - inicio < fim - i) {
+                ordena(ordem, inicio, j);
+                inicio = i;
+            } else {
+                ordena(ordem, i, fim);
+                fim = j;
+            }
+        }
+    }
+
+    private int compara(int posicao, int outraPosicao) {
+        long chave = chaves[posicao];
+        long outraChave = chaves[outraPosicao];
+        if (chave != outraChave) {
+            return chave < outraChave ? -1 : 1;
+        }
+        return posicao < outraPosicao ? -1 : (posicao == outraPosicao ? 0 : 1);
+    }
+
+}
@@ -0,0 +1,267 @@
+package br.com.caelum.stella.validation;
+
+import br.com.caelum.stella.format.Mascara;
+
+/**
+ * <p>
+ * Gera CPFs, CNPJs, NITs, Títulos Eleitorais e Renavams para testes de carga e
+ * de desempenho, válidos ou com um {@link Defeito} escolhido.
+ * </p>
+ * <p>
+ * Os dígitos verificadores são calculados diretamente, com as mesmas regras
+ * dos validadores, sem tentativas. Os documentos são sorteados por um gerador
+ * pseudoaleatório próprio, de modo que a mesma semente produz sempre a mesma
+ * sequência de documentos.
+ * </p>
+ * <p>
+ * Instâncias não são thread-safe e não usam sincronização: cada thread deve
+ * usar seu próprio gerador, por exemplo com sementes diferentes.
+ * </p>
+ * 
+ * @see br.com.caelum.stella.validation.ie.GeradorDeIE
+ */
+public final class GeradorDeDocumentos {
+
+    private static final Mascara CPF_FORMATADO = CPFValidator.MASCARA_FORMATADA;
+
+    private static final Mascara CPF_SEM_FORMATO = CPFValidator.MASCARA_SEM_FORMATO;
+
+    private static final Mascara CNPJ_FORMATADO = CNPJValidator.MASCARA_FORMATADA;
+
+    private static final Mascara CNPJ_SEM_FORMATO = CNPJValidator.MASCARA_SEM_FORMATO;
+
+    private static final Mascara NIT_FORMATADO = NITValidator.MASCARA_FORMATADA;
+
+    private static final Mascara NIT_SEM_FORMATO = NITValidator.MASCARA_SEM_FORMATO;
+
+    private static final Mascara TITULO_FORMATADO = TituloEleitoralValidator.MASCARA_FORMATADA;
+
+    private static final Mascara TITULO_SEM_FORMATO = TituloEleitoralValidator.MASCARA_SEM_FORMATO;
+
+    private static final Mascara RENAVAM_FORMATADO = RenavamValidator.MASCARA_FORMATADA;
+
+    private static final Mascara RENAVAM_SEM_FORMATO = RenavamValidator.MASCARA_SEM_FORMATO;
+
+    private static final long REPETICAO_DE_DIGITOS_DO_CPF = 11111111111L;
+
+    private static final int QUANTIDADE_DE_CODIGOS_DE_ESTADO = 28;
+
+    private long sequencia;
+
+    /**
+     * @param semente
+     *            semente do gerador; a mesma semente produz a mesma sequência
+     *            de documentos.
+     */
+    public GeradorDeDocumentos(long semente) {
+        this.sequencia = semente;
+    }
+
+    /**
+     * Utiliza uma semente diferente a cada construção.
+     */
+    public GeradorDeDocumentos() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM}, {@link Defeito#DV_INVALIDO} ou
+     *            {@link Defeito#DIGITOS_REPETIDOS}.
+     * @return dígitos do CPF gerado, como um número.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a CPF.
+     */
+    public long cpf(Defeito defeito) {
+        switch (defeito) {
+        case NENHUM:
+            return CPFValidator.completaDVs(sorteia(1000000000L) * 100);
+        case DV_INVALIDO:
+            return alteraDV(cpf(Defeito.NENHUM));
+        case DIGITOS_REPETIDOS:
+            return sorteia(10) * REPETICAO_DE_DIGITOS_DO_CPF;
+        default:
+            throw naoSeAplica("CPF", defeito);
+        }
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM}, {@link Defeito#DV_INVALIDO} ou
+     *            {@link Defeito#DIGITOS_REPETIDOS}.
+     * @param isFormatted
+     *            gerar o CPF formatado quando <code>true</code>
+     * @return o CPF gerado.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a CPF.
+     */
+    public String cpf(Defeito defeito, boolean isFormatted) {
+        return (isFormatted ? CPF_FORMATADO : CPF_SEM_FORMATO).formata(cpf(defeito));
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM} ou {@link Defeito#DV_INVALIDO}.
+     * @return dígitos do CNPJ gerado, como um número.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a CNPJ.
+     */
+    public long cnpj(Defeito defeito) {
+        switch (defeito) {
+        case NENHUM:
+            return CNPJValidator.completaDVs(sorteia(1000000000000L) * 100);
+        case DV_INVALIDO:
+            return alteraDV(cnpj(Defeito.NENHUM));
+        default:
+            throw naoSeAplica("CNPJ", defeito);
+        }
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM} ou {@link Defeito#DV_INVALIDO}.
+     * @param isFormatted
+     *            gerar o CNPJ formatado quando <code>true</code>
+     * @return o CNPJ gerado.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a CNPJ.
+     */
+    public String cnpj(Defeito defeito, boolean isFormatted) {
+        return (isFormatted ? CNPJ_FORMATADO : CNPJ_SEM_FORMATO).formata(cnpj(defeito));
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM} ou {@link Defeito#DV_INVALIDO}.
+     * @return dígitos do NIT gerado, como um número.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a NIT.
+     */
+    public long nit(Defeito defeito) {
+        switch (defeito) {
+        case NENHUM:
+            return NITValidator.completaDVs(sorteia(10000000000L) * 10);
+        case DV_INVALIDO:
+            return alteraDV(nit(Defeito.NENHUM));
+        default:
+            throw naoSeAplica("NIT", defeito);
+        }
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM} ou {@link Defeito#DV_INVALIDO}.
+     * @param isFormatted
+     *            gerar o NIT formatado quando <code>true</code>
+     * @return o NIT gerado.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a NIT.
+     */
+    public String nit(Defeito defeito, boolean isFormatted) {
+        return (isFormatted ? NIT_FORMATADO : NIT_SEM_FORMATO).formata(nit(defeito));
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM}, {@link Defeito#DV_INVALIDO} ou
+     *            {@link Defeito#CODIGO_DE_ESTADO_INVALIDO}.
+     * @return dígitos do Título Eleitoral gerado, como um número.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a Título Eleitoral.
+     */
+    public long tituloEleitoral(Defeito defeito) {
+        long codigoDeEstado;
+        switch (defeito) {
+        case NENHUM:
+            codigoDeEstado = 1 + sorteia(QUANTIDADE_DE_CODIGOS_DE_ESTADO);
+            break;
+        case DV_INVALIDO:
+            return alteraDV(tituloEleitoral(Defeito.NENHUM));
+        case CODIGO_DE_ESTADO_INVALIDO:
+            codigoDeEstado = sorteia(100 - QUANTIDADE_DE_CODIGOS_DE_ESTADO);
+            if (codigoDeEstado > 0) {
+                codigoDeEstado += QUANTIDADE_DE_CODIGOS_DE_ESTADO;
+            }
+            break;
+        default:
+            throw naoSeAplica("Título Eleitoral", defeito);
+        }
+        return TituloEleitoralValidator.completaDVs((sorteia(100000000L) * 100 + codigoDeEstado) * 100);
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM}, {@link Defeito#DV_INVALIDO} ou
+     *            {@link Defeito#CODIGO_DE_ESTADO_INVALIDO}.
+     * @param isFormatted
+     *            gerar o Título Eleitoral formatado quando <code>true</code>
+     * @return o Título Eleitoral gerado.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a Título Eleitoral.
+     */
+    public String tituloEleitoral(Defeito defeito, boolean isFormatted) {
+        return (isFormatted ? TITULO_FORMATADO : TITULO_SEM_FORMATO).formata(tituloEleitoral(defeito));
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM} ou {@link Defeito#DV_INVALIDO}.
+     * @return dígitos do Renavam gerado, como um número.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a Renavam.
+     */
+    public long renavam(Defeito defeito) {
+        switch (defeito) {
+        case NENHUM:
+            return RenavamValidator.completaDVs(sorteia(100000000L) * 10);
+        case DV_INVALIDO:
+            return alteraDV(renavam(Defeito.NENHUM));
+        default:
+            throw naoSeAplica("Renavam", defeito);
+        }
+    }
+
+    /**
+     * @param defeito
+     *            {@link Defeito#NENHUM} ou {@link Defeito#DV_INVALIDO}.
+     * @param isFormatted
+     *            gerar o Renavam formatado quando <code>true</code>
+     * @return o Renavam gerado.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a Renavam.
+     */
+    public String renavam(Defeito defeito, boolean isFormatted) {
+        return (isFormatted ? RENAVAM_FORMATADO : RENAVAM_SEM_FORMATO).formata(renavam(defeito));
+    }
+
+    /**
+     * Troca o último dígito, que é sempre um dígito verificador, por outro.
+     */
+    private long alteraDV(long digitos) {
+        long dv = digitos % 10;
+        return digitos - dv + (dv + 1 + sorteia(9)) % 10;
+    }
+
+    private static IllegalArgumentException naoSeAplica(String documento, Defeito defeito) {
+        return new IllegalArgumentException("Defeito " + defeito + " não se aplica a " + documento);
+    }
+
+    /**
+     * @return número entre <code>0</code>, inclusive, e o limite, exclusive.
+     */
+    private long sorteia(long limite) {
+        return (proximo() >>> 1) % limite;
+    }
+
+    /**
+     * SplitMix64: uma soma e duas multiplicações por número gerado.
+     */
+    private long proximo() {
+        sequencia += 0x9E3779B97F4A7C15L;
+        long result = sequencia;
+        result = (result ^ (result >>> 30)) * 0xBF58476D1CE4E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+        return result ^ (result >>> 31);
+    }
+
+}
@@ -0,0 +1,181 @@
+package br.com.caelum.stella.validation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Índice somente leitura de CPFs e CNPJs, gravado por um
+ * {@link EscritorDeIndice} e mapeado em memória, para listas grandes demais
+ * para o heap, como toda a base de CNPJs da Receita Federal.
+ * </p>
+ * <p>
+ * Abrir um índice apenas mapeia o arquivo: nada é carregado no heap, e
+ * várias JVMs abrindo o mesmo arquivo compartilham suas páginas através do
+ * cache do sistema operacional. As consultas fazem uma busca por interpolação
+ * nas chaves ordenadas, alternada com passos de busca binária para garantir um
+ * número logarítmico de acessos, e podem ser feitas por várias threads sem
+ * sincronização.
+ * </p>
+ * <p>
+ * O arquivo tem um cabeçalho de 16 bytes (assinatura, versão, largura do
+ * conteúdo e quantidade de documentos) seguido pelos registros, cada um com a
+ * chave do documento em 8 bytes e seu conteúdo, em ordem crescente de chave e
+ * em <em>big-endian</em>. O arquivo inteiro deve ter menos de 2GB.
+ * </p>
+ */
+public final class IndiceDeDocumentos {
+
+    static final int ASSINATURA = 0x53544C49;
+
+    static final int VERSAO = 1;
+
+    private static final int TAMANHO_DO_CABECALHO = 16;
+
+    private final ByteBuffer arquivo;
+
+    private final int larguraDoConteudo;
+
+    private final int tamanhoDoRegistro;
+
+    private final int quantidade;
+
+    private IndiceDeDocumentos(ByteBuffer arquivo) throws IOException {
+        if (arquivo.capacity() < TAMANHO_DO_CABECALHO || arquivo.getInt(0) != ASSINATURA
+                || arquivo.getInt(4) != VERSAO) {
+            throw new IOException("Arquivo não é um índice de documentos");
+        }
+        this.arquivo = arquivo;
+        this.larguraDoConteudo = arquivo.getInt(8);
+        this.tamanhoDoRegistro = 8 + larguraDoConteudo;
+        this.quantidade = arquivo.getInt(12);
+        if (larguraDoConteudo < 0 || quantidade < 0
+                || TAMANHO_DO_CABECALHO + (long) quantidade * tamanhoDoRegistro != arquivo.capacity()) {
+            throw new IOException("Índice de documentos corrompido");
+        }
+    }
+
+    /**
+     * @param arquivo
+     *            arquivo gravado por um {@link EscritorDeIndice}.
+     * @return índice mapeado em memória.
+     * @throws IOException
+     *             caso não seja possível mapear o arquivo ou ele não seja um
+     *             índice válido.
+     */
+    public static IndiceDeDocumentos abre(File arquivo) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(arquivo, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo grande demais: " + arquivo);
+            }
+            return new IndiceDeDocumentos(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * @param larguraDoConteudo
+     *            tamanho, em bytes, do conteúdo de cada documento.
+     * @return quantidade máxima de documentos de um índice com menos de 2GB,
+     *         ou <code>0</code> se a largura é negativa.
+     */
+    static int maximoDeDocumentos(int larguraDoConteudo) {
+        if (larguraDoConteudo < 0) {
+            return 0;
+        }
+        return (int) ((Integer.MAX_VALUE - TAMANHO_DO_CABECALHO) / (8L + larguraDoConteudo));
+    }
+
+    /**
+     * @param documento
+     *            CPF ou CNPJ, formatado ou não.
+     * @return <code>true</code> se o documento é válido e está no índice.
+     */
+    public boolean contem(CharSequence documento) {
+        return posicaoDe(documento) >= 0;
+    }
+
+    /**
+     * @param documento
+     *            CPF ou CNPJ, formatado ou não.
+     * @param destino
+     *            recebe o conteúdo do documento, a partir da posição
+     *            <code>0</code>.
+     * @return <code>true</code> se o documento é válido e está no índice; caso
+     *         contrário, o destino não é alterado.
+     */
+    public boolean conteudoDe(CharSequence documento, byte[] destino) {
+        int posicao = posicaoDe(documento);
+        if (posicao < 0) {
+            return false;
+        }
+        int inicio = TAMANHO_DO_CABECALHO + posicao * tamanhoDoRegistro + 8;
+        for (int i = 0; i < larguraDoConteudo; i++) {
+            destino[i] = arquivo.get(inicio + i);
+        }
+        return true;
+    }
+
+    /**
+     * @return quantidade de documentos do índice.
+     */
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return tamanho, em bytes, do conteúdo de cada documento.
+     */
+    public int getLarguraDoConteudo() {
+        return larguraDoConteudo;
+    }
+
+    private long chaveEm(int posicao) {
+        return arquivo.getLong(TAMANHO_DO_CABECALHO + posicao * tamanhoDoRegistro);
+    }
+
+    private int posicaoDe(CharSequence documento) {
+        long chave = ChaveDeDocumento.de(documento);
+        if (chave == ChaveDeDocumento.AUSENTE || quantidade == 0) {
+            return -1;
+        }
+        int inicio = 0;
+        int fim = quantidade - 1;
+        long chaveNoInicio = chaveEm(inicio);
+        long chaveNoFim = chaveEm(fim);
+        boolean interpola = true;
+        while (inicio <= fim && chave >= chaveNoInicio && chave <= chaveNoFim) {
+            int meio;
+            if (interpola && chaveNoFim != chaveNoInicio) {
+                double fracao = (double) (chave - chaveNoInicio) / (chaveNoFim - chaveNoInicio);
+                meio = inicio + (int) (fracao * (fim - inicio));
+            } else {
+                meio = (inicio + fim) >>> 1;
+            }
+            interpola = !interpola;
+            long chaveNoMeio = chaveEm(meio);
+            if (chaveNoMeio == chave) {
+                return meio;
+            }
+            if (chaveNoMeio < chave) {
+                inicio = meio + 1;
+                if (inicio <= fim) {
+                    chaveNoInicio = chaveEm(inicio);
+                }
+            } else {
+                fim = meio - 1;
+                if (fim >= inicio) {
+                    chaveNoFim = chaveEm(fim);
+                }
+            }
+        }
+        return -1;
+    }
+
+}
@@ -6,7 +6,15 @@ import java.util.List;
 import br.com.caelum.stella.ValidationMessage;
 
 /**
+ * <p>
  * Sinaliza uma ocorrência de um valor inválido.
+ * </p>
+ * <p>
+ * Validadores construídos sem a pilha de execução (veja
+ * {@link BaseValidator#BaseValidator(br.com.caelum.stella.MessageProducer, boolean)})
+ * lançam subclasses desta exception que não capturam a pilha. Em todos os
+ * casos, {@link #getInvalidMessages()} devolve uma lista modificável.
+ * </p>
  * 
  * @author leobessa
  * 
@@ -22,10 +30,14 @@ public class InvalidStateException extends RuntimeException {
     }
 
     public InvalidStateException(List<ValidationMessage> validationMessages) {
-        super("Validation errors: " + validationMessages);
         this.validationMessages = validationMessages;
     }
 
+    @Override
+    public String getMessage() {
+        return "Validation errors: " + getInvalidMessages();
+    }
+
     public List<ValidationMessage> getInvalidMessages() {
         return validationMessages;
     }
@@ -59,6 +59,24 @@ public class LengthValidator implements Validator<Object> {
         return messages;
     }
 
+    public boolean isValid(Object object) {
+        return object.toString().length() == validLength;
+    }
+
+    /**
+     * @return {@link BaseValidator#ERRO_NAO_ENUMERADO} caso o tamanho da
+     *         cadeia seja diferente do esperado, ou <code>0</code> caso
+     *         contrário.
+     * @see BaseValidator#maskOf(InvalidValue)
+     */
+    public int errorsFor(Object object) {
+        int result = 0;
+        if (!isValid(object)) {
+            result = BaseValidator.ERRO_NAO_ENUMERADO;
+        }
+        return result;
+    }
+
     public boolean isEligible(Object object) {
         return true;
     }
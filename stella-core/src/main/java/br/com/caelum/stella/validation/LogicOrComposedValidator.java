@@ -8,84 +8,184 @@ import java.util.List;
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.ValidationMessage;
 
+/**
+ * <p>
+ * Validador que aceita um valor quando ao menos um dos validadores que o
+ * compõem o aceita. Cada validador é tentado, na ordem informada, somente se
+ * o valor for elegível para ele.
+ * </p>
+ * <p>
+ * A escolha entre os validadores é feita com {@link Validator#isValid(Object)}
+ * e, portanto, sem exceptions nem geração de mensagens. O método
+ * {@link #assertValid(Object)} lança no máximo uma exception, com as mensagens
+ * do último validador elegível.
+ * </p>
+ * <p>
+ * Quando o valor não é elegível para nenhum validador, o erro é o de formato
+ * inválido informado na construção. Prefira um erro enumerado, como
+ * <code>IEError.INVALID_FORMAT</code>: o erro padrão não é um enum e ocupa o
+ * bit reservado {@link BaseValidator#ERRO_NAO_ENUMERADO} da máscara de
+ * {@link #errorsFor(Object)}.
+ * </p>
+ * <p>
+ * Instâncias construídas a partir dos validadores, sem o construtor
+ * depreciado que recebe classes e sem chamadas a
+ * {@link #setInvalidFormat(InvalidValue)}, são imutáveis e podem ser
+ * compartilhadas entre threads, desde que os validadores que as compõem e o
+ * {@link MessageProducer} também o possam.
+ * </p>
+ * 
+ * @param <T>
+ *            tipo de objeto a ser validado
+ */
 public class LogicOrComposedValidator<T> implements Validator<T> {
 
-    public Validator<T>[] validators;
+    private final Validator<T>[] validators;
 
-    public MessageProducer messageProducer;
+    private final MessageProducer messageProducer;
 
-    public InvalidValue invalidFormat = new InvalidValue() {
+    private static final InvalidValue INVALID_FORMAT = new InvalidValue() {
 
         public String name() {
             return "INVALID_FORMAT";
         }
     };
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Volátil para que a troca por {@link #setInvalidFormat(InvalidValue)} seja
+     * vista por todas as threads.
+     */
+    private volatile InvalidValue invalidFormat;
+
+    /**
+     * @param messageProducer
+     *            produtor da mensagem de formato inválido, usada quando o valor
+     *            não é elegível para nenhum dos validadores.
+     * @param validators
+     *            validadores alternativos, na ordem em que devem ser tentados.
+     */
+    public LogicOrComposedValidator(MessageProducer messageProducer, Validator<T>... validators) {
+        this(messageProducer, INVALID_FORMAT, validators);
+    }
+
+    /**
+     * @param messageProducer
+     *            produtor da mensagem de formato inválido, usada quando o valor
+     *            não é elegível para nenhum dos validadores.
+     * @param invalidFormat
+     *            erro de formato inválido.
+     * @param validators
+     *            validadores alternativos, na ordem em que devem ser tentados.
+     */
+    public LogicOrComposedValidator(MessageProducer messageProducer, InvalidValue invalidFormat,
+            Validator<T>... validators) {
+        this.messageProducer = messageProducer;
+        this.invalidFormat = invalidFormat;
+        this.validators = validators.clone();
+    }
+
+    /**
+     * Constrói os validadores alternativos através de seus construtores
+     * <code>(MessageProducer, boolean)</code>.
+     * 
+     * @deprecated utilize
+     *             {@link #LogicOrComposedValidator(MessageProducer, Validator...)}
+     *             com os validadores já construídos.
+     * @throws IllegalArgumentException
+     *             caso algum dos validadores não possa ser construído.
+     */
+    @Deprecated
     public LogicOrComposedValidator(MessageProducer messageProducer, boolean isFormatted,
             Class<Validator<T>>... validatorClasses) {
-        this.messageProducer = messageProducer;
-        this.validators = new Validator[validatorClasses.length];
-        int i = 0;
-        for (Class<Validator<T>> clazz : validatorClasses) {
-            Constructor<Validator<T>> constructor;
+        this(messageProducer, newInstances(messageProducer, isFormatted, validatorClasses));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Validator<T>[] newInstances(MessageProducer messageProducer, boolean isFormatted,
+            Class<Validator<T>>... validatorClasses) {
+        Validator<T>[] validators = new Validator[validatorClasses.length];
+        for (int i = 0; i < validatorClasses.length; i++) {
             try {
-                constructor = clazz.getConstructor(MessageProducer.class, boolean.class);
-                constructor.setAccessible(true);
-                validators[i++] = constructor.newInstance(messageProducer, isFormatted);
-            } catch (SecurityException e) {
-                e.printStackTrace();
+                Constructor<Validator<T>> constructor = validatorClasses[i].getConstructor(MessageProducer.class,
+                        boolean.class);
+                validators[i] = constructor.newInstance(messageProducer, isFormatted);
             } catch (NoSuchMethodException e) {
-                e.printStackTrace();
-            } catch (IllegalArgumentException e) {
-                e.printStackTrace();
+                throw new IllegalArgumentException("Validador sem construtor (MessageProducer, boolean): "
+                        + validatorClasses[i].getName(), e);
             } catch (InstantiationException e) {
-                e.printStackTrace();
+                throw new IllegalArgumentException(e);
             } catch (IllegalAccessException e) {
-                e.printStackTrace();
+                throw new IllegalArgumentException(e);
             } catch (InvocationTargetException e) {
-                e.printStackTrace();
+                throw new IllegalArgumentException(e.getCause());
             }
         }
+        return validators;
     }
 
     public void assertValid(T value) {
-        InvalidStateException lastException = null;
-        boolean isValid = false;
+        Validator<T> validator = select(value);
+        if (validator == null) {
+            throw new InvalidStateException(messageProducer.getMessage(invalidFormat));
+        }
+        validator.assertValid(value);
+    }
+
+    public List<ValidationMessage> invalidMessagesFor(T value) {
+        List<ValidationMessage> result;
+        Validator<T> validator = select(value);
+        if (validator == null) {
+            result = new ArrayList<ValidationMessage>();
+            result.add(messageProducer.getMessage(invalidFormat));
+        } else {
+            result = validator.invalidMessagesFor(value);
+        }
+        return result;
+    }
+
+    /**
+     * @return o primeiro validador elegível que aceita o valor; caso nenhum o
+     *         aceite, o último validador elegível; ou <code>null</code>, caso
+     *         o valor não seja elegível para nenhum validador.
+     */
+    private Validator<T> select(T value) {
+        Validator<T> result = null;
         for (Validator<T> v : validators) {
             if (v.isEligible(value)) {
-                try {
-                    v.assertValid(value);
-                    isValid = true;
+                result = v;
+                if (v.isValid(value)) {
                     break;
-                } catch (InvalidStateException e) {
-                    lastException = e;
                 }
             }
         }
-        if (!isValid) {
-            if (lastException != null) {
-                throw lastException;
-            } else {
-                throw new InvalidStateException(messageProducer.getMessage(invalidFormat));
+        return result;
+    }
+
+    public boolean isValid(T value) {
+        boolean result = false;
+        for (Validator<T> v : validators) {
+            if (v.isEligible(value) && v.isValid(value)) {
+                result = true;
+                break;
             }
         }
+        return result;
     }
 
-    public List<ValidationMessage> invalidMessagesFor(T value) {
-        List<ValidationMessage> result = null;
+    public int errorsFor(T value) {
+        int result = 0;
+        boolean isEligible = false;
         for (Validator<T> v : validators) {
             if (v.isEligible(value)) {
-                List<ValidationMessage> invalidMessages = v.invalidMessagesFor(value);
-                result = invalidMessages;
-                if (invalidMessages.isEmpty()) {
+                isEligible = true;
+                result = v.errorsFor(value);
+                if (result == 0) {
                     break;
                 }
             }
         }
-        if (result == null) {
-            result = new ArrayList<ValidationMessage>();
-            result.add(messageProducer.getMessage(invalidFormat));
+        if (!isEligible) {
+            result = BaseValidator.maskOf(invalidFormat);
         }
         return result;
     }
@@ -101,6 +201,16 @@ public class LogicOrComposedValidator<T> implements Validator<T> {
         return result;
     }
 
+    /**
+     * A instância deixa de ser imutável e, se já estiver compartilhada, outras
+     * threads podem usar o erro anterior em uma validação já iniciada.
+     * 
+     * @param invalidFormat
+     *            erro de formato inválido.
+     * @deprecated informe o erro na construção, através de
+     *             {@link #LogicOrComposedValidator(MessageProducer, InvalidValue, Validator...)}.
+     */
+    @Deprecated
     public void setInvalidFormat(InvalidValue invalidFormat) {
         this.invalidFormat = invalidFormat;
     }
@@ -0,0 +1,181 @@
+package br.com.caelum.stella.validation;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.List;
+
+import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.format.Mascara;
+
+/**
+ * <p>
+ * Base dos validadores de documentos de formato fixo, descrito por uma
+ * {@link Mascara}. A máscara verifica o formato da cadeia e extrai seus
+ * dígitos em uma única passada; a subclasse define apenas a regra dos dígitos
+ * extraídos, em {@link #errorsOf(long)}.
+ * </p>
+ * <p>
+ * Os erros são representados pela máscara de bits de
+ * {@link BaseValidator#maskOf(InvalidValue)}.
+ * </p>
+ * 
+ * @param <E>
+ *            enum dos erros de validação do documento.
+ */
+public abstract class MascaraValidator<E extends Enum<E> & InvalidValue> implements Validator<String>,
+        BatchValidator {
+
+    private final BaseValidator baseValidator;
+
+    private final Mascara mascara;
+
+    private final Class<E> errorType;
+
+    private final int invalidFormatErrors;
+
+    private final CacheDeValidacao cache;
+
+    /**
+     * @param baseValidator
+     *            gerador das mensagens de validação.
+     * @param isFormatted
+     *            considerar cadeia formatada quando <code>true</code>
+     * @param mascaraFormatada
+     *            formato do documento quando <code>isFormatted</code>.
+     * @param mascaraSemFormato
+     *            formato do documento quando não <code>isFormatted</code>.
+     * @param formatError
+     *            erro das cadeias fora da máscara formatada.
+     * @param digitsError
+     *            erro das cadeias fora da máscara sem formato.
+     */
+    protected MascaraValidator(BaseValidator baseValidator, boolean isFormatted, Mascara mascaraFormatada,
+            Mascara mascaraSemFormato, E formatError, E digitsError) {
+        this(baseValidator, isFormatted, mascaraFormatada, mascaraSemFormato, formatError, digitsError, null);
+    }
+
+    /**
+     * @param baseValidator
+     *            gerador das mensagens de validação.
+     * @param isFormatted
+     *            considerar cadeia formatada quando <code>true</code>
+     * @param mascaraFormatada
+     *            formato do documento quando <code>isFormatted</code>.
+     * @param mascaraSemFormato
+     *            formato do documento quando não <code>isFormatted</code>.
+     * @param formatError
+     *            erro das cadeias fora da máscara formatada.
+     * @param digitsError
+     *            erro das cadeias fora da máscara sem formato.
+     * @param cache
+     *            cache dos resultados de validação, exclusivo deste validador;
+     *            ou <code>null</code> para não usar cache.
+     */
+    protected MascaraValidator(BaseValidator baseValidator, boolean isFormatted, Mascara mascaraFormatada,
+            Mascara mascaraSemFormato, E formatError, E digitsError, CacheDeValidacao cache) {
+        this.baseValidator = baseValidator;
+        this.mascara = isFormatted ? mascaraFormatada : mascaraSemFormato;
+        this.errorType = formatError.getDeclaringClass();
+        this.invalidFormatErrors = BaseValidator.maskOf(isFormatted ? formatError : digitsError);
+        this.cache = cache;
+    }
+
+    /**
+     * @param digitos
+     *            dígitos de uma cadeia de acordo com a máscara do validador.
+     * @return máscara de bits dos erros dos dígitos, ou <code>0</code> se eles
+     *         formam um documento válido.
+     */
+    protected abstract int errorsOf(long digitos);
+
+    public int errorsFor(String value) {
+        return computeErrors(value);
+    }
+
+    public int errorsFor(CharSequence value) {
+        return computeErrors(value);
+    }
+
+    /**
+     * Aplica todas as regras do validador a dígitos já extraídos, por exemplo
+     * por {@link br.com.caelum.stella.format.Normalizador}.
+     * 
+     * @param digitos
+     *            dígitos do documento, como devolvidos pela máscara sem
+     *            formato; ou {@link Mascara#INVALIDA}.
+     * @return máscara de bits dos erros de validação, ou <code>0</code> se os
+     *         dígitos formam um documento válido.
+     */
+    public int errorsForDigitos(long digitos) {
+        return computeErrors(digitos);
+    }
+
+    public boolean isValid(String value) {
+        return computeErrors(value) == 0;
+    }
+
+    public boolean isValid(CharSequence value) {
+        return computeErrors(value) == 0;
+    }
+
+    public boolean isValid(char[] buffer, int offset, int length) {
+        return computeErrors(mascara.digitos(buffer, offset, length)) == 0;
+    }
+
+    public boolean isValidAscii(byte[] buffer, int offset, int length) {
+        return computeErrors(mascara.digitos(buffer, offset, length)) == 0;
+    }
+
+    public boolean isValidAscii(ByteBuffer buffer) {
+        return computeErrors(mascara.digitos(buffer)) == 0;
+    }
+
+    public boolean isEligible(String value) {
+        return mascara.matches(value);
+    }
+
+    public boolean isEligible(CharSequence value) {
+        return mascara.matches(value);
+    }
+
+    public void validateAll(CharSequence[] values, BitSet validOut) {
+        for (int i = 0; i < values.length; i++) {
+            validOut.set(i, computeErrors(values[i]) == 0);
+        }
+    }
+
+    public void validateAll(CharSequence[] values, byte[] errorsOut) {
+        for (int i = 0; i < values.length; i++) {
+            errorsOut[i] = (byte) computeErrors(values[i]);
+        }
+    }
+
+    public void assertValid(String value) {
+        baseValidator.assertValid(computeErrors(value), errorType);
+    }
+
+    public List<ValidationMessage> invalidMessagesFor(String value) {
+        return baseValidator.generateValidationMessages(computeErrors(value), errorType);
+    }
+
+    private int computeErrors(CharSequence value) {
+        return value == null ? 0 : computeErrors(mascara.digitos(value));
+    }
+
+    private int computeErrors(long digitos) {
+        int errors;
+        if (digitos == Mascara.INVALIDA) {
+            errors = invalidFormatErrors;
+        } else if (cache == null) {
+            errors = errorsOf(digitos);
+        } else {
+            errors = cache.get(digitos);
+            if (errors == CacheDeValidacao.AUSENTE) {
+                errors = errorsOf(digitos);
+                cache.put(digitos, errors);
+            }
+        }
+        return errors;
+    }
+
+}
@@ -1,13 +1,10 @@
 package br.com.caelum.stella.validation;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
-import br.com.caelum.stella.format.NITFormatter;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.error.NITError;
 
 /**
@@ -23,33 +20,17 @@ import br.com.caelum.stella.validation.error.NITError;
  * 
  * @author Leonardo Bessa
  */
-public class NITValidator implements Validator<String> {
-
-    private final BaseValidator baseValidator;
+public class NITValidator extends MascaraValidator<NITError> {
 
     private static final int MOD = 11;
 
-    private final boolean isFormatted;
-
-    private static class RotinaPosProdutoInterno implements RotinaDeDigitoVerificador {
-        public Integer transform(RotinaParameters parameter) {
-            Integer mod = parameter.getDigitoVerificadorInfo().getMod();
-            Integer result = parameter.getResult() % mod;
-            if (result < 2) {
-                result = 0;
-            } else {
-                result = 11 - result;
-            }
-            return result;
-        }
-    }
-
     private static final Integer DV1_POSITION = 11;
 
     private static final Integer[] DV1_MULTIPLIERS = { 3, 2, 9, 8, 7, 6, 5, 4, 3, 2 };
 
     private static final DigitoVerificadorInfo DV1_INFO = new DigitoVerificadorInfo(0,
-            new RotinaDeDigitoVerificador[] { new RotinaPosProdutoInterno() }, MOD, DV1_MULTIPLIERS, DV1_POSITION);
+            new RotinaDeDigitoVerificador[] { new RotinaComumDeDigitoVerificador() }, MOD, DV1_MULTIPLIERS,
+            DV1_POSITION);
 
     private static final ValidadorDeDV DV1_CHECKER = new ValidadorDeDV(DV1_INFO);
 
@@ -57,6 +38,12 @@ public class NITValidator implements Validator<String> {
 
     public static final Pattern NIT_UNFORMATED = Pattern.compile("(\\d{3})(\\d{5})(\\d{2})(\\d{1})");
 
+    public static final Mascara MASCARA_FORMATADA = new Mascara("###.#####.##-#");
+
+    public static final Mascara MASCARA_SEM_FORMATO = new Mascara("###########");
+
+    private static final int QUANTIDADE_DE_DIGITOS = 11;
+
     /**
      * Este considera, por padrão, que as cadeias estão formatadas e utiliza um
      * {@linkplain SimpleMessageProducer} para geração de mensagens.
@@ -70,8 +57,7 @@ public class NITValidator implements Validator<String> {
      * mensagens.
      */
     public NITValidator(boolean isFormatted) {
-        this.baseValidator = new BaseValidator();
-        this.isFormatted = isFormatted;
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     /**
@@ -86,57 +72,46 @@ public class NITValidator implements Validator<String> {
      *            é um dígito decimal.
      */
     public NITValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
-    }
-
-    private List<InvalidValue> getInvalidValues(String nit) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        if (nit != null) {
-            if (!isEligible(nit)) {
-                if (isFormatted) {
-                    errors.add(NITError.INVALID_FORMAT);
-                } else {
-                    errors.add(NITError.INVALID_DIGITS);
-                }
-            } else {
-                String unformatedNit;
-                if (isFormatted) {
-                    NITFormatter formatter = new NITFormatter();
-                    unformatedNit = formatter.unformat(nit);
-                } else {
-                    unformatedNit = nit;
-                }
-
-                if (errors.isEmpty()) {
-                    if (!hasValidCheckDigits(unformatedNit)) {
-                        errors.add(NITError.INVALID_CHECK_DIGITS);
-                    }
-                }
-            }
-        }
-        return errors;
+        this(messageProducer, isFormatted, true);
     }
 
-    private boolean hasValidCheckDigits(String value) {
-        return (DV1_CHECKER.isDVValid(value));
+    /**
+     * @param messageProducer
+     *            produtor de mensagem de erro.
+     * @param isFormatted
+     *            considera cadeia no formato de NIT: "ddd.ddddd.dd-d" onde "d"
+     *            é um dígito decimal.
+     * @param isStackTraceEnabled
+     *            <code>false</code> para rejeitar valores com
+     *            {@link InvalidStateException} sem a pilha de execução e com
+     *            as mensagens já geradas para os mesmos erros.
+     */
+    public NITValidator(MessageProducer messageProducer, boolean isFormatted, boolean isStackTraceEnabled) {
+        super(new BaseValidator(messageProducer, isStackTraceEnabled), isFormatted, MASCARA_FORMATADA,
+                MASCARA_SEM_FORMATO, NITError.INVALID_FORMAT, NITError.INVALID_DIGITS);
     }
 
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = NIT_FORMATED.matcher(value).matches();
-        } else {
-            result = NIT_UNFORMATED.matcher(value).matches();
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(NITError.INVALID_CHECK_DIGITS);
         }
-        return result;
+        return errors;
     }
 
-    public void assertValid(String cpf) {
-        baseValidator.assertValid(getInvalidValues(cpf));
+    static boolean hasValidCheckDigits(long value) {
+        return (DV1_CHECKER.isDVValid(value, QUANTIDADE_DE_DIGITOS));
     }
 
-    public List<ValidationMessage> invalidMessagesFor(String cpf) {
-        return baseValidator.generateValidationMessages(getInvalidValues(cpf));
+    /**
+     * @param digitos
+     *            dígitos do documento; os dígitos nas posições do DV são
+     *            ignorados.
+     * @return os mesmos dígitos com o DV calculado.
+     */
+    static long completaDVs(long digitos) {
+        return DV1_CHECKER.completaDV(digitos, QUANTIDADE_DE_DIGITOS);
     }
+
 }
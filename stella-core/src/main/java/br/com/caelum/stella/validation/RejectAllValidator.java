@@ -33,6 +33,18 @@ public class RejectAllValidator<T> implements Validator<T> {
         return invalidMessages;
     }
 
+    public boolean isValid(T object) {
+        return invalidValues.isEmpty();
+    }
+
+    public int errorsFor(T object) {
+        int result = 0;
+        for (InvalidValue invalidValue : this.invalidValues) {
+            result |= BaseValidator.maskOf(invalidValue);
+        }
+        return result;
+    }
+
     public boolean isEligible(T object) {
         return true;
     }
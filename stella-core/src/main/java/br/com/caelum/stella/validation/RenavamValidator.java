@@ -1,12 +1,8 @@
 package br.com.caelum.stella.validation;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
-import br.com.caelum.stella.format.RenavamFormatter;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.error.RenavamError;
 
 /**
@@ -23,9 +19,8 @@ import br.com.caelum.stella.validation.error.RenavamError;
  * 
  * @author Rafael Carvalho
  */
-public class RenavamValidator implements Validator<String> {
+public class RenavamValidator extends MascaraValidator<RenavamError> {
 
-    private final BaseValidator baseValidator;
     private static final Integer fator = 0;
     private static final Integer mod = 11;
     private static final Integer[] pesos = { 9, 8, 7, 6, 5, 4, 3, 2 };
@@ -35,7 +30,9 @@ public class RenavamValidator implements Validator<String> {
             pesos,
             posicaoDoDigitoVerificador);
     private static final ValidadorDeDV validatorDeDigitoVerificador = new ValidadorDeDV(digitoVerificadorInfo);
-    private final boolean isFormatted;
+    public static final Mascara MASCARA_FORMATADA = new Mascara("##.######-#");
+    public static final Mascara MASCARA_SEM_FORMATO = new Mascara("#########");
+    private static final int QUANTIDADE_DE_DIGITOS = 9;
 
     /**
      * Construtor padrão de validador do Renavam. Este considera, por padrão,
@@ -55,8 +52,7 @@ public class RenavamValidator implements Validator<String> {
      *            formatada
      */
     public RenavamValidator(boolean isFormatted) {
-        this.isFormatted = isFormatted;
-        this.baseValidator = new BaseValidator();
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     /**
@@ -71,64 +67,42 @@ public class RenavamValidator implements Validator<String> {
      *            formatada
      */
     public RenavamValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.isFormatted = isFormatted;
-        this.baseValidator = new BaseValidator(messageProducer);
-    }
-
-    public void assertValid(String renavam) {
-        baseValidator.assertValid(getInvalidValues(renavam));
-    }
-
-    private boolean isCheckDigitValid(String renavam) {
-        return validatorDeDigitoVerificador.isDVValid(unformat(renavam));
-    }
-
-    public List<ValidationMessage> invalidMessagesFor(String renavam) {
-        return baseValidator.generateValidationMessages(getInvalidValues(renavam));
+        this(messageProducer, isFormatted, true);
     }
 
     /**
-     * Valida se a cadeia está de acordo com as regras de validação do Renavam.
-     * 
-     * @see br.com.caelum.stella.validation.Validator#assertValid(java.lang.Object)
-     * 
-     * @param renavam
-     *            Cadeia de caracteres representando o Renavam a ser validado
-     * @return Uma lista de {@linkplain InvalidValue} com os erros encontrados
-     *         ou uma lista vazia, caso não haja nenhum erro.
+     * @param messageProducer
+     *            produtor de mensagem de erro.
+     * @param isFormatted
+     *            Informa se a cadeia de caracteres a ser validada está ou não
+     *            formatada
+     * @param isStackTraceEnabled
+     *            <code>false</code> para rejeitar valores com
+     *            {@link InvalidStateException} sem a pilha de execução e com
+     *            as mensagens já geradas para os mesmos erros.
      */
-    private List<InvalidValue> getInvalidValues(String renavam) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        if (!isEligible(renavam)) {
-            errors.add(RenavamError.INVALID_DIGITS);
-        } else if (!isCheckDigitValid(renavam)) {
-            errors.add(RenavamError.INVALID_CHECK_DIGIT);
-        }
-        return errors;
+    public RenavamValidator(MessageProducer messageProducer, boolean isFormatted, boolean isStackTraceEnabled) {
+        super(new BaseValidator(messageProducer, isStackTraceEnabled), isFormatted, MASCARA_FORMATADA,
+                MASCARA_SEM_FORMATO, RenavamError.INVALID_DIGITS, RenavamError.INVALID_DIGITS);
     }
 
-    public boolean isEligible(String renavam) {
-        boolean isEligible;
-        if (isFormatted) {
-            isEligible = RenavamFormatter.FORMATTED.matcher(renavam).matches();
-        } else {
-            isEligible = RenavamFormatter.UNFORMATTED.matcher(renavam).matches();
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!validatorDeDigitoVerificador.isDVValid(digitos, QUANTIDADE_DE_DIGITOS)) {
+            errors |= BaseValidator.maskOf(RenavamError.INVALID_CHECK_DIGIT);
         }
-        return isEligible;
+        return errors;
     }
 
     /**
-     * Remove a formatação da cadeia
-     * 
-     * @param renavam
-     *            Cadeia de caracteres representando o Renavam
-     * @return O renvam informado, sem formatação.
+     * @param digitos
+     *            dígitos do documento; os dígitos nas posições do DV são
+     *            ignorados.
+     * @return os mesmos dígitos com o DV calculado.
      */
-    private String unformat(String renavam) {
-        String result = renavam;
-        if (isFormatted) {
-            result = new RenavamFormatter().unformat(renavam);
-        }
-        return result;
+    static long completaDVs(long digitos) {
+        return validatorDeDigitoVerificador.completaDV(digitos, QUANTIDADE_DE_DIGITOS);
     }
+
 }
@@ -1,13 +1,13 @@
 package br.com.caelum.stella.validation;
 
 /**
- * Essa rotina é utilizada para se obter o dígito verificador de CPF, CNPJ e
- * RENAVAM.
+ * Essa rotina é utilizada para se obter o dígito verificador de CPF, CNPJ,
+ * NIT, Título Eleitoral e RENAVAM.
  * 
  * @author leonardobessa
  * 
  */
-class RotinaComumDeDigitoVerificador implements RotinaDeDigitoVerificador {
+class RotinaComumDeDigitoVerificador implements RotinaPrimitivaDeDigitoVerificador {
 
     public Integer transform(RotinaParameters parameter) {
         Integer mod = parameter.getDigitoVerificadorInfo().getMod();
@@ -19,4 +19,9 @@ class RotinaComumDeDigitoVerificador implements RotinaDeDigitoVerificador {
         }
         return result;
     }
-}
\ No newline at end of file
+
+    public int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos) {
+        int result = resultado % info.getMod();
+        return result < 2 ? 0 : 11 - result;
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.caelum.stella.validation;
+
+/**
+ * <p>
+ * Rotina de dígito verificador que opera apenas sobre valores primitivos.
+ * </p>
+ * <p>
+ * Quando todas as rotinas de um {@link DigitoVerificadorInfo} implementam esta
+ * interface, o {@link ValidadorDeDV} calcula o dígito verificador sem criar
+ * nenhum objeto; caso contrário, utiliza
+ * {@link RotinaDeDigitoVerificador#transform(RotinaParameters)}.
+ * </p>
+ */
+public interface RotinaPrimitivaDeDigitoVerificador extends RotinaDeDigitoVerificador {
+
+    /**
+     * @param resultado
+     *            resultado da rotina anterior ou, para a primeira rotina, o
+     *            produto interno entre os pesos e os dígitos.
+     * @param info
+     *            informações do dígito verificador calculado.
+     * @param numero
+     *            valor numérico da cadeia de dígitos.
+     * @param quantidadeDeDigitos
+     *            quantidade de dígitos da cadeia, contando os zeros à esquerda.
+     * @return resultado da rotina.
+     */
+    int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos);
+
+}
@@ -0,0 +1,33 @@
+package br.com.caelum.stella.validation;
+
+/**
+ * Tipos de documento reconhecidos pelo {@link ClassificadorDeDocumentos}.
+ */
+public enum TipoDeDocumento {
+
+    /**
+     * Cadastro de Pessoa Física.
+     */
+    CPF,
+
+    /**
+     * Cadastro Nacional da Pessoa Jurídica.
+     */
+    CNPJ,
+
+    /**
+     * Número de Identificação do Trabalhador, ou PIS/PASEP.
+     */
+    NIT,
+
+    /**
+     * Título Eleitoral.
+     */
+    TITULO_ELEITORAL,
+
+    /**
+     * Cadeia que não tem o formato de nenhum dos documentos acima.
+     */
+    DESCONHECIDO
+
+}
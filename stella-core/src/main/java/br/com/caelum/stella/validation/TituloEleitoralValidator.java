@@ -1,13 +1,10 @@
 package br.com.caelum.stella.validation;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
-import br.com.caelum.stella.format.TituloEleitoralFormatter;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.error.TituloEleitoralError;
 
 /**
@@ -72,11 +69,7 @@ import br.com.caelum.stella.validation.error.TituloEleitoralError;
  * 
  * @author Leonardo Bessa
  */
-public class TituloEleitoralValidator implements Validator<String> {
-
-    private final BaseValidator baseValidator;
-    
-    private final boolean isFormatted;
+public class TituloEleitoralValidator extends MascaraValidator<TituloEleitoralError> {
 
     private static final int MOD = 11;
 
@@ -92,26 +85,19 @@ public class TituloEleitoralValidator implements Validator<String> {
 
     public static final Pattern UNFORMATED = Pattern.compile("(\\d{10})(\\d{2})");
 
-    private enum Rotina implements RotinaDeDigitoVerificador {
-        POS_PRODUTO_INTERNO {
-            public Integer transform(RotinaParameters parameter) {
-                Integer mod = parameter.getDigitoVerificadorInfo().getMod();
-                Integer result = parameter.getResult() % mod;
-                if (result < 2) {
-                    result = 0;
-                } else {
-                    result = 11 - result;
-                }
-                return result;
-            }
-        }
-    }
+    public static final Mascara MASCARA_FORMATADA = new Mascara("##########/##");
+
+    public static final Mascara MASCARA_SEM_FORMATO = new Mascara("############");
+
+    private static final int QUANTIDADE_DE_DIGITOS = 12;
 
     private static final DigitoVerificadorInfo DV1_INFO = new DigitoVerificadorInfo(0,
-            new Rotina[] { Rotina.POS_PRODUTO_INTERNO }, MOD, DV1_MULTIPLIERS, DV1_POSITION);
+            new RotinaDeDigitoVerificador[] { new RotinaComumDeDigitoVerificador() }, MOD, DV1_MULTIPLIERS,
+            DV1_POSITION);
 
     private static final DigitoVerificadorInfo DV2_INFO = new DigitoVerificadorInfo(0,
-            new Rotina[] { Rotina.POS_PRODUTO_INTERNO }, MOD, DV2_MULTIPLIERS, DV2_POSITION);
+            new RotinaDeDigitoVerificador[] { new RotinaComumDeDigitoVerificador() }, MOD, DV2_MULTIPLIERS,
+            DV2_POSITION);
 
     private static final ValidadorDeDV DV1_CHECKER = new ValidadorDeDV(DV1_INFO);
 
@@ -121,8 +107,7 @@ public class TituloEleitoralValidator implements Validator<String> {
      * Utiliza um {@linkplain SimpleMessageProducer} para geração de mensagens.
      */
     public TituloEleitoralValidator(boolean isFormatted) {
-        this.baseValidator = new BaseValidator();
-        this.isFormatted = isFormatted;
+        this(new SimpleMessageProducer(), isFormatted);
     }
     public TituloEleitoralValidator(){
     	this(false);
@@ -138,81 +123,61 @@ public class TituloEleitoralValidator implements Validator<String> {
      *            produtor de mensagem de erro.
      */
     public TituloEleitoralValidator(MessageProducer messageProducer,boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
+        this(messageProducer, isFormatted, true);
+    }
+
+    /**
+     * @param messageProducer
+     *            produtor de mensagem de erro.
+     * @param isFormatted
+     *            considera cadeia no formato "dddddddddd/dd" onde "d" é um
+     *            dígito decimal.
+     * @param isStackTraceEnabled
+     *            <code>false</code> para rejeitar valores com
+     *            {@link InvalidStateException} sem a pilha de execução e com
+     *            as mensagens já geradas para os mesmos erros.
+     */
+    public TituloEleitoralValidator(MessageProducer messageProducer, boolean isFormatted,
+            boolean isStackTraceEnabled) {
+        super(new BaseValidator(messageProducer, isStackTraceEnabled), isFormatted, MASCARA_FORMATADA,
+                MASCARA_SEM_FORMATO, TituloEleitoralError.INVALID_FORMAT, TituloEleitoralError.INVALID_DIGITS);
     }
     
     public TituloEleitoralValidator(MessageProducer messageProducer) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = false;
+        this(messageProducer, false);
     }
     
 
-    private List<InvalidValue> getInvalidValues(String tituloDeEleitor) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        errors.clear();
-        if (tituloDeEleitor != null) { 
-        	
-        	if (!isEligible(tituloDeEleitor)) {
-                 if (isFormatted) {
-                     errors.add(TituloEleitoralError.INVALID_FORMAT);
-                 } else {
-                     errors.add(TituloEleitoralError.INVALID_DIGITS);
-                 }
-        	}
-        	
-            else {
-                String unformated;
-                if(isFormatted){
-                	 TituloEleitoralFormatter formatter = new TituloEleitoralFormatter();
-                     unformated = formatter.unformat(tituloDeEleitor);
-                }
-                else {
-                    unformated = tituloDeEleitor;
-                }
-                if (!hasValidCheckDigits(unformated)) {
-                    errors.add(TituloEleitoralError.INVALID_CHECK_DIGITS);
-                }
-                if (hasCodigoDeEstadoInvalido(tituloDeEleitor)) {
-                    errors.add(TituloEleitoralError.INVALID_CODIGO_DE_ESTADO);
-                }
-            }
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(TituloEleitoralError.INVALID_CHECK_DIGITS);
+        }
+        if (hasCodigoDeEstadoInvalido(digitos)) {
+            errors |= BaseValidator.maskOf(TituloEleitoralError.INVALID_CODIGO_DE_ESTADO);
         }
         return errors;
     }
 
-    private boolean hasCodigoDeEstadoInvalido(String tituloDeEleitor) {
-        final int length = tituloDeEleitor.length();
-        int codigo;
-        if(isFormatted){
-        	codigo = Integer.parseInt(tituloDeEleitor.substring(length - 5, length - 3));
-        }
-        else{
-        	codigo= Integer.parseInt(tituloDeEleitor.substring(length - 4, length - 2));
-        }
+    static boolean hasCodigoDeEstadoInvalido(long tituloDeEleitor) {
+        long codigo = (tituloDeEleitor / 100) % 100;
         return !(codigo >= 01 && codigo <= 28);
     }
 
-    private boolean hasValidCheckDigits(String value) {
-        return (DV1_CHECKER.isDVValid(value)) && (DV2_CHECKER.isDVValid(value));
-    }
-
-    public boolean isEligible(String value) {
-    	 boolean result;
-         if (isFormatted) {
-             result = FORMATED.matcher(value).matches();
-         } else {
-             result = UNFORMATED.matcher(value).matches();
-         }
-         return result;
-    }
-
-    public void assertValid(String tituloDeEleitor) {
-        baseValidator.assertValid(getInvalidValues(tituloDeEleitor));
+    static boolean hasValidCheckDigits(long value) {
+        return (DV1_CHECKER.isDVValid(value, QUANTIDADE_DE_DIGITOS))
+                && (DV2_CHECKER.isDVValid(value, QUANTIDADE_DE_DIGITOS));
     }
 
-    public List<ValidationMessage> invalidMessagesFor(String tituloDeEleitor) {
-        return baseValidator.generateValidationMessages(getInvalidValues(tituloDeEleitor));
+    /**
+     * @param digitos
+     *            dígitos do documento; os dígitos nas posições dos DVs são
+     *            ignorados.
+     * @return os mesmos dígitos com os DVs calculados.
+     */
+    static long completaDVs(long digitos) {
+        return DV2_CHECKER.completaDV(DV1_CHECKER.completaDV(digitos, QUANTIDADE_DE_DIGITOS), QUANTIDADE_DE_DIGITOS);
     }
 
 }
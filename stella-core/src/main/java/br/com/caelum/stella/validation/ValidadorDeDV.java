@@ -1,18 +1,205 @@
 package br.com.caelum.stella.validation;
 
 /**
+ * <p>
+ * Verifica um dígito verificador descrito por um {@link DigitoVerificadorInfo}.
+ * </p>
+ * <p>
+ * Os dígitos são lidos diretamente da cadeia, sem criação de objetos, desde
+ * que todas as rotinas sejam {@link RotinaPrimitivaDeDigitoVerificador}.
+ * Rotinas que não sejam primitivas são executadas através de
+ * {@link RotinaParameters}.
+ * </p>
+ * 
  * @author Leonardo Bessa
  */
 public class ValidadorDeDV {
 
+    /**
+     * Quantidade máxima de dígitos representável em um <code>long</code>.
+     */
+    private static final int MAXIMO_DE_DIGITOS = 18;
+
+    /**
+     * Valor devolvido por {@link #completaDV(long, int)} quando nenhum dígito
+     * satisfaz a regra do DV.
+     */
+    public static final long SEM_DV = -1L;
+
     private final DigitoVerificadorInfo info;
 
+    private final int[] pesos;
+
+    private final int posicaoDoDv;
+
+    private final RotinaPrimitivaDeDigitoVerificador[] rotinas;
+
     public ValidadorDeDV(DigitoVerificadorInfo info) {
         this.info = info;
+        this.pesos = info.getPesosPrimitivos();
+        this.posicaoDoDv = info.getPosicaoDoDv();
+        this.rotinas = rotinasPrimitivas(info.getRotinas());
+    }
+
+    private static RotinaPrimitivaDeDigitoVerificador[] rotinasPrimitivas(RotinaDeDigitoVerificador[] rotinas) {
+        RotinaPrimitivaDeDigitoVerificador[] result = new RotinaPrimitivaDeDigitoVerificador[rotinas.length];
+        for (int i = 0; i < rotinas.length; i++) {
+            if (!(rotinas[i] instanceof RotinaPrimitivaDeDigitoVerificador)) {
+                return null;
+            }
+            result[i] = (RotinaPrimitivaDeDigitoVerificador) rotinas[i];
+        }
+        return result;
     }
 
     public boolean isDVValid(String digitos) {
-        Integer dvCandidate = Integer.parseInt(digitos.substring(info.getPosicaoDoDv() - 1, info.getPosicaoDoDv()));
+        return isDVValid((CharSequence) digitos);
+    }
+
+    /**
+     * @param digitos
+     *            cadeia contendo apenas dígitos decimais.
+     * @return <code>true</code> se o dígito na posição do DV é o esperado.
+     */
+    public boolean isDVValid(CharSequence digitos) {
+        return isDVValid(digitos, digitos.length());
+    }
+
+    /**
+     * Verifica o DV da cadeia como se ela tivesse zeros à esquerda até
+     * completar a quantidade de dígitos informada.
+     * 
+     * @param digitos
+     *            cadeia contendo apenas dígitos decimais.
+     * @param quantidadeDeDigitos
+     *            quantidade de dígitos considerada, incluindo os zeros à
+     *            esquerda que não estão na cadeia.
+     * @return <code>true</code> se o dígito na posição do DV é o esperado.
+     */
+    public boolean isDVValid(CharSequence digitos, int quantidadeDeDigitos) {
+        int length = digitos.length();
+        if (length > quantidadeDeDigitos) {
+            throw new IllegalArgumentException("Cadeia possui mais do que " + quantidadeDeDigitos + " dígitos.");
+        }
+        long numero = 0;
+        boolean isPrimitivo = rotinas != null && quantidadeDeDigitos <= MAXIMO_DE_DIGITOS
+                && quantidadeDeDigitos >= pesos.length && quantidadeDeDigitos >= posicaoDoDv;
+        for (int i = 0; isPrimitivo && i < length; i++) {
+            int digito = digitos.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                isPrimitivo = false;
+            }
+            numero = numero * 10 + digito;
+        }
+        if (isPrimitivo) {
+            return isDVValid(numero, quantidadeDeDigitos);
+        }
+        return isDVValidPorRotinaParameters(zerosAEsquerda(digitos, quantidadeDeDigitos - length));
+    }
+
+    /**
+     * @param numero
+     *            valor numérico da cadeia de dígitos.
+     * @param quantidadeDeDigitos
+     *            quantidade de dígitos da cadeia, contando os zeros à esquerda.
+     * @return <code>true</code> se o dígito na posição do DV é o esperado.
+     */
+    public boolean isDVValid(long numero, int quantidadeDeDigitos) {
+        if (rotinas == null) {
+            String digitos = Long.toString(numero);
+            return isDVValidPorRotinaParameters(zerosAEsquerda(digitos, quantidadeDeDigitos - digitos.length()));
+        }
+        int produtoInterno = 0;
+        int dvCandidate = 0;
+        long resto = numero;
+        for (int i = quantidadeDeDigitos - 1; i >= 0; i--) {
+            int digito = (int) (resto % 10);
+            resto /= 10;
+            if (i < pesos.length) {
+                produtoInterno += pesos[i] * digito;
+            }
+            if (i == posicaoDoDv - 1) {
+                dvCandidate = digito;
+            }
+        }
+        int result = produtoInterno;
+        for (RotinaPrimitivaDeDigitoVerificador rotina : rotinas) {
+            result = rotina.transform(result, info, numero, quantidadeDeDigitos);
+        }
+        return result == dvCandidate;
+    }
+
+    /**
+     * Calcula o DV, ignorando o dígito que está atualmente em sua posição.
+     * 
+     * @param numero
+     *            valor numérico da cadeia de dígitos; não pode ser negativo.
+     * @param quantidadeDeDigitos
+     *            quantidade de dígitos da cadeia, contando os zeros à esquerda.
+     * @return o dígito esperado na posição do DV; ou um valor fora do
+     *         intervalo de <code>0</code> a <code>9</code>, caso nenhum dígito
+     *         satisfaça a regra.
+     */
+    public int calculaDV(long numero, int quantidadeDeDigitos) {
+        long potencia = potenciaDaPosicaoDoDv(quantidadeDeDigitos);
+        long semDv = numero - (numero / potencia % 10) * potencia;
+        if (rotinas == null) {
+            String digitos = Long.toString(semDv);
+            return generateDV(zerosAEsquerda(digitos, quantidadeDeDigitos - digitos.length()));
+        }
+        int produtoInterno = 0;
+        long resto = semDv;
+        for (int i = quantidadeDeDigitos - 1; i >= 0; i--) {
+            if (i < pesos.length) {
+                produtoInterno += pesos[i] * (int) (resto % 10);
+            }
+            resto /= 10;
+        }
+        int result = produtoInterno;
+        for (RotinaPrimitivaDeDigitoVerificador rotina : rotinas) {
+            result = rotina.transform(result, info, semDv, quantidadeDeDigitos);
+        }
+        return result;
+    }
+
+    /**
+     * Substitui o dígito na posição do DV pelo DV calculado.
+     * 
+     * @param numero
+     *            valor numérico da cadeia de dígitos; não pode ser negativo.
+     * @param quantidadeDeDigitos
+     *            quantidade de dígitos da cadeia, contando os zeros à esquerda.
+     * @return o número com o DV em sua posição, ou {@link #SEM_DV} caso
+     *         nenhum dígito satisfaça a regra.
+     * @see #calculaDV(long, int)
+     */
+    public long completaDV(long numero, int quantidadeDeDigitos) {
+        int dv = calculaDV(numero, quantidadeDeDigitos);
+        if (dv < 0 || dv > 9) {
+            return SEM_DV;
+        }
+        long potencia = potenciaDaPosicaoDoDv(quantidadeDeDigitos);
+        return numero + (dv - numero / potencia % 10) * potencia;
+    }
+
+    private long potenciaDaPosicaoDoDv(int quantidadeDeDigitos) {
+        long result = 1;
+        for (int i = posicaoDoDv; i < quantidadeDeDigitos; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+
+    private String zerosAEsquerda(CharSequence digitos, int quantidadeDeZeros) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < quantidadeDeZeros; i++) {
+            result.append('0');
+        }
+        return result.append(digitos).toString();
+    }
+
+    private boolean isDVValidPorRotinaParameters(String digitos) {
+        Integer dvCandidate = Integer.parseInt(digitos.substring(posicaoDoDv - 1, posicaoDoDv));
         return this.generateDV(digitos).equals(dvCandidate);
     }
 
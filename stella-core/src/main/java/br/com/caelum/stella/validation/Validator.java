@@ -14,6 +14,9 @@ import br.com.caelum.stella.ValidationMessage;
  * {@link #assertValid(Object))} valida o objeto e lança uma exception no caso
  * inválido.
  * 
+ * {@link #isValid(Object)} e {@link #errorsFor(Object)} validam o objeto sem
+ * lançar exceptions nem gerar mensagens.
+ * 
  * </p>
  * 
  * @author Fabio Kung
@@ -35,6 +38,24 @@ public interface Validator<T> {
      */
     List<ValidationMessage> invalidMessagesFor(T object);
 
+    /**
+     * @param object
+     *            objeto que se deseja validar
+     * @return <code>true</code> se o objeto é válido, sem gerar mensagens de
+     *         validação
+     */
+    boolean isValid(T object);
+
+    /**
+     * @param object
+     *            objeto que se deseja validar
+     * @return máscara de bits dos erros de validação, com o bit do ordinal de
+     *         cada erro encontrado ligado, ou <code>0</code> se o objeto é
+     *         válido
+     * @see BaseValidator#maskOf(InvalidValue)
+     */
+    int errorsFor(T object);
+
     /**
      * @param object
      *            objeto que se deseja avaliar
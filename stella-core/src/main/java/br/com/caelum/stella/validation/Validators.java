@@ -0,0 +1,129 @@
+package br.com.caelum.stella.validation;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.ie.IEValidatorRegistry;
+
+/**
+ * <p>
+ * Validadores compartilhados de todos os documentos, em todos os modos, que
+ * utilizam um {@linkplain SimpleMessageProducer} para geração de mensagens.
+ * Obter um validador não cria objetos.
+ * </p>
+ * <p>
+ * Os validadores são imutáveis: guardam seu estado em campos
+ * <code>final</code>, são construídos uma única vez, na inicialização desta
+ * classe, e publicados através de campos <code>static final</code>. O cache
+ * de mensagens do {@link BaseValidator} é uma estrutura concorrente. Podem,
+ * portanto, ser usados por qualquer quantidade de threads, sem sincronização,
+ * em vez de construir um validador a cada uso.
+ * </p>
+ * 
+ * @see IEValidatorRegistry
+ */
+public final class Validators {
+
+    private static final CPFValidator CPF_FORMATADO = new CPFValidator(true);
+
+    private static final CPFValidator CPF_SEM_FORMATO = new CPFValidator(false);
+
+    private static final CPFValidator CPF_FORMATADO_SEM_DIGITOS_REPETIDOS = new CPFValidator(
+            new SimpleMessageProducer(), true, false);
+
+    private static final CPFValidator CPF_SEM_FORMATO_SEM_DIGITOS_REPETIDOS = new CPFValidator(
+            new SimpleMessageProducer(), false, false);
+
+    private static final CNPJValidator CNPJ_FORMATADO = new CNPJValidator(true);
+
+    private static final CNPJValidator CNPJ_SEM_FORMATO = new CNPJValidator(false);
+
+    private static final NITValidator NIT_FORMATADO = new NITValidator(true);
+
+    private static final NITValidator NIT_SEM_FORMATO = new NITValidator(false);
+
+    private static final TituloEleitoralValidator TITULO_FORMATADO = new TituloEleitoralValidator(true);
+
+    private static final TituloEleitoralValidator TITULO_SEM_FORMATO = new TituloEleitoralValidator(false);
+
+    private static final RenavamValidator RENAVAM_FORMATADO = new RenavamValidator(true);
+
+    private static final RenavamValidator RENAVAM_SEM_FORMATO = new RenavamValidator(false);
+
+    private Validators() {
+    }
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return validador de CPF compartilhado que aceita CPFs com todos os
+     *         dígitos repetidos, como {@link CPFValidator#CPFValidator(boolean)}.
+     */
+    public static CPFValidator cpf(boolean isFormatted) {
+        return isFormatted ? CPF_FORMATADO : CPF_SEM_FORMATO;
+    }
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @param isIgnoringRepeatedDigits
+     *            aceitar CPFs com todos os dígitos repetidos quando
+     *            <code>true</code>
+     * @return validador de CPF compartilhado.
+     */
+    public static CPFValidator cpf(boolean isFormatted, boolean isIgnoringRepeatedDigits) {
+        if (isIgnoringRepeatedDigits) {
+            return cpf(isFormatted);
+        }
+        return isFormatted ? CPF_FORMATADO_SEM_DIGITOS_REPETIDOS : CPF_SEM_FORMATO_SEM_DIGITOS_REPETIDOS;
+    }
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return validador de CNPJ compartilhado.
+     */
+    public static CNPJValidator cnpj(boolean isFormatted) {
+        return isFormatted ? CNPJ_FORMATADO : CNPJ_SEM_FORMATO;
+    }
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return validador de NIT compartilhado.
+     */
+    public static NITValidator nit(boolean isFormatted) {
+        return isFormatted ? NIT_FORMATADO : NIT_SEM_FORMATO;
+    }
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return validador de Título Eleitoral compartilhado.
+     */
+    public static TituloEleitoralValidator tituloEleitoral(boolean isFormatted) {
+        return isFormatted ? TITULO_FORMATADO : TITULO_SEM_FORMATO;
+    }
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return validador de Renavam compartilhado.
+     */
+    public static RenavamValidator renavam(boolean isFormatted) {
+        return isFormatted ? RENAVAM_FORMATADO : RENAVAM_SEM_FORMATO;
+    }
+
+    /**
+     * @param estado
+     *            estado da Inscrição Estadual.
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return validador de Inscrição Estadual compartilhado, do
+     *         {@linkplain IEValidatorRegistry#getInstance(boolean) registro
+     *         compartilhado}.
+     */
+    public static Validator<String> ie(Estado estado, boolean isFormatted) {
+        return IEValidatorRegistry.getInstance(isFormatted).getValidator(estado);
+    }
+
+}
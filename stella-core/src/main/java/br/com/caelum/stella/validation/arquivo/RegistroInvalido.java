@@ -0,0 +1,76 @@
+package br.com.caelum.stella.validation.arquivo;
+
+import br.com.caelum.stella.validation.BaseValidator;
+
+/**
+ * Registro de um arquivo que não passou na validação.
+ * 
+ * @see ValidadorDeArquivo
+ */
+public final class RegistroInvalido {
+
+    private final long linha;
+
+    private final long posicao;
+
+    private final int erros;
+
+    /**
+     * @param linha
+     *            número da linha do registro, a partir de 1.
+     * @param posicao
+     *            posição, em bytes, do início do registro no arquivo.
+     * @param erros
+     *            máscara de bits dos erros de validação do registro.
+     */
+    public RegistroInvalido(long linha, long posicao, int erros) {
+        this.linha = linha;
+        this.posicao = posicao;
+        this.erros = erros;
+    }
+
+    /**
+     * @return número da linha do registro, a partir de 1.
+     */
+    public long getLinha() {
+        return linha;
+    }
+
+    /**
+     * @return posição, em bytes, do início do registro no arquivo.
+     */
+    public long getPosicao() {
+        return posicao;
+    }
+
+    /**
+     * @return máscara de bits dos erros de validação do registro.
+     * @see BaseValidator#invalidValuesOf(int, Class)
+     */
+    public int getErros() {
+        return erros;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RegistroInvalido)) {
+            return false;
+        }
+        RegistroInvalido other = (RegistroInvalido) obj;
+        return linha == other.linha && posicao == other.posicao && erros == other.erros;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (linha ^ (linha >>> 32)) * 31 + erros;
+    }
+
+    @Override
+    public String toString() {
+        return "linha " + linha + " (byte " + posicao + "): erros " + erros;
+    }
+
+}
@@ -0,0 +1,66 @@
+package br.com.caelum.stella.validation.arquivo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Visão de um trecho de um {@link ByteBuffer} com texto ASCII como
+ * {@link CharSequence}, sem cópia dos bytes. Uma mesma instância é
+ * reposicionada a cada registro lido.
+ */
+final class TrechoDeArquivo implements CharSequence {
+
+    private final ByteBuffer buffer;
+
+    private int inicio;
+
+    private int fim;
+
+    TrechoDeArquivo(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    private TrechoDeArquivo(ByteBuffer buffer, int inicio, int fim) {
+        this.buffer = buffer;
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    /**
+     * @param inicio
+     *            posição do primeiro byte do trecho no buffer.
+     * @param fim
+     *            posição seguinte ao último byte do trecho no buffer.
+     */
+    void posiciona(int inicio, int fim) {
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    public int length() {
+        return fim - inicio;
+    }
+
+    public char charAt(int index) {
+        if (index < 0 || index >= fim - inicio) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return (char) (buffer.get(inicio + index) & 0xFF);
+    }
+
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > fim - inicio || start > end) {
+            throw new IndexOutOfBoundsException(start + ", " + end);
+        }
+        return new TrechoDeArquivo(buffer, inicio + start, inicio + end);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[fim - inicio];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (buffer.get(inicio + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,359 @@
+package br.com.caelum.stella.validation.arquivo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.BaseValidator;
+import br.com.caelum.stella.validation.BatchValidator;
+import br.com.caelum.stella.validation.error.IEError;
+import br.com.caelum.stella.validation.ie.IEValidatorRegistry;
+
+/**
+ * <p>
+ * Valida em paralelo os registros de um arquivo texto, um registro por linha.
+ * O arquivo é mapeado em memória e dividido em blocos que terminam em fim de
+ * linha; cada bloco é validado por uma tarefa de um {@link ExecutorService},
+ * sem a criação de uma {@link String} por linha.
+ * </p>
+ * <p>
+ * Os blocos têm todos o mesmo tamanho e não são subdivididos, então um
+ * {@link ExecutorService} de tamanho fixo basta para distribuí-los; o
+ * fork/join, que só existe a partir do Java 7, serviria para dividir tarefas
+ * de tamanho desigual, o que não ocorre aqui. Quem já tiver um executor pode
+ * informá-lo em {@link #valida(File, ExecutorService)}.
+ * </p>
+ * <p>
+ * Os estados com dois formatos de inscrição também são validados sem cópia
+ * do registro, pelos métodos de {@link BatchValidator}.
+ * </p>
+ * <p>
+ * O arquivo deve estar em ASCII (ou ISO-8859-1), com linhas terminadas em
+ * <code>\n</code> ou <code>\r\n</code>. Linhas vazias são ignoradas, mas
+ * contadas na numeração das linhas.
+ * </p>
+ * <p>
+ * Instâncias são imutáveis e podem validar vários arquivos ao mesmo tempo.
+ * </p>
+ */
+public final class ValidadorDeArquivo {
+
+    /**
+     * Tamanho padrão, em bytes, dos blocos validados por cada tarefa.
+     */
+    public static final int TAMANHO_PADRAO_DO_BLOCO = 16 * 1024 * 1024;
+
+    private static final int TAMANHO_DA_BUSCA = 8 * 1024;
+
+    private static final int ESTADO_INDEFINIDO = BaseValidator.maskOf(IEError.UNDEFINED_STATE);
+
+    private static final Estado[] ESTADOS_POR_SIGLA = new Estado[26 * 26];
+
+    static {
+        for (Estado estado : Estado.values()) {
+            String sigla = estado.name();
+            ESTADOS_POR_SIGLA[(sigla.charAt(0) - 'A') * 26 + sigla.charAt(1) - 'A'] = estado;
+        }
+    }
+
+    private final Layout layout;
+
+    private final int tamanhoDoBloco;
+
+    /**
+     * Valida arquivos com um documento por linha.
+     * 
+     * @param validator
+     *            validador dos documentos, por exemplo um
+     *            {@link br.com.caelum.stella.validation.CPFValidator}.
+     */
+    public ValidadorDeArquivo(BatchValidator validator) {
+        this(new DocumentoPorLinha(validator), TAMANHO_PADRAO_DO_BLOCO);
+    }
+
+    private ValidadorDeArquivo(Layout layout, int tamanhoDoBloco) {
+        if (tamanhoDoBloco <= 0) {
+            throw new IllegalArgumentException("Tamanho do bloco deve ser positivo: " + tamanhoDoBloco);
+        }
+        this.layout = layout;
+        this.tamanhoDoBloco = tamanhoDoBloco;
+    }
+
+    /**
+     * Valida arquivos CSV de pares <code>UF,IE</code> (ou <code>UF;IE</code>),
+     * nos quais a sigla do estado indica o validador da inscrição estadual.
+     * Registros sem sigla de estado conhecida são reportados com
+     * {@link IEError#UNDEFINED_STATE}.
+     * 
+     * @param isFormatted
+     *            considerar as inscrições formatadas quando <code>true</code>
+     * @return validador dos arquivos de inscrições estaduais.
+     */
+    public static ValidadorDeArquivo deInscricoesEstaduais(boolean isFormatted) {
+        IEValidatorRegistry registry = IEValidatorRegistry.getInstance(isFormatted);
+        BatchValidator[] validators = new BatchValidator[Estado.values().length];
+        for (Estado estado : Estado.values()) {
+            validators[estado.ordinal()] = (BatchValidator) registry.getValidator(estado);
+        }
+        return new ValidadorDeArquivo(new InscricaoEstadualPorLinha(validators), TAMANHO_PADRAO_DO_BLOCO);
+    }
+
+    /**
+     * @param tamanhoDoBloco
+     *            tamanho aproximado, em bytes, dos blocos validados por cada
+     *            tarefa.
+     * @return um validador igual a este, com o tamanho de bloco informado.
+     */
+    public ValidadorDeArquivo comTamanhoDoBloco(int tamanhoDoBloco) {
+        return new ValidadorDeArquivo(layout, tamanhoDoBloco);
+    }
+
+    /**
+     * Valida o arquivo usando uma thread por processador disponível.
+     * 
+     * @param arquivo
+     *            arquivo a ser validado.
+     * @return registros inválidos, na ordem em que aparecem no arquivo.
+     * @throws IOException
+     *             caso o arquivo não possa ser lido.
+     */
+    public List<RegistroInvalido> valida(File arquivo) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            return valida(arquivo, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param arquivo
+     *            arquivo a ser validado.
+     * @param executor
+     *            executor das tarefas de validação de cada bloco.
+     * @return registros inválidos, na ordem em que aparecem no arquivo.
+     * @throws IOException
+     *             caso o arquivo não possa ser lido.
+     */
+    public List<RegistroInvalido> valida(File arquivo, ExecutorService executor) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(arquivo, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            long[] inicios = iniciosDosBlocos(channel);
+            List<Future<Bloco>> tarefas = new ArrayList<Future<Bloco>>();
+            for (int i = 0; i < inicios.length - 1; i++) {
+                tarefas.add(executor.submit(new Bloco(layout, channel, inicios[i], inicios[i + 1])));
+            }
+            return juntaResultados(tarefas);
+        } finally {
+            file.close();
+        }
+    }
+
+    private long[] iniciosDosBlocos(FileChannel channel) throws IOException {
+        long tamanho = channel.size();
+        List<Long> inicios = new ArrayList<Long>();
+        inicios.add(0L);
+        long anterior = 0;
+        for (long nominal = tamanhoDoBloco; nominal < tamanho; nominal += tamanhoDoBloco) {
+            long inicio = inicioDaProximaLinha(channel, Math.max(nominal, anterior + 1), tamanho);
+            if (inicio < tamanho && inicio > anterior) {
+                inicios.add(inicio);
+                anterior = inicio;
+            }
+        }
+        inicios.add(tamanho);
+        long[] result = new long[inicios.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = inicios.get(i);
+        }
+        return result;
+    }
+
+    private long inicioDaProximaLinha(FileChannel channel, long posicao, long tamanho) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_DA_BUSCA);
+        long atual = posicao - 1;
+        while (atual < tamanho) {
+            buffer.clear();
+            int lidos = channel.read(buffer, atual);
+            if (lidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < lidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return atual + i + 1;
+                }
+            }
+            atual += lidos;
+        }
+        return tamanho;
+    }
+
+    private List<RegistroInvalido> juntaResultados(List<Future<Bloco>> tarefas) throws IOException {
+        List<RegistroInvalido> result = new ArrayList<RegistroInvalido>();
+        long linhasAnteriores = 0;
+        try {
+            for (Future<Bloco> tarefa : tarefas) {
+                Bloco bloco = tarefa.get();
+                for (RegistroInvalido registro : bloco.invalidos) {
+                    result.add(new RegistroInvalido(linhasAnteriores + registro.getLinha(), registro.getPosicao(),
+                            registro.getErros()));
+                }
+                linhasAnteriores += bloco.linhas;
+            }
+        } catch (InterruptedException e) {
+            cancela(tarefas);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Validação do arquivo interrompida.");
+        } catch (ExecutionException e) {
+            cancela(tarefas);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Falha na validação do arquivo.", cause);
+        }
+        return result;
+    }
+
+    private static void cancela(List<Future<Bloco>> tarefas) {
+        for (Future<Bloco> tarefa : tarefas) {
+            tarefa.cancel(true);
+        }
+    }
+
+    /**
+     * Forma dos registros de cada linha.
+     */
+    private interface Layout {
+
+        /**
+         * @param buffer
+         *            bloco do arquivo.
+         * @param inicio
+         *            posição do primeiro byte do registro no bloco.
+         * @param fim
+         *            posição seguinte ao último byte do registro no bloco.
+         * @param trecho
+         *            trecho reutilizável sobre o bloco.
+         * @return máscara de bits dos erros de validação do registro.
+         */
+        int errorsFor(ByteBuffer buffer, int inicio, int fim, TrechoDeArquivo trecho);
+
+    }
+
+    private static final class DocumentoPorLinha implements Layout {
+
+        private final BatchValidator validator;
+
+        DocumentoPorLinha(BatchValidator validator) {
+            this.validator = validator;
+        }
+
+        public int errorsFor(ByteBuffer buffer, int inicio, int fim, TrechoDeArquivo trecho) {
+            trecho.posiciona(inicio, fim);
+            return validator.errorsFor(trecho);
+        }
+
+    }
+
+    private static final class InscricaoEstadualPorLinha implements Layout {
+
+        private final BatchValidator[] validators;
+
+        InscricaoEstadualPorLinha(BatchValidator[] validators) {
+            this.validators = validators;
+        }
+
+        public int errorsFor(ByteBuffer buffer, int inicio, int fim, TrechoDeArquivo trecho) {
+            int result = ESTADO_INDEFINIDO;
+            if (fim - inicio > 2) {
+                byte separador = buffer.get(inicio + 2);
+                if (separador == ',' || separador == ';') {
+                    int primeira = buffer.get(inicio) - 'A';
+                    int segunda = buffer.get(inicio + 1) - 'A';
+                    if (primeira >= 0 && primeira < 26 && segunda >= 0 && segunda < 26) {
+                        Estado estado = ESTADOS_POR_SIGLA[primeira * 26 + segunda];
+                        if (estado != null) {
+                            trecho.posiciona(inicio + 3, fim);
+                            result = validators[estado.ordinal()].errorsFor(trecho);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Tarefa de validação de um bloco do arquivo. Ao terminar, guarda a
+     * quantidade de linhas do bloco e seus registros inválidos, numerados a
+     * partir do início do bloco.
+     */
+    private static final class Bloco implements Callable<Bloco> {
+
+        private final Layout layout;
+
+        private final FileChannel channel;
+
+        private final long inicio;
+
+        private final long fim;
+
+        private final List<RegistroInvalido> invalidos = new ArrayList<RegistroInvalido>();
+
+        private long linhas;
+
+        Bloco(Layout layout, FileChannel channel, long inicio, long fim) {
+            this.layout = layout;
+            this.channel = channel;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        public Bloco call() throws IOException {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio);
+            TrechoDeArquivo trecho = new TrechoDeArquivo(buffer);
+            int tamanho = buffer.limit();
+            int inicioDaLinha = 0;
+            while (inicioDaLinha < tamanho) {
+                int fimDaLinha = inicioDaLinha;
+                while (fimDaLinha < tamanho && buffer.get(fimDaLinha) != '\n') {
+                    fimDaLinha++;
+                }
+                int fimDoRegistro = fimDaLinha;
+                if (fimDoRegistro > inicioDaLinha && buffer.get(fimDoRegistro - 1) == '\r') {
+                    fimDoRegistro--;
+                }
+                linhas++;
+                if (fimDoRegistro > inicioDaLinha) {
+                    int erros = layout.errorsFor(buffer, inicioDaLinha, fimDoRegistro, trecho);
+                    if (erros != 0) {
+                        invalidos.add(new RegistroInvalido(linhas, inicio + inicioDaLinha, erros));
+                    }
+                }
+                inicioDaLinha = fimDaLinha + 1;
+            }
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package br.com.caelum.stella.validation.ie;
+
+import java.util.BitSet;
+
+import br.com.caelum.stella.format.Mascara;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.DigitosVerificadores;
+import br.com.caelum.stella.validation.ValidadorDeDV;
+
+/**
+ * <p>
+ * Calcula os dígitos verificadores de Inscrições Estaduais, com as mesmas
+ * regras ({@link IEConstraints}) usadas pelos validadores de cada estado.
+ * </p>
+ * <p>
+ * A inscrição é informada em um buffer de caracteres, formatada ou não, com
+ * um dígito qualquer na posição de cada DV, e seus DVs são escritos no próprio
+ * buffer. Os demais caracteres não são alterados, de modo que a inscrição
+ * mantém sua formatação. Nenhum método aloca objetos, exceto para lançar
+ * exceções.
+ * </p>
+ * 
+ * @see DigitosVerificadores
+ */
+public final class DigitosVerificadoresDeIE {
+
+    private DigitosVerificadoresDeIE() {
+    }
+
+    /**
+     * @param estado
+     *            estado da inscrição.
+     * @param buffer
+     *            buffer que contém a inscrição, com um dígito qualquer na
+     *            posição de cada DV.
+     * @param inicio
+     *            posição do primeiro caractere da inscrição no buffer.
+     * @param tamanho
+     *            quantidade de caracteres da inscrição.
+     * @return <code>true</code> se os DVs foram escritos no buffer;
+     *         <code>false</code>, sem alterar o buffer, caso a inscrição não
+     *         tenha nenhum dos formatos do estado ou não exista inscrição
+     *         válida com os demais dígitos.
+     * @throws IndexOutOfBoundsException
+     *             caso o trecho não esteja contido no buffer.
+     */
+    public static boolean completa(Estado estado, char[] buffer, int inicio, int tamanho) {
+        for (FormatoDeIE formato : FormatoDeIE.de(estado)) {
+            if (completa(formato, formato.mascara(false), buffer, inicio, tamanho)
+                    || completa(formato, formato.mascara(true), buffer, inicio, tamanho)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param estado
+     *            estado da inscrição.
+     * @param ie
+     *            a inscrição, com um dígito qualquer na posição de cada DV.
+     * @return <code>true</code> se os DVs foram escritos no array;
+     *         <code>false</code>, sem alterar o array, caso contrário.
+     * @see #completa(Estado, char[], int, int)
+     */
+    public static boolean completa(Estado estado, char[] ie) {
+        return completa(estado, ie, 0, ie.length);
+    }
+
+    /**
+     * @param estado
+     *            estado de todas as inscrições.
+     * @param ies
+     *            as inscrições, cada uma com um dígito qualquer na posição de
+     *            cada DV; os DVs são escritos nos próprios arrays.
+     * @param completadasOut
+     *            recebe o bit de cada posição ligado se os DVs da inscrição
+     *            correspondente foram escritos, e desligado caso contrário.
+     */
+    public static void completaTodas(Estado estado, char[][] ies, BitSet completadasOut) {
+        for (int i = 0; i < ies.length; i++) {
+            completadasOut.set(i, completa(estado, ies[i]));
+        }
+    }
+
+    private static boolean completa(FormatoDeIE formato, Mascara mascara, char[] buffer, int inicio, int tamanho) {
+        long digitos = mascara.digitos(buffer, inicio, tamanho);
+        if (digitos == Mascara.INVALIDA) {
+            return false;
+        }
+        long completos = formato.completaDVs(digitos);
+        return completos != ValidadorDeDV.SEM_DV && mascara.substituiDigitos(buffer, inicio, tamanho, completos);
+    }
+
+}
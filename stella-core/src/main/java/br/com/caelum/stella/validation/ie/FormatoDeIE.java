@@ -0,0 +1,375 @@
+package br.com.caelum.stella.validation.ie;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.caelum.stella.MessageProducer;
+import br.com.caelum.stella.format.Mascara;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.MascaraValidator;
+import br.com.caelum.stella.validation.ValidadorDeDV;
+import br.com.caelum.stella.validation.error.IEError;
+
+/**
+ * Cada formato de Inscrição Estadual validado por um dos validadores deste
+ * pacote, com suas máscaras, seu validador e o cálculo de seus dígitos
+ * verificadores, que usa as mesmas regras do validador.
+ */
+enum FormatoDeIE {
+
+    AC(Estado.AC, IEAcreValidator.MASCARA_SEM_FORMATO, IEAcreValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEAcreValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEAcreValidator.completaDVs(digitos);
+        }
+    },
+    AL(Estado.AL, IEAlagoasValidator.MASCARA_SEM_FORMATO, IEAlagoasValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEAlagoasValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEAlagoasValidator.completaDVs(digitos);
+        }
+    },
+    AP(Estado.AP, IEAmapaValidator.MASCARA_SEM_FORMATO, IEAmapaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEAmapaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEAmapaValidator.completaDVs(digitos);
+        }
+    },
+    AM(Estado.AM, IEAmazonasValidator.MASCARA_SEM_FORMATO, IEAmazonasValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEAmazonasValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEAmazonasValidator.completaDVs(digitos);
+        }
+    },
+    BA(Estado.BA, IEBahiaValidator.MASCARA_SEM_FORMATO, IEBahiaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEBahiaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEBahiaValidator.completaDVs(digitos);
+        }
+    },
+    CE(Estado.CE, IECearaValidator.MASCARA_SEM_FORMATO, IECearaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IECearaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IECearaValidator.completaDVs(digitos);
+        }
+    },
+    DF(Estado.DF, IEDistritoFederalValidator.MASCARA_SEM_FORMATO, IEDistritoFederalValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEDistritoFederalValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEDistritoFederalValidator.completaDVs(digitos);
+        }
+    },
+    ES(Estado.ES, IEEspiritoSantoValidator.MASCARA_SEM_FORMATO, IEEspiritoSantoValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEEspiritoSantoValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEEspiritoSantoValidator.completaDVs(digitos);
+        }
+    },
+    GO(Estado.GO, IEGoiasValidator.MASCARA_SEM_FORMATO, IEGoiasValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEGoiasValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEGoiasValidator.completaDVs(digitos);
+        }
+    },
+    MA(Estado.MA, IEMaranhaoValidator.MASCARA_SEM_FORMATO, IEMaranhaoValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEMaranhaoValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEMaranhaoValidator.completaDVs(digitos);
+        }
+    },
+    MT(Estado.MT, IEMatoGrossoValidator.MASCARA_SEM_FORMATO, IEMatoGrossoValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEMatoGrossoValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEMatoGrossoValidator.completaDVs(digitos);
+        }
+    },
+    MS(Estado.MS, IEMatoGrossoDoSulValidator.MASCARA_SEM_FORMATO, IEMatoGrossoDoSulValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEMatoGrossoDoSulValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEMatoGrossoDoSulValidator.completaDVs(digitos);
+        }
+    },
+    MG(Estado.MG, IEMinasGeraisValidator.MASCARA_SEM_FORMATO, IEMinasGeraisValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEMinasGeraisValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEMinasGeraisValidator.completaDVs(digitos);
+        }
+    },
+    PA(Estado.PA, IEParaValidator.MASCARA_SEM_FORMATO, IEParaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEParaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEParaValidator.completaDVs(digitos);
+        }
+    },
+    PB(Estado.PB, IEParaibaValidator.MASCARA_SEM_FORMATO, IEParaibaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEParaibaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEParaibaValidator.completaDVs(digitos);
+        }
+    },
+    PR(Estado.PR, IEParanaValidator.MASCARA_SEM_FORMATO, IEParanaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEParanaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEParanaValidator.completaDVs(digitos);
+        }
+    },
+    PE_NOVA(Estado.PE, IEPernambucoNovaValidator.MASCARA_SEM_FORMATO,
+            IEPernambucoNovaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEPernambucoNovaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEPernambucoNovaValidator.completaDVs(digitos);
+        }
+    },
+    PE_ANTIGA(Estado.PE, IEPernambucoAntigaValidator.MASCARA_SEM_FORMATO,
+            IEPernambucoAntigaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEPernambucoAntigaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEPernambucoAntigaValidator.completaDVs(digitos);
+        }
+    },
+    PI(Estado.PI, IEPiauiValidator.MASCARA_SEM_FORMATO, IEPiauiValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IEPiauiValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IEPiauiValidator.completaDVs(digitos);
+        }
+    },
+    RJ(Estado.RJ, IERioDeJaneiroValidator.MASCARA_SEM_FORMATO, IERioDeJaneiroValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IERioDeJaneiroValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IERioDeJaneiroValidator.completaDVs(digitos);
+        }
+    },
+    RN(Estado.RN, IERioGrandeDoNorteValidator.MASCARA_SEM_FORMATO, IERioGrandeDoNorteValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IERioGrandeDoNorteValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IERioGrandeDoNorteValidator.completaDVs(digitos);
+        }
+    },
+    RS(Estado.RS, IERioGrandeDoSulValidator.MASCARA_SEM_FORMATO, IERioGrandeDoSulValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IERioGrandeDoSulValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IERioGrandeDoSulValidator.completaDVs(digitos);
+        }
+    },
+    RO_CASO_UM(Estado.RO, IERondoniaCasoUmValidator.MASCARA_SEM_FORMATO,
+            IERondoniaCasoUmValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IERondoniaCasoUmValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IERondoniaCasoUmValidator.completaDVs(digitos);
+        }
+    },
+    RO_CASO_DOIS(Estado.RO, IERondoniaCasoDoisValidator.MASCARA_SEM_FORMATO,
+            IERondoniaCasoDoisValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IERondoniaCasoDoisValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IERondoniaCasoDoisValidator.completaDVs(digitos);
+        }
+    },
+    RR(Estado.RR, IERoraimaValidator.MASCARA_SEM_FORMATO, IERoraimaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IERoraimaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IERoraimaValidator.completaDVs(digitos);
+        }
+    },
+    SC(Estado.SC, IESantaCatarinaValidator.MASCARA_SEM_FORMATO, IESantaCatarinaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IESantaCatarinaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IESantaCatarinaValidator.completaDVs(digitos);
+        }
+    },
+    SP_COMERCIO_INDUSTRIA(Estado.SP,
+            IESaoPauloComercioIndustriaValidator.MASCARA_SEM_FORMATO,
+            IESaoPauloComercioIndustriaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IESaoPauloComercioIndustriaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IESaoPauloComercioIndustriaValidator.completaDVs(digitos);
+        }
+    },
+    SP_PRODUTOR_RURAL(Estado.SP, IESaoPauloProdutorRuralValidator.MASCARA_SEM_FORMATO,
+            IESaoPauloProdutorRuralValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IESaoPauloProdutorRuralValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IESaoPauloProdutorRuralValidator.completaDVs(digitos);
+        }
+    },
+    SE(Estado.SE, IESergipeValidator.MASCARA_SEM_FORMATO, IESergipeValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IESergipeValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IESergipeValidator.completaDVs(digitos);
+        }
+    },
+    TO_NOVA(Estado.TO, IETocantinsNovaValidator.MASCARA_SEM_FORMATO, IETocantinsNovaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IETocantinsNovaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IETocantinsNovaValidator.completaDVs(digitos);
+        }
+    },
+    TO_ANTIGA(Estado.TO, IETocantinsAntigaValidator.MASCARA_SEM_FORMATO,
+            IETocantinsAntigaValidator.MASCARA_FORMATADA) {
+        MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted) {
+            return new IETocantinsAntigaValidator(messageProducer, isFormatted);
+        }
+
+        long completaDVs(long digitos) {
+            return IETocantinsAntigaValidator.completaDVs(digitos);
+        }
+    };
+
+    private static final Map<Estado, FormatoDeIE[]> POR_ESTADO = new EnumMap<Estado, FormatoDeIE[]>(Estado.class);
+
+    static {
+        for (Estado estado : Estado.values()) {
+            List<FormatoDeIE> formatos = new ArrayList<FormatoDeIE>();
+            for (FormatoDeIE formato : values()) {
+                if (formato.estado == estado) {
+                    formatos.add(formato);
+                }
+            }
+            POR_ESTADO.put(estado, formatos.toArray(new FormatoDeIE[formatos.size()]));
+        }
+    }
+
+    private final Estado estado;
+
+    private final Mascara mascaraSemFormato;
+
+    private final Mascara mascaraFormatada;
+
+    private FormatoDeIE(Estado estado, Mascara mascaraSemFormato, Mascara mascaraFormatada) {
+        this.estado = estado;
+        this.mascaraSemFormato = mascaraSemFormato;
+        this.mascaraFormatada = mascaraFormatada;
+    }
+
+    /**
+     * @return formatos aceitos pelo estado; o array é compartilhado e não deve
+     *         ser alterado.
+     */
+    static FormatoDeIE[] de(Estado estado) {
+        return POR_ESTADO.get(estado);
+    }
+
+    Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * As máscaras formatada e sem formato têm as mesmas alternativas, na mesma
+     * ordem, e os mesmos dígitos em cada alternativa.
+     */
+    Mascara mascara(boolean isFormatted) {
+        return isFormatted ? mascaraFormatada : mascaraSemFormato;
+    }
+
+    /**
+     * @param messageProducer
+     *            produtor das mensagens de validação.
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return novo validador deste formato.
+     */
+    abstract MascaraValidator<IEError> validador(MessageProducer messageProducer, boolean isFormatted);
+
+    /**
+     * @param digitos
+     *            dígitos da inscrição, sem formatação; os dígitos nas posições
+     *            dos DVs são ignorados.
+     * @return os mesmos dígitos com os DVs calculados, ou
+     *         {@link ValidadorDeDV#SEM_DV} caso não exista inscrição válida
+     *         com os demais dígitos.
+     */
+    abstract long completaDVs(long digitos);
+
+}
@@ -0,0 +1,122 @@
+package br.com.caelum.stella.validation.ie;
+
+import br.com.caelum.stella.format.Mascara;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.Defeito;
+import br.com.caelum.stella.validation.GeradorDeDocumentos;
+import br.com.caelum.stella.validation.ValidadorDeDV;
+
+/**
+ * <p>
+ * Gera Inscrições Estaduais de qualquer estado para testes de carga e de
+ * desempenho, válidas ou com o dígito verificador inválido.
+ * </p>
+ * <p>
+ * Cada inscrição é sorteada dentre os formatos aceitos pelos validadores do
+ * estado, e seus dígitos verificadores são calculados diretamente, com as
+ * mesmas regras dos validadores. A mesma semente produz sempre a mesma
+ * sequência de inscrições.
+ * </p>
+ * <p>
+ * Instâncias não são thread-safe e não usam sincronização: cada thread deve
+ * usar seu próprio gerador.
+ * </p>
+ * 
+ * @see GeradorDeDocumentos
+ */
+public final class GeradorDeIE {
+
+    /**
+     * Alguns poucos números não admitem dígito verificador, ou não são
+     * inscrições válidas por outros motivos, e são sorteados novamente.
+     */
+    private static final int MAXIMO_DE_TENTATIVAS = 1000;
+
+    private static final int MAXIMO_DE_DIGITOS = 18;
+
+    private long sequencia;
+
+    /**
+     * @param semente
+     *            semente do gerador; a mesma semente produz a mesma sequência
+     *            de inscrições.
+     */
+    public GeradorDeIE(long semente) {
+        this.sequencia = semente;
+    }
+
+    /**
+     * Utiliza uma semente diferente a cada construção.
+     */
+    public GeradorDeIE() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * @param estado
+     *            estado da inscrição.
+     * @param defeito
+     *            {@link Defeito#NENHUM} ou {@link Defeito#DV_INVALIDO}.
+     * @param isFormatted
+     *            gerar a inscrição formatada quando <code>true</code>
+     * @return a inscrição gerada.
+     * @throws IllegalArgumentException
+     *             caso o defeito não se aplique a Inscrição Estadual.
+     */
+    public String gera(Estado estado, Defeito defeito, boolean isFormatted) {
+        if (defeito != Defeito.NENHUM && defeito != Defeito.DV_INVALIDO) {
+            throw new IllegalArgumentException("Defeito " + defeito + " não se aplica a Inscrição Estadual");
+        }
+        FormatoDeIE[] formatos = FormatoDeIE.de(estado);
+        for (int tentativa = 0; tentativa < MAXIMO_DE_TENTATIVAS; tentativa++) {
+            FormatoDeIE formato = formatos[(int) sorteia(formatos.length)];
+            Mascara mascara = formato.mascara(false);
+            int alternativa = (int) sorteia(mascara.getQuantidadeDeAlternativas());
+            long digitos = formato.completaDVs(mascara.sorteia(proximo(), alternativa));
+            if (digitos != ValidadorDeDV.SEM_DV) {
+                if (defeito == Defeito.DV_INVALIDO) {
+                    digitos = alteraDV(formato, digitos);
+                }
+                return formato.mascara(isFormatted).formata(digitos, alternativa);
+            }
+        }
+        throw new IllegalStateException("Nenhuma inscrição válida gerada para " + estado);
+    }
+
+    /**
+     * Troca o dígito verificador mais à direita por outro. Os dígitos
+     * verificadores são encontrados pelo cálculo: alterar um deles não muda os
+     * dígitos calculados a partir dos demais.
+     */
+    private long alteraDV(FormatoDeIE formato, long digitos) {
+        long potencia = 1;
+        for (int i = 0; i < MAXIMO_DE_DIGITOS; i++) {
+            long digito = digitos / potencia % 10;
+            long alterado = digitos + ((digito + 1 + sorteia(9)) % 10 - digito) * potencia;
+            if (formato.completaDVs(alterado) == digitos) {
+                return alterado;
+            }
+            potencia *= 10;
+        }
+        throw new IllegalStateException("Nenhum dígito verificador em " + digitos);
+    }
+
+    /**
+     * @return número entre <code>0</code>, inclusive, e o limite, exclusive.
+     */
+    private long sorteia(long limite) {
+        return (proximo() >>> 1) % limite;
+    }
+
+    /**
+     * SplitMix64: uma soma e duas multiplicações por número gerado.
+     */
+    private long proximo() {
+        sequencia += 0x9E3779B97F4A7C15L;
+        long result = sequencia;
+        result = (result ^ (result >>> 30)) * 0xBF58476D1CE4E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+        return result ^ (result >>> 31);
+    }
+
+}
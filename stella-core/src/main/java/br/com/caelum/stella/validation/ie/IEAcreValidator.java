@@ -1,18 +1,15 @@
 package br.com.caelum.stella.validation.ie;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.BaseValidator;
 import br.com.caelum.stella.validation.DigitoVerificadorInfo;
-import br.com.caelum.stella.validation.InvalidValue;
+import br.com.caelum.stella.validation.MascaraValidator;
 import br.com.caelum.stella.validation.RotinaDeDigitoVerificador;
 import br.com.caelum.stella.validation.ValidadorDeDV;
-import br.com.caelum.stella.validation.Validator;
 import br.com.caelum.stella.validation.error.IEError;
 
 /**
@@ -27,9 +24,7 @@ import br.com.caelum.stella.validation.error.IEError;
  * @author Leonardo Bessa
  * 
  */
-public class IEAcreValidator implements Validator<String> {
-
-    private final BaseValidator baseValidator;
+public class IEAcreValidator extends MascaraValidator<IEError> {
 
     private static final int MOD = 11;
 
@@ -53,8 +48,6 @@ public class IEAcreValidator implements Validator<String> {
 
     private static final ValidadorDeDV DVY_CHECKER = new ValidadorDeDV(DVY_INFO);
 
-    private final boolean isFormatted;
-
     /*
      * FORMAÇÃO: 01.NNN.NNN/TTT-DD, sendo:
      * 
@@ -72,6 +65,10 @@ public class IEAcreValidator implements Validator<String> {
 
     public static final Pattern UNFORMATED = Pattern.compile("(01)(\\d{3})(\\d{3})(\\d{3})(\\d{2})");
 
+    static final Mascara MASCARA_FORMATADA = new Mascara("01.###.###/###-##");
+
+    static final Mascara MASCARA_SEM_FORMATO = new Mascara("01###########");
+
     /**
      * Este considera, por padrão, que as cadeias estão formatadas e utiliza um
      * {@linkplain SimpleMessageProducer} para geração de mensagens.
@@ -88,66 +85,43 @@ public class IEAcreValidator implements Validator<String> {
      *            considerar cadeia formatada quando <code>true</code>
      */
     public IEAcreValidator(boolean isFormatted) {
-        this.isFormatted = isFormatted;
-        this.baseValidator = new BaseValidator();
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     public IEAcreValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
+        super(new BaseValidator(messageProducer), isFormatted, MASCARA_FORMATADA, MASCARA_SEM_FORMATO,
+                IEError.INVALID_FORMAT, IEError.INVALID_DIGITS);
     }
 
-    private List<InvalidValue> getInvalidValues(String IE) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        errors.clear();
-        if (IE != null) {
-            String unformatedIE = checkForCorrectFormat(IE, errors);
-            if (errors.isEmpty()) {
-                if (!hasValidCheckDigits(unformatedIE)) {
-                    errors.add(IEError.INVALID_CHECK_DIGITS);
-                }
-            }
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS);
         }
         return errors;
     }
 
-    private String checkForCorrectFormat(String ie, List<InvalidValue> errors) {
-        String unformatedIE = null;
-        if (isFormatted) {
-            if (!(FORMATED.matcher(ie).matches())) {
-                errors.add(IEError.INVALID_FORMAT);
-            }
-            unformatedIE = ie.replaceAll("\\D", "");
-        } else {
-            if (!UNFORMATED.matcher(ie).matches()) {
-                errors.add(IEError.INVALID_DIGITS);
-            }
-            unformatedIE = ie;
-        }
-        return unformatedIE;
-    }
-
-    private boolean hasValidCheckDigits(String value) {
-        String testedValue = IEConstraints.PRE_VALIDATION_FORMATTER.format(value);
-        return DVX_CHECKER.isDVValid(testedValue) && DVY_CHECKER.isDVValid(testedValue);
+    private boolean hasValidCheckDigits(long value) {
+        return DVX_CHECKER.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH)
+                && DVY_CHECKER.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH);
     }
 
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = FORMATED.matcher(value).matches();
-        } else {
-            result = UNFORMATED.matcher(value).matches();
+    /**
+     * @param digitos
+     *            dígitos da inscrição, sem formatação; os dígitos nas posições
+     *            dos DVs são ignorados.
+     * @return os mesmos dígitos com os DVs calculados, ou
+     *         {@link ValidadorDeDV#SEM_DV} caso não exista inscrição válida
+     *         com os demais dígitos.
+     */
+    static long completaDVs(long digitos) {
+        // o DVX, na última posição, depende do DVY
+        long result = DVY_CHECKER.completaDV(digitos, IEConstraints.PRE_VALIDATION_LENGTH);
+        if (result != ValidadorDeDV.SEM_DV) {
+            result = DVX_CHECKER.completaDV(result, IEConstraints.PRE_VALIDATION_LENGTH);
         }
         return result;
     }
 
-    public void assertValid(String IE) {
-        baseValidator.assertValid(getInvalidValues(IE));
-    }
-
-    public List<ValidationMessage> invalidMessagesFor(String IE) {
-        return baseValidator.generateValidationMessages(getInvalidValues(IE));
-    }
-
 }
@@ -1,18 +1,15 @@
 package br.com.caelum.stella.validation.ie;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.BaseValidator;
 import br.com.caelum.stella.validation.DigitoVerificadorInfo;
-import br.com.caelum.stella.validation.InvalidValue;
+import br.com.caelum.stella.validation.MascaraValidator;
 import br.com.caelum.stella.validation.RotinaDeDigitoVerificador;
 import br.com.caelum.stella.validation.ValidadorDeDV;
-import br.com.caelum.stella.validation.Validator;
 import br.com.caelum.stella.validation.error.IEError;
 
 /**
@@ -27,7 +24,7 @@ import br.com.caelum.stella.validation.error.IEError;
  * @author Leonardo Bessa
  * 
  */
-public class IEAlagoasValidator implements Validator<String> {
+public class IEAlagoasValidator extends MascaraValidator<IEError> {
 
     private static final int MOD = 11;
 
@@ -43,8 +40,6 @@ public class IEAlagoasValidator implements Validator<String> {
 
     private static final ValidadorDeDV DVX_CHECKER = new ValidadorDeDV(DVX_INFO);
 
-    private final boolean isFormatted;
-
     /*
      * FORMAÇÃO: 24XNNNNND, sendo:
      * 
@@ -65,6 +60,10 @@ public class IEAlagoasValidator implements Validator<String> {
 
     public static final Pattern UNFORMATED = Pattern.compile("([2][4])(\\d{3})(\\d{3})(\\d{1})");
 
+    static final Mascara MASCARA_FORMATADA = new Mascara("24.###.###-#");
+
+    static final Mascara MASCARA_SEM_FORMATO = new Mascara("24#######");
+
     /**
      * Este considera, por padrão, que as cadeias estão formatadas e utiliza um
      * {@linkplain SimpleMessageProducer} para geração de mensagens.
@@ -81,68 +80,37 @@ public class IEAlagoasValidator implements Validator<String> {
      *            considerar cadeia formatada quando <code>true</code>
      */
     public IEAlagoasValidator(boolean isFormatted) {
-        this.baseValidator = new BaseValidator();
-        this.isFormatted = isFormatted;
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     public IEAlagoasValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
+        super(new BaseValidator(messageProducer), isFormatted, MASCARA_FORMATADA, MASCARA_SEM_FORMATO,
+                IEError.INVALID_FORMAT, IEError.INVALID_DIGITS);
     }
 
-    private List<InvalidValue> getInvalidValues(String IE) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        errors.clear();
-        if (IE != null) {
-            String unformatedIE = checkForCorrectFormat(IE, errors);
-            if (errors.isEmpty()) {
-                if (!hasValidCheckDigits(unformatedIE)) {
-                    errors.add(IEError.INVALID_CHECK_DIGITS);
-                }
-            }
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS);
         }
         return errors;
     }
 
-    private String checkForCorrectFormat(String ie, List<InvalidValue> errors) {
-        String unformatedIE = null;
-        if (isFormatted) {
-            if (!(FORMATED.matcher(ie).matches())) {
-                errors.add(IEError.INVALID_FORMAT);
-            }
-            unformatedIE = ie.replaceAll("\\D", "");
-        } else {
-            if (!UNFORMATED.matcher(ie).matches()) {
-                errors.add(IEError.INVALID_DIGITS);
-            }
-            unformatedIE = ie;
-        }
-        return unformatedIE;
-    }
-
-    private boolean hasValidCheckDigits(String value) {
-        String testedValue = IEConstraints.PRE_VALIDATION_FORMATTER.format(value);
-        return DVX_CHECKER.isDVValid(testedValue);
-    }
-
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = FORMATED.matcher(value).matches();
-        } else {
-            result = UNFORMATED.matcher(value).matches();
-        }
-        return result;
+    private boolean hasValidCheckDigits(long value) {
+        return DVX_CHECKER.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH);
     }
 
-    private final BaseValidator baseValidator;
-
-    public void assertValid(String cpf) {
-        baseValidator.assertValid(getInvalidValues(cpf));
-    }
-
-    public List<ValidationMessage> invalidMessagesFor(String cpf) {
-        return baseValidator.generateValidationMessages(getInvalidValues(cpf));
+    /**
+     * @param digitos
+     *            dígitos da inscrição, sem formatação; o dígito na posição do
+     *            DV é ignorado.
+     * @return os mesmos dígitos com o DV calculado, ou
+     *         {@link ValidadorDeDV#SEM_DV} caso não exista inscrição válida
+     *         com os demais dígitos.
+     */
+    static long completaDVs(long digitos) {
+        return DVX_CHECKER.completaDV(digitos, IEConstraints.PRE_VALIDATION_LENGTH);
     }
 
 }
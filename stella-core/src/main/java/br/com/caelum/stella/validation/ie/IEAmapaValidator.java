@@ -1,18 +1,15 @@
 package br.com.caelum.stella.validation.ie;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.BaseValidator;
 import br.com.caelum.stella.validation.DigitoVerificadorInfo;
-import br.com.caelum.stella.validation.InvalidValue;
+import br.com.caelum.stella.validation.MascaraValidator;
 import br.com.caelum.stella.validation.RotinaDeDigitoVerificador;
 import br.com.caelum.stella.validation.ValidadorDeDV;
-import br.com.caelum.stella.validation.Validator;
 import br.com.caelum.stella.validation.error.IEError;
 
 /**
@@ -27,7 +24,7 @@ import br.com.caelum.stella.validation.error.IEError;
  * @author Leonardo Bessa
  * 
  */
-public class IEAmapaValidator implements Validator<String> {
+public class IEAmapaValidator extends MascaraValidator<IEError> {
 
     private static final int MOD = 11;
 
@@ -58,12 +55,14 @@ public class IEAmapaValidator implements Validator<String> {
 
     private static final ValidadorDeDV DVX_CHECKER_CASO3 = new ValidadorDeDV(DVX_INFO_CASO3);
 
-    private final boolean isFormatted;
-
     public static final Pattern FORMATED = Pattern.compile("(03)[.](\\d{3})[.](\\d{3})[-](\\d{1})");
 
     public static final Pattern UNFORMATED = Pattern.compile("(03)(\\d{3})(\\d{3})(\\d{1})");
 
+    static final Mascara MASCARA_FORMATADA = new Mascara("03.###.###-#");
+
+    static final Mascara MASCARA_SEM_FORMATO = new Mascara("03#######");
+
     /**
      * Este considera, por padrão, que as cadeias estão formatadas e utiliza um
      * {@linkplain SimpleMessageProducer} para geração de mensagens.
@@ -80,48 +79,45 @@ public class IEAmapaValidator implements Validator<String> {
      *            considerar cadeia formatada quando <code>true</code>
      */
     public IEAmapaValidator(boolean isFormatted) {
-        this.baseValidator = new BaseValidator();
-        this.isFormatted = isFormatted;
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     public IEAmapaValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
+        super(new BaseValidator(messageProducer), isFormatted, MASCARA_FORMATADA, MASCARA_SEM_FORMATO,
+                IEError.INVALID_FORMAT, IEError.INVALID_DIGITS);
     }
 
-    private List<InvalidValue> getInvalidValues(String IE) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        errors.clear();
-        if (IE != null) {
-            String unformatedIE = checkForCorrectFormat(IE, errors);
-            if (errors.isEmpty()) {
-                if (!hasValidCheckDigits(unformatedIE)) {
-                    errors.add(IEError.INVALID_CHECK_DIGITS);
-                }
-            }
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS);
         }
         return errors;
     }
 
-    private String checkForCorrectFormat(String ie, List<InvalidValue> errors) {
-        String unformatedIE = null;
-        if (isFormatted) {
-            if (!(FORMATED.matcher(ie).matches())) {
-                errors.add(IEError.INVALID_FORMAT);
-            }
-            unformatedIE = ie.replaceAll("\\D", "");
-        } else {
-            if (!UNFORMATED.matcher(ie).matches()) {
-                errors.add(IEError.INVALID_DIGITS);
-            }
-            unformatedIE = ie;
+    private boolean hasValidCheckDigits(long value) {
+        return validadorDeDVPara(value).isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH);
+    }
+
+    /**
+     * @param digitos
+     *            dígitos da inscrição, sem formatação; o dígito na posição do
+     *            DV é ignorado.
+     * @return os mesmos dígitos com o DV calculado, ou
+     *         {@link ValidadorDeDV#SEM_DV} caso não exista inscrição válida
+     *         com os demais dígitos.
+     */
+    static long completaDVs(long digitos) {
+        ValidadorDeDV validadorDeDV = validadorDeDVPara(digitos);
+        if (validadorDeDV == null) {
+            return ValidadorDeDV.SEM_DV;
         }
-        return unformatedIE;
+        return validadorDeDV.completaDV(digitos, IEConstraints.PRE_VALIDATION_LENGTH);
     }
 
-    private boolean hasValidCheckDigits(String value) {
-        int ie = Integer.parseInt(value) / 10;
-        boolean result;
+    private static ValidadorDeDV validadorDeDVPara(long value) {
+        long ie = value / 10;
         /*
          * http://www.sintegra.gov.br/Cad_Estados/cad_AP.html
          * 
@@ -131,7 +127,6 @@ public class IEAmapaValidator implements Validator<String> {
          * 
          * De 03019023X em diante => CASO 3
          */
-        String testedValue = IEConstraints.PRE_VALIDATION_FORMATTER.format(value);
         ValidadorDeDV validadorDeDV = null;
         if ((3000001 <= ie) && (ie <= 3017000)) {
             validadorDeDV = DVX_CHECKER_CASO1;
@@ -140,29 +135,7 @@ public class IEAmapaValidator implements Validator<String> {
         } else if (3019023 <= ie) {
             validadorDeDV = DVX_CHECKER_CASO3;
         }
-        result = validadorDeDV.isDVValid(testedValue);
-
-        return result;
-    }
-
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = FORMATED.matcher(value).matches();
-        } else {
-            result = UNFORMATED.matcher(value).matches();
-        }
-        return result;
-    }
-
-    private final BaseValidator baseValidator;
-
-    public void assertValid(String cpf) {
-        baseValidator.assertValid(getInvalidValues(cpf));
-    }
-
-    public List<ValidationMessage> invalidMessagesFor(String cpf) {
-        return baseValidator.generateValidationMessages(getInvalidValues(cpf));
+        return validadorDeDV;
     }
 
 }
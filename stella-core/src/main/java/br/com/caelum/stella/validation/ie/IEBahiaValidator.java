@@ -1,18 +1,15 @@
 package br.com.caelum.stella.validation.ie;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.BaseValidator;
 import br.com.caelum.stella.validation.DigitoVerificadorInfo;
-import br.com.caelum.stella.validation.InvalidValue;
+import br.com.caelum.stella.validation.MascaraValidator;
 import br.com.caelum.stella.validation.RotinaDeDigitoVerificador;
 import br.com.caelum.stella.validation.ValidadorDeDV;
-import br.com.caelum.stella.validation.Validator;
 import br.com.caelum.stella.validation.error.IEError;
 
 /**
@@ -27,7 +24,7 @@ import br.com.caelum.stella.validation.error.IEError;
  * @author Leonardo Bessa
  * 
  */
-public class IEBahiaValidator implements Validator<String> {
+public class IEBahiaValidator extends MascaraValidator<IEError> {
 
     private static final RotinaDeDigitoVerificador[] rotinas = { IEConstraints.Rotina.E, IEConstraints.Rotina.POS_IE };
 
@@ -59,8 +56,6 @@ public class IEBahiaValidator implements Validator<String> {
 
     private static final ValidadorDeDV DVY_CHECKER_MOD10 = new ValidadorDeDV(DVY_INFO_MOD10);
 
-    private final boolean isFormatted;
-
     /*
      * 612345-57
      * 
@@ -70,6 +65,10 @@ public class IEBahiaValidator implements Validator<String> {
 
     public static final Pattern UNFORMATED = Pattern.compile("(\\d{6})(\\d{2})");
 
+    static final Mascara MASCARA_FORMATADA = new Mascara("######-##");
+
+    static final Mascara MASCARA_SEM_FORMATO = new Mascara("########");
+
     /**
      * Este considera, por padrão, que as cadeias estão formatadas e utiliza um
      * {@linkplain SimpleMessageProducer} para geração de mensagens.
@@ -86,78 +85,59 @@ public class IEBahiaValidator implements Validator<String> {
      *            considerar cadeia formatada quando <code>true</code>
      */
     public IEBahiaValidator(boolean isFormatted) {
-        this.baseValidator = new BaseValidator();
-        this.isFormatted = isFormatted;
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     public IEBahiaValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
+        super(new BaseValidator(messageProducer), isFormatted, MASCARA_FORMATADA, MASCARA_SEM_FORMATO,
+                IEError.INVALID_FORMAT, IEError.INVALID_DIGITS);
     }
 
-    private List<InvalidValue> getInvalidValues(String IE) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        errors.clear();
-        if (IE != null) {
-            String unformatedIE = checkForCorrectFormat(IE, errors);
-            if (errors.isEmpty()) {
-                if (!hasValidCheckDigits(unformatedIE)) {
-                    errors.add(IEError.INVALID_CHECK_DIGITS);
-                }
-            }
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS);
         }
         return errors;
     }
 
-    private String checkForCorrectFormat(String ie, List<InvalidValue> errors) {
-        String unformatedIE = null;
-        if (isFormatted) {
-            if (!(FORMATED.matcher(ie).matches())) {
-                errors.add(IEError.INVALID_FORMAT);
-            }
-            unformatedIE = ie.replaceAll("\\D", "");
-        } else {
-            if (!UNFORMATED.matcher(ie).matches()) {
-                errors.add(IEError.INVALID_DIGITS);
-            }
-            unformatedIE = ie;
-        }
-        return unformatedIE;
-    }
-
-    private boolean hasValidCheckDigits(String value) {
-        String testedValue = IEConstraints.PRE_VALIDATION_FORMATTER.format(value);
+    private boolean hasValidCheckDigits(long value) {
         boolean result = false;
-        switch (value.charAt(0)) {
-        case '6':
-        case '7':
-        case '9':
-            result = DVX_CHECKER_MOD11.isDVValid(testedValue) && DVY_CHECKER_MOD11.isDVValid(testedValue);
+        switch ((int) (value / 10000000L)) {
+        case 6:
+        case 7:
+        case 9:
+            result = DVX_CHECKER_MOD11.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH)
+                    && DVY_CHECKER_MOD11.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH);
             break;
         default:
-            result = DVX_CHECKER_MOD10.isDVValid(testedValue) && DVY_CHECKER_MOD10.isDVValid(testedValue);
+            result = DVX_CHECKER_MOD10.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH)
+                    && DVY_CHECKER_MOD10.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH);
         }
         return result;
     }
 
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = FORMATED.matcher(value).matches();
-        } else {
-            result = UNFORMATED.matcher(value).matches();
+    /**
+     * @param digitos
+     *            dígitos da inscrição, sem formatação; os dígitos nas posições
+     *            dos DVs são ignorados.
+     * @return os mesmos dígitos com os DVs calculados, ou
+     *         {@link ValidadorDeDV#SEM_DV} caso não exista inscrição válida
+     *         com os demais dígitos.
+     */
+    static long completaDVs(long digitos) {
+        long result;
+        switch ((int) (digitos / 10000000L)) {
+        case 6:
+        case 7:
+        case 9:
+            result = DVX_CHECKER_MOD11.completaDV(digitos, IEConstraints.PRE_VALIDATION_LENGTH);
+            return DVY_CHECKER_MOD11.completaDV(result, IEConstraints.PRE_VALIDATION_LENGTH);
+        default:
+            result = DVX_CHECKER_MOD10.completaDV(digitos, IEConstraints.PRE_VALIDATION_LENGTH);
+            return DVY_CHECKER_MOD10.completaDV(result, IEConstraints.PRE_VALIDATION_LENGTH);
         }
-        return result;
-    }
-
-    private final BaseValidator baseValidator;
-
-    public void assertValid(String cpf) {
-        baseValidator.assertValid(getInvalidValues(cpf));
-    }
-
-    public List<ValidationMessage> invalidMessagesFor(String cpf) {
-        return baseValidator.generateValidationMessages(getInvalidValues(cpf));
     }
 
 }
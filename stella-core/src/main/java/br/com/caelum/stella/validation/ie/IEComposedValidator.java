@@ -0,0 +1,168 @@
+package br.com.caelum.stella.validation.ie;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import br.com.caelum.stella.MessageProducer;
+import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.validation.BaseValidator;
+import br.com.caelum.stella.validation.BatchValidator;
+import br.com.caelum.stella.validation.LogicOrComposedValidator;
+import br.com.caelum.stella.validation.MascaraValidator;
+import br.com.caelum.stella.validation.Validator;
+import br.com.caelum.stella.validation.error.IEError;
+
+/**
+ * <p>
+ * Validador dos estados com dois formatos de inscrição. Uma cadeia é válida
+ * se for válida para alguma das alternativas; caso contrário, seus erros são
+ * os da última alternativa cujo formato ela respeita, ou
+ * {@link IEError#INVALID_FORMAT} se não respeitar nenhum.
+ * </p>
+ * <p>
+ * Os métodos de {@link BatchValidator} percorrem a cadeia recebida
+ * diretamente, sem convertê-la em {@link String}.
+ * </p>
+ */
+abstract class IEComposedValidator implements Validator<String>, BatchValidator {
+
+    private static final int INVALID_FORMAT_ERRORS = BaseValidator.maskOf(IEError.INVALID_FORMAT);
+
+    private final LogicOrComposedValidator<String> baseValidator;
+
+    private final BatchValidator[] alternatives;
+
+    @SuppressWarnings("unchecked")
+    IEComposedValidator(MessageProducer messageProducer, MascaraValidator<IEError> first,
+            MascaraValidator<IEError> second) {
+        this.baseValidator = new LogicOrComposedValidator<String>(messageProducer, IEError.INVALID_FORMAT, first,
+                second);
+        this.alternatives = new BatchValidator[] { first, second };
+    }
+
+    /**
+     * Valida um lote de cadeias, sem gerar mensagens de validação.
+     * 
+     * @param values
+     *            cadeias a serem validadas.
+     * @param validOut
+     *            recebe o bit de cada posição ligado se a cadeia correspondente
+     *            é válida ou nula, e desligado caso contrário.
+     */
+    public void validateAll(CharSequence[] values, BitSet validOut) {
+        for (int i = 0; i < values.length; i++) {
+            validOut.set(i, isValid(values[i]));
+        }
+    }
+
+    /**
+     * Valida um lote de cadeias, sem gerar mensagens de validação.
+     * 
+     * @param values
+     *            cadeias a serem validadas.
+     * @param errorsOut
+     *            recebe, na posição de cada cadeia, a máscara de seus erros
+     *            (veja {@link #errorsFor(String)}); deve ter ao menos o
+     *            tamanho de <code>values</code>.
+     */
+    public void validateAll(CharSequence[] values, byte[] errorsOut) {
+        for (int i = 0; i < values.length; i++) {
+            errorsOut[i] = (byte) errorsFor(values[i]);
+        }
+    }
+
+    public void assertValid(String value) {
+        if (value != null) {
+            baseValidator.assertValid(value);
+        }
+    }
+
+    public List<ValidationMessage> invalidMessagesFor(String value) {
+        List<ValidationMessage> result;
+        if (value != null) {
+            result = baseValidator.invalidMessagesFor(value);
+        } else {
+            result = new ArrayList<ValidationMessage>();
+        }
+        return result;
+    }
+
+    public boolean isValid(String value) {
+        return errorsFor(value) == 0;
+    }
+
+    public int errorsFor(String value) {
+        return errorsFor((CharSequence) value);
+    }
+
+    public int errorsFor(CharSequence value) {
+        int result = 0;
+        if (value != null) {
+            result = INVALID_FORMAT_ERRORS;
+            for (BatchValidator alternative : alternatives) {
+                if (alternative.isEligible(value)) {
+                    result = alternative.errorsFor(value);
+                    if (result == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isValid(CharSequence value) {
+        if (value == null) {
+            return true;
+        }
+        for (BatchValidator alternative : alternatives) {
+            if (alternative.isValid(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isValid(char[] buffer, int offset, int length) {
+        for (BatchValidator alternative : alternatives) {
+            if (alternative.isValid(buffer, offset, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isValidAscii(byte[] buffer, int offset, int length) {
+        for (BatchValidator alternative : alternatives) {
+            if (alternative.isValidAscii(buffer, offset, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isValidAscii(ByteBuffer buffer) {
+        for (BatchValidator alternative : alternatives) {
+            if (alternative.isValidAscii(buffer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEligible(String object) {
+        return isEligible((CharSequence) object);
+    }
+
+    public boolean isEligible(CharSequence value) {
+        for (BatchValidator alternative : alternatives) {
+            if (alternative.isEligible(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
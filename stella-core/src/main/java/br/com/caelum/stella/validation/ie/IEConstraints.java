@@ -3,7 +3,7 @@ package br.com.caelum.stella.validation.ie;
 import br.com.caelum.stella.format.Formatter;
 import br.com.caelum.stella.format.LeftSideZerosFormatter;
 import br.com.caelum.stella.validation.DigitoVerificadorInfo;
-import br.com.caelum.stella.validation.RotinaDeDigitoVerificador;
+import br.com.caelum.stella.validation.RotinaPrimitivaDeDigitoVerificador;
 import br.com.caelum.stella.validation.RotinaParameters;
 
 /**
@@ -15,7 +15,13 @@ import br.com.caelum.stella.validation.RotinaParameters;
  */
 public class IEConstraints {
 
-    public static final Formatter PRE_VALIDATION_FORMATTER = new LeftSideZerosFormatter(14);
+    /**
+     * Quantidade de dígitos, completada com zeros à esquerda, sobre a qual os
+     * pesos abaixo são aplicados.
+     */
+    public static final int PRE_VALIDATION_LENGTH = 14;
+
+    public static final Formatter PRE_VALIDATION_FORMATTER = new LeftSideZerosFormatter(PRE_VALIDATION_LENGTH);
 
     public static final Integer[] P1 = { 6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2, 0 };
 
@@ -43,7 +49,7 @@ public class IEConstraints {
 
     public static final Integer[] P13 = { 0, 0, 3, 2, 10, 9, 8, 7, 6, 5, 4, 3, 2, 0 };
 
-    public enum Rotina implements RotinaDeDigitoVerificador {
+    public enum Rotina implements RotinaPrimitivaDeDigitoVerificador {
         A {
             public Integer transform(RotinaParameters parameter) {
                 DigitoVerificadorInfo info = parameter.getDigitoVerificadorInfo();
@@ -55,12 +61,30 @@ public class IEConstraints {
                 }
                 return result;
             }
+
+            public int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos) {
+                int[] pesos = info.getPesosPrimitivos();
+                int result = resultado;
+                long resto = numero;
+                for (int i = quantidadeDeDigitos - 1; i >= 0; i--) {
+                    int digito = (int) (resto % 10);
+                    resto /= 10;
+                    if (i < pesos.length) {
+                        result += (pesos[i] * digito) / 10;
+                    }
+                }
+                return result;
+            }
         },
         B {
 
             public Integer transform(RotinaParameters parameter) {
                 return 10 * parameter.getResult();
             }
+
+            public int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos) {
+                return 10 * resultado;
+            }
         },
         C {
             public Integer transform(RotinaParameters parameter) {
@@ -68,6 +92,10 @@ public class IEConstraints {
                 Integer x = parameter.getResult();
                 return x + (5 + 4 * info.getFator());
             }
+
+            public int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos) {
+                return resultado + (5 + 4 * info.getFator());
+            }
         },
         D {
             public Integer transform(RotinaParameters parameter) {
@@ -75,6 +103,10 @@ public class IEConstraints {
                 Integer x = parameter.getResult();
                 return x % info.getMod();
             }
+
+            public int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos) {
+                return resultado % info.getMod();
+            }
         },
         E {
             public Integer transform(RotinaParameters parameter) {
@@ -83,6 +115,11 @@ public class IEConstraints {
                 int result = (info.getMod()) - (x % info.getMod());
                 return result;
             }
+
+            public int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos) {
+                int mod = info.getMod();
+                return mod - (resultado % mod);
+            }
         },
         POS_IE {
             public Integer transform(RotinaParameters parameter) {
@@ -95,6 +132,15 @@ public class IEConstraints {
                 }
                 return x;
             }
+
+            public int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos) {
+                if (resultado == 10) {
+                    return 0;
+                } else if (resultado == 11) {
+                    return info.getFator();
+                }
+                return resultado;
+            }
         },
         POS_IE_GOIAS {
             public Integer transform(RotinaParameters parameter) {
@@ -107,10 +153,21 @@ public class IEConstraints {
                 }
                 return x;
             }
+
+            public int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos) {
+                if (resultado == 11) {
+                    return 0;
+                } else if (resultado == 10) {
+                    return info.getFator();
+                }
+                return resultado;
+            }
         };
 
         public abstract Integer transform(RotinaParameters parameters);
 
+        public abstract int transform(int resultado, DigitoVerificadorInfo info, long numero, int quantidadeDeDigitos);
+
     }
 
 }
@@ -0,0 +1,202 @@
+package br.com.caelum.stella.validation.ie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import br.com.caelum.stella.MessageProducer;
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.format.Mascara;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.BatchValidator;
+
+/**
+ * <p>
+ * Detecta os estados cujas regras de Inscrição Estadual uma cadeia satisfaz,
+ * para quando a UF da inscrição não é conhecida.
+ * </p>
+ * <p>
+ * As regras de todos os formatos de {@link FormatoDeIE} são organizadas, na
+ * construção, em uma tabela indexada pelo tamanho da cadeia e por seu primeiro
+ * caractere, derivada de suas máscaras. Cada detecção consulta a tabela e
+ * verifica apenas as regras candidatas, sem construir validadores, sem
+ * expressões regulares e sem gerar mensagens.
+ * </p>
+ * <p>
+ * Os conjuntos de estados devolvidos por {@link #detecta(CharSequence)} também
+ * são montados na construção, para cada combinação dos estados candidatos de
+ * cada posição da tabela. São imutáveis e compartilhados entre as detecções.
+ * </p>
+ * <p>
+ * Instâncias são imutáveis após a construção e podem ser compartilhadas entre
+ * threads.
+ * </p>
+ * 
+ * @see IEValidatorRegistry
+ */
+public final class IEDetector {
+
+    private static final int PRIMEIROS_CARACTERES = 128;
+
+    private static final Celula NENHUMA_REGRA = new Celula(new ArrayList<Regra>(),
+            new HashMap<Set<Estado>, Set<Estado>>());
+
+    private static final IEDetector FORMATTED = new IEDetector(true);
+
+    private static final IEDetector UNFORMATTED = new IEDetector(false);
+
+    /**
+     * Regras candidatas, por tamanho e primeiro caractere da cadeia.
+     */
+    private final Celula[][] candidatas;
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     */
+    public IEDetector(boolean isFormatted) {
+        MessageProducer producer = new SimpleMessageProducer();
+        List<Regra> regras = new ArrayList<Regra>();
+        int tamanhoMaximo = 0;
+        for (FormatoDeIE formato : FormatoDeIE.values()) {
+            Mascara mascara = formato.mascara(isFormatted);
+            regras.add(new Regra(formato.getEstado(), formato.validador(producer, isFormatted), mascara));
+            tamanhoMaximo = Math.max(tamanhoMaximo, mascara.getTamanhoMaximo());
+        }
+        Map<Set<Estado>, Set<Estado>> conjuntos = new HashMap<Set<Estado>, Set<Estado>>();
+        candidatas = new Celula[tamanhoMaximo + 1][PRIMEIROS_CARACTERES];
+        for (int tamanho = 0; tamanho <= tamanhoMaximo; tamanho++) {
+            for (char primeiro = 0; primeiro < PRIMEIROS_CARACTERES; primeiro++) {
+                List<Regra> aceitas = new ArrayList<Regra>();
+                for (Regra regra : regras) {
+                    if (regra.mascara.aceitaInicio(tamanho, primeiro)) {
+                        aceitas.add(regra);
+                    }
+                }
+                candidatas[tamanho][primeiro] = aceitas.isEmpty() ? NENHUMA_REGRA : new Celula(aceitas, conjuntos);
+            }
+        }
+    }
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return detector compartilhado.
+     */
+    public static IEDetector getInstance(boolean isFormatted) {
+        return isFormatted ? FORMATTED : UNFORMATTED;
+    }
+
+    /**
+     * @param ie
+     *            Inscrição Estadual, de estado desconhecido.
+     * @return estados cujas regras a inscrição satisfaz; vazio se nenhum, ou
+     *         se a inscrição é nula. O conjunto é imutável e compartilhado.
+     */
+    public Set<Estado> detecta(CharSequence ie) {
+        Celula celula = candidatasPara(ie);
+        int encontrados = 0;
+        for (int i = 0; i < celula.regras.length; i++) {
+            int bit = celula.bitDoEstado[i];
+            if ((encontrados & bit) == 0 && celula.regras[i].validador.isValid(ie)) {
+                encontrados |= bit;
+            }
+        }
+        return celula.conjuntos[encontrados];
+    }
+
+    /**
+     * @param ie
+     *            Inscrição Estadual, de estado desconhecido.
+     * @return <code>true</code> se a inscrição satisfaz as regras de algum
+     *         estado.
+     */
+    public boolean isValidInAnyEstado(CharSequence ie) {
+        for (Regra regra : candidatasPara(ie).regras) {
+            if (regra.validador.isValid(ie)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Celula candidatasPara(CharSequence ie) {
+        if (ie == null || ie.length() == 0 || ie.length() >= candidatas.length
+                || ie.charAt(0) >= PRIMEIROS_CARACTERES) {
+            return NENHUMA_REGRA;
+        }
+        return candidatas[ie.length()][ie.charAt(0)];
+    }
+
+    private static final class Regra {
+
+        private final Estado estado;
+
+        private final BatchValidator validador;
+
+        private final Mascara mascara;
+
+        Regra(Estado estado, BatchValidator validador, Mascara mascara) {
+            this.estado = estado;
+            this.validador = validador;
+            this.mascara = mascara;
+        }
+
+    }
+
+    /**
+     * Regras candidatas de uma posição da tabela. Cada estado candidato tem um
+     * bit, e o conjunto de estados de cada combinação de bits é montado na
+     * construção.
+     */
+    private static final class Celula {
+
+        private final Regra[] regras;
+
+        private final int[] bitDoEstado;
+
+        private final Set<Estado>[] conjuntos;
+
+        /**
+         * @param regras
+         *            regras candidatas.
+         * @param conjuntos
+         *            conjuntos já montados, para que conjuntos iguais sejam
+         *            compartilhados entre as posições da tabela.
+         */
+        @SuppressWarnings("unchecked")
+        Celula(List<Regra> regras, Map<Set<Estado>, Set<Estado>> conjuntos) {
+            this.regras = regras.toArray(new Regra[regras.size()]);
+            this.bitDoEstado = new int[this.regras.length];
+            List<Estado> estados = new ArrayList<Estado>();
+            for (int i = 0; i < this.regras.length; i++) {
+                Estado estado = this.regras[i].estado;
+                if (!estados.contains(estado)) {
+                    estados.add(estado);
+                }
+                bitDoEstado[i] = 1 << estados.indexOf(estado);
+            }
+            this.conjuntos = new Set[1 << estados.size()];
+            for (int combinacao = 0; combinacao < this.conjuntos.length; combinacao++) {
+                Set<Estado> conjunto = EnumSet.noneOf(Estado.class);
+                for (int i = 0; i < estados.size(); i++) {
+                    if ((combinacao & (1 << i)) != 0) {
+                        conjunto.add(estados.get(i));
+                    }
+                }
+                Set<Estado> compartilhado = conjuntos.get(conjunto);
+                if (compartilhado == null) {
+                    compartilhado = Collections.unmodifiableSet(conjunto);
+                    conjuntos.put(conjunto, compartilhado);
+                }
+                this.conjuntos[combinacao] = compartilhado;
+            }
+        }
+
+    }
+
+}
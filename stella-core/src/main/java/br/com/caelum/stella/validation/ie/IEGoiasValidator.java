@@ -1,18 +1,15 @@
 package br.com.caelum.stella.validation.ie;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.BaseValidator;
 import br.com.caelum.stella.validation.DigitoVerificadorInfo;
-import br.com.caelum.stella.validation.InvalidValue;
+import br.com.caelum.stella.validation.MascaraValidator;
 import br.com.caelum.stella.validation.RotinaDeDigitoVerificador;
 import br.com.caelum.stella.validation.ValidadorDeDV;
-import br.com.caelum.stella.validation.Validator;
 import br.com.caelum.stella.validation.error.IEError;
 
 /**
@@ -27,7 +24,7 @@ import br.com.caelum.stella.validation.error.IEError;
  * @author Leonardo Bessa
  * 
  */
-public class IEGoiasValidator implements Validator<String> {
+public class IEGoiasValidator extends MascaraValidator<IEError> {
 
     private static final int MOD = 11;
 
@@ -48,8 +45,6 @@ public class IEGoiasValidator implements Validator<String> {
 
     private static final ValidadorDeDV DVX_CHECKER_FATOR0 = new ValidadorDeDV(DVX_INFO_FATOR0);
 
-    private final boolean isFormatted;
-
     /*
      * Formato da Inscrição: AB.CDE.FGH-I 8 dígitos (ABCDEFGH)+1 dígito
      * verificador (I); onde AB pode ser igual a 10 ou 11 ou 15.
@@ -90,6 +85,10 @@ public class IEGoiasValidator implements Validator<String> {
 
     public static final Pattern UNFORMATED = Pattern.compile("(1[015])(\\d{3})(\\d{3})(\\d{1})");
 
+    static final Mascara MASCARA_FORMATADA = new Mascara("1[015].###.###-#");
+
+    static final Mascara MASCARA_SEM_FORMATO = new Mascara("1[015]#######");
+
     /**
      * Este considera, por padrão, que as cadeias estão formatadas e utiliza um
      * {@linkplain SimpleMessageProducer} para geração de mensagens.
@@ -106,47 +105,24 @@ public class IEGoiasValidator implements Validator<String> {
      *            considerar cadeia formatada quando <code>true</code>
      */
     public IEGoiasValidator(boolean isFormatted) {
-        this.baseValidator = new BaseValidator();
-        this.isFormatted = isFormatted;
+        this(new SimpleMessageProducer(), isFormatted);
     }
 
     public IEGoiasValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
+        super(new BaseValidator(messageProducer), isFormatted, MASCARA_FORMATADA, MASCARA_SEM_FORMATO,
+                IEError.INVALID_FORMAT, IEError.INVALID_DIGITS);
     }
 
-    private List<InvalidValue> getInvalidValues(String IE) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        errors.clear();
-        if (IE != null) {
-            String unformatedIE = checkForCorrectFormat(IE, errors);
-            if (errors.isEmpty()) {
-                if (!hasValidCheckDigits(unformatedIE)) {
-                    errors.add(IEError.INVALID_CHECK_DIGITS);
-                }
-            }
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS);
         }
         return errors;
     }
 
-    private String checkForCorrectFormat(String ie, List<InvalidValue> errors) {
-        String unformatedIE = null;
-        if (isFormatted) {
-            if (!(FORMATED.matcher(ie).matches())) {
-                errors.add(IEError.INVALID_FORMAT);
-            }
-            unformatedIE = ie.replaceAll("\\D", "");
-        } else {
-            if (!UNFORMATED.matcher(ie).matches()) {
-                errors.add(IEError.INVALID_DIGITS);
-            }
-            unformatedIE = ie;
-        }
-        return unformatedIE;
-    }
-
-    private boolean hasValidCheckDigits(String value) {
-        int ie = Integer.parseInt(value);
+    private static boolean hasValidCheckDigits(long ie) {
         boolean result;
         /*
          * http://www.sintegra.gov.br/Cad_Estados/cad_GO.html
@@ -157,37 +133,36 @@ public class IEGoiasValidator implements Validator<String> {
         if (ie == 110944020 || ie == 110944021) {
             result = true;
         } else {
-            String testedValue = IEConstraints.PRE_VALIDATION_FORMATTER.format(value);
             ValidadorDeDV validadorDeDV = null;
             if (101031051 <= ie && ie <= 101199979) {
                 validadorDeDV = DVX_CHECKER_FATOR1;
             } else {
                 validadorDeDV = DVX_CHECKER_FATOR0;
             }
-            result = validadorDeDV.isDVValid(testedValue);
+            result = validadorDeDV.isDVValid(ie, IEConstraints.PRE_VALIDATION_LENGTH);
         }
 
         return result;
     }
 
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = FORMATED.matcher(value).matches();
-        } else {
-            result = UNFORMATED.matcher(value).matches();
+    /**
+     * @param digitos
+     *            dígitos da inscrição, sem formatação; o dígito na posição do
+     *            DV é ignorado.
+     * @return os mesmos dígitos com o DV calculado, ou
+     *         {@link ValidadorDeDV#SEM_DV} caso não exista inscrição válida
+     *         com os demais dígitos.
+     */
+    static long completaDVs(long digitos) {
+        ValidadorDeDV validadorDeDV = DVX_CHECKER_FATOR0;
+        if (101031051 <= digitos && digitos <= 101199979) {
+            validadorDeDV = DVX_CHECKER_FATOR1;
+        }
+        long result = validadorDeDV.completaDV(digitos, IEConstraints.PRE_VALIDATION_LENGTH);
+        if (result != ValidadorDeDV.SEM_DV && !hasValidCheckDigits(result)) {
+            result = ValidadorDeDV.SEM_DV;
         }
         return result;
     }
 
-    private final BaseValidator baseValidator;
-
-    public void assertValid(String cpf) {
-        baseValidator.assertValid(getInvalidValues(cpf));
-    }
-
-    public List<ValidationMessage> invalidMessagesFor(String cpf) {
-        return baseValidator.generateValidationMessages(getInvalidValues(cpf));
-    }
-
 }
@@ -1,21 +1,17 @@
 package br.com.caelum.stella.validation.ie;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import br.com.caelum.stella.MessageProducer;
-import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.validation.BaseValidator;
 import br.com.caelum.stella.validation.DigitoVerificadorInfo;
-import br.com.caelum.stella.validation.InvalidValue;
+import br.com.caelum.stella.validation.MascaraValidator;
 import br.com.caelum.stella.validation.RotinaDeDigitoVerificador;
 import br.com.caelum.stella.validation.ValidadorDeDV;
-import br.com.caelum.stella.validation.Validator;
 import br.com.caelum.stella.validation.error.IEError;
 
-class IEPernambucoNovaValidator implements Validator<String> {
+class IEPernambucoNovaValidator extends MascaraValidator<IEError> {
 
     private static final int DVX_MOD = 11;
 
@@ -48,79 +44,49 @@ class IEPernambucoNovaValidator implements Validator<String> {
 
     private static final ValidadorDeDV DVY_CHECKER = new ValidadorDeDV(DVY_INFO);
 
-    private final boolean isFormatted;
-
     // 0321418-40
     public static final Pattern FORMATED = Pattern.compile("(\\d{7})[-](\\d{2})");
 
     public static final Pattern UNFORMATED = Pattern.compile("(\\d{7})(\\d{2})");
 
-    private static final String REPLACEMENT = MISSING_ZEROS + "$1$2";
+    static final Mascara MASCARA_FORMATADA = new Mascara("#######-##");
+
+    static final Mascara MASCARA_SEM_FORMATO = new Mascara("#########");
 
     public IEPernambucoNovaValidator(MessageProducer messageProducer, boolean isFormatted) {
-        this.baseValidator = new BaseValidator(messageProducer);
-        this.isFormatted = isFormatted;
+        super(new BaseValidator(messageProducer), isFormatted, MASCARA_FORMATADA, MASCARA_SEM_FORMATO,
+                IEError.INVALID_FORMAT, IEError.INVALID_DIGITS);
     }
 
-    private List<InvalidValue> getInvalidValues(String IE) {
-        List<InvalidValue> errors = new ArrayList<InvalidValue>();
-        errors.clear();
-        if (IE != null) {
-            String unformatedIE = checkForCorrectFormat(IE, errors);
-            if (errors.isEmpty()) {
-                if (!hasValidCheckDigits(unformatedIE)) {
-                    errors.add(IEError.INVALID_CHECK_DIGITS);
-                }
-            }
+    @Override
+    protected int errorsOf(long digitos) {
+        int errors = 0;
+        if (!hasValidCheckDigits(digitos)) {
+            errors |= BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS);
         }
         return errors;
     }
 
-    private String checkForCorrectFormat(String ie, List<InvalidValue> errors) {
-        String unformatedIE = null;
-        if (isFormatted) {
-            if (!(FORMATED.matcher(ie).matches())) {
-                errors.add(IEError.INVALID_FORMAT);
-            }
-            unformatedIE = ie.replaceAll("\\D", "");
-        } else {
-            if (!UNFORMATED.matcher(ie).matches()) {
-                errors.add(IEError.INVALID_DIGITS);
-            }
-            unformatedIE = ie;
-        }
-        return unformatedIE;
-    }
-
-    private boolean hasValidCheckDigits(String value) {
-        String testedValue = null;
-        Matcher matcher = UNFORMATED.matcher(value);
-        if (matcher.matches()) {
-            testedValue = matcher.replaceAll(REPLACEMENT);
-        }
-        boolean DVXisValid = DVX_CHECKER.isDVValid(testedValue);
-        boolean DVYisValid = DVY_CHECKER.isDVValid(testedValue);
+    private boolean hasValidCheckDigits(long value) {
+        boolean DVXisValid = DVX_CHECKER.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH);
+        boolean DVYisValid = DVY_CHECKER.isDVValid(value, IEConstraints.PRE_VALIDATION_LENGTH);
         return (DVXisValid) && (DVYisValid);
     }
 
-    public boolean isEligible(String value) {
-        boolean result;
-        if (isFormatted) {
-            result = FORMATED.matcher(value).matches();
-        } else {
-            result = UNFORMATED.matcher(value).matches();
+    /**
+     * @param digitos
+     *            dígitos da inscrição, sem formatação; os dígitos nas posições
+     *            dos DVs são ignorados.
+     * @return os mesmos dígitos com os DVs calculados, ou
+     *         {@link ValidadorDeDV#SEM_DV} caso não exista inscrição válida
+     *         com os demais dígitos.
+     */
+    static long completaDVs(long digitos) {
+        long result = DVX_CHECKER.completaDV(digitos, IEConstraints.PRE_VALIDATION_LENGTH);
+        if (result != ValidadorDeDV.SEM_DV) {
+            result = DVY_CHECKER.completaDV(result, IEConstraints.PRE_VALIDATION_LENGTH);
         }
         return result;
     }
 
-    private final BaseValidator baseValidator;
-
-    public void assertValid(String cpf) {
-        baseValidator.assertValid(getInvalidValues(cpf));
-    }
-
-    public List<ValidationMessage> invalidMessagesFor(String cpf) {
-        return baseValidator.generateValidationMessages(getInvalidValues(cpf));
-    }
-
 }
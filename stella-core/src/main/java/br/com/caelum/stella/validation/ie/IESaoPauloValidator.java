@@ -1,18 +1,9 @@
 package br.com.caelum.stella.validation.ie;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.SimpleMessageProducer;
-import br.com.caelum.stella.ValidationMessage;
-import br.com.caelum.stella.validation.LogicOrComposedValidator;
-import br.com.caelum.stella.validation.Validator;
-import br.com.caelum.stella.validation.error.IEError;
-
-public class IESaoPauloValidator implements Validator<String> {
 
-    private final LogicOrComposedValidator<String> baseValidator;
+public class IESaoPauloValidator extends IEComposedValidator {
 
     /**
      * Este considera, por padrão, que as cadeias estão formatadas e utiliza um
@@ -33,31 +24,9 @@ public class IESaoPauloValidator implements Validator<String> {
         this(new SimpleMessageProducer(), isFormatted);
     }
 
-    @SuppressWarnings("unchecked")
     public IESaoPauloValidator(MessageProducer messageProducer, boolean isFormatted) {
-        Class[] validatorClasses = { IESaoPauloComercioIndustriaValidator.class, IESaoPauloProdutorRuralValidator.class };
-        this.baseValidator = new LogicOrComposedValidator<String>(messageProducer, isFormatted, validatorClasses);
-        this.baseValidator.setInvalidFormat(IEError.INVALID_FORMAT);
-    }
-
-    public void assertValid(String value) {
-        if (value != null) {
-            baseValidator.assertValid(value);
-        }
-    }
-
-    public List<ValidationMessage> invalidMessagesFor(String value) {
-        List<ValidationMessage> result;
-        if (value != null) {
-            result = baseValidator.invalidMessagesFor(value);
-        } else {
-            result = new ArrayList<ValidationMessage>();
-        }
-        return result;
-    }
-
-    public boolean isEligible(String object) {
-        return baseValidator.isEligible(object);
+        super(messageProducer, new IESaoPauloComercioIndustriaValidator(messageProducer, isFormatted),
+                new IESaoPauloProdutorRuralValidator(messageProducer, isFormatted));
     }
 
 }
@@ -0,0 +1,69 @@
+package br.com.caelum.stella.validation.ie;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import br.com.caelum.stella.MessageProducer;
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.Validator;
+
+/**
+ * <p>
+ * Validadores de Inscrição Estadual de todos os estados, construídos uma única
+ * vez para um {@link MessageProducer} e um formato. Obter um validador do
+ * registro não cria objetos nem usa reflexão.
+ * </p>
+ * <p>
+ * O registro e seus validadores não mudam após a construção: os validadores de
+ * IE guardam sua configuração em campos <code>final</code>, os dos estados com
+ * mais de um formato não expõem os validadores que os compõem, e todos são
+ * publicados através do campo <code>final</code> do registro; nenhum estado é
+ * alterado durante a validação.
+ * Podem, portanto, ser compartilhados entre threads sem sincronização, desde
+ * que o {@link MessageProducer} informado também o possa.
+ * </p>
+ */
+public final class IEValidatorRegistry {
+
+    private static final IEValidatorRegistry FORMATTED = new IEValidatorRegistry(new SimpleMessageProducer(), true);
+
+    private static final IEValidatorRegistry UNFORMATTED = new IEValidatorRegistry(new SimpleMessageProducer(),
+            false);
+
+    private final Map<Estado, Validator<String>> validators;
+
+    /**
+     * @param messageProducer
+     *            produtor de mensagens dos validadores.
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     */
+    public IEValidatorRegistry(MessageProducer messageProducer, boolean isFormatted) {
+        Map<Estado, Validator<String>> map = new EnumMap<Estado, Validator<String>>(Estado.class);
+        for (Estado estado : Estado.values()) {
+            map.put(estado, estado.getIEValidator(messageProducer, isFormatted));
+        }
+        this.validators = map;
+    }
+
+    /**
+     * @param isFormatted
+     *            considerar cadeias formatadas quando <code>true</code>
+     * @return registro compartilhado que utiliza um
+     *         {@linkplain SimpleMessageProducer} para geração de mensagens.
+     */
+    public static IEValidatorRegistry getInstance(boolean isFormatted) {
+        return isFormatted ? FORMATTED : UNFORMATTED;
+    }
+
+    /**
+     * @param estado
+     *            estado da Inscrição Estadual.
+     * @return validador de Inscrição Estadual do estado.
+     */
+    public Validator<String> getValidator(Estado estado) {
+        return validators.get(estado);
+    }
+
+}
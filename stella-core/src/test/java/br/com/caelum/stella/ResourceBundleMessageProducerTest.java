@@ -1,6 +1,7 @@
 package br.com.caelum.stella;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.text.MessageFormat;
 import java.util.Enumeration;
@@ -11,6 +12,7 @@ import java.util.ResourceBundle;
 import org.junit.Test;
 
 import br.com.caelum.stella.validation.InvalidValue;
+import br.com.caelum.stella.validation.error.CPFError;
 
 /**
  * @author Fabio Kung
@@ -70,4 +72,60 @@ public class ResourceBundleMessageProducerTest {
 
     }
 
+    @Test
+    public void shouldLookUpBundleOnlyOnceForEachEnumError() {
+        final int[] lookups = new int[1];
+        ResourceBundle bundleMock = new ResourceBundle() {
+            protected Object handleGetObject(String s) {
+                lookups[0]++;
+                return "message for " + s;
+            }
+
+            public Enumeration<String> getKeys() {
+                return null;
+            }
+
+            public Locale getLocale() {
+                return Locale.getDefault();
+            }
+        };
+
+        ResourceBundleMessageProducer producer = new ResourceBundleMessageProducer(bundleMock);
+        assertEquals(0, lookups[0]);
+        ValidationMessage cpfMessage = producer.getMessage(CPFError.INVALID_DIGITS);
+        assertEquals("message for cpferror.invalid_digits", cpfMessage.getMessage());
+        assertSame(cpfMessage, producer.getMessage(CPFError.INVALID_DIGITS));
+        assertEquals("message for errors.other", producer.getMessage(Errors.OTHER).getMessage());
+        producer.getMessage(Errors.OTHER);
+        assertEquals(2, lookups[0]);
+    }
+
+    @Test
+    public void shouldUseMessageKeyOfSubclass() {
+        ResourceBundle bundleMock = new ResourceBundle() {
+            protected Object handleGetObject(String s) {
+                return "message for " + s;
+            }
+
+            public Enumeration<String> getKeys() {
+                return null;
+            }
+
+            public Locale getLocale() {
+                return Locale.getDefault();
+            }
+        };
+
+        ResourceBundleMessageProducer producer = new ResourceBundleMessageProducer(bundleMock) {
+            private final String prefix = "stella.";
+
+            @Override
+            public String messageKeyFor(Locale locale, Class<? extends InvalidValue> errorClass, InvalidValue error) {
+                return prefix + super.messageKeyFor(locale, errorClass, error);
+            }
+        };
+        assertEquals("message for stella.cpferror.invalid_digits", producer.getMessage(CPFError.INVALID_DIGITS)
+                .getMessage());
+    }
+
 }
@@ -0,0 +1,65 @@
+package br.com.caelum.stella.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class FormattersTest {
+
+    @Test
+    public void shouldFormatColumnIntoWriter() throws IOException {
+        StringWriter out = new StringWriter();
+        CharSequence[] cpfs = { "24843803480", new StringBuilder("11122233344") };
+        Formatters.formatAllTo(new CPFFormatter(), cpfs, "\n", out);
+        assertEquals("248.438.034-80\n111.222.333-44", out.toString());
+    }
+
+    @Test
+    public void shouldUnformatColumnIntoStringBuilder() throws IOException {
+        StringBuilder out = new StringBuilder();
+        Formatters.unformatAllTo(new NITFormatter(), new CharSequence[] { "123.45678.91-9", "170.33259.50-4" }, ";",
+                out);
+        assertEquals("12345678919;17033259504", out.toString());
+    }
+
+    @Test
+    public void shouldWriteNothingForEmptyColumn() throws IOException {
+        StringBuilder out = new StringBuilder();
+        Formatters.formatAllTo(new CPFFormatter(), new CharSequence[0], ";", out);
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void shouldStopAtInvalidValue() throws IOException {
+        StringBuilder out = new StringBuilder();
+        try {
+            Formatters.formatAllTo(new CPFFormatter(), new CharSequence[] { "24843803480", "x", "11122233344" }, ";",
+                    out);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("248.438.034-80;", out.toString());
+        }
+    }
+
+    @Test
+    public void shouldFallBackToFormatOfPlainFormatter() throws IOException {
+        Formatter maiusculas = new Formatter() {
+            public String format(String value) {
+                return value.toUpperCase();
+            }
+
+            public String unformat(String value) {
+                return value.toLowerCase();
+            }
+        };
+        StringBuilder out = new StringBuilder();
+        Formatters.formatAllTo(maiusculas, new CharSequence[] { "abc", new StringBuilder("def") }, ";", out);
+        Formatters.unformatAllTo(maiusculas, new CharSequence[] { "GHI" }, ";", out.append(';'));
+        assertEquals("ABC;DEF;ghi", out.toString());
+    }
+
+}
@@ -0,0 +1,108 @@
+package br.com.caelum.stella.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.validation.CNPJValidator;
+import br.com.caelum.stella.validation.CPFValidator;
+
+public class MascaraFormatterTest {
+
+    private static final String[] CADEIAS = { "", "1", "24843803480", "248.438.034-80", "248.438.034-8",
+            "248.438.03480", "2484380348a", "248,438,034-80", "26637142000158", "26.637.142/0001-58",
+            "26.637.142/0001-5x", "٢٤843803480", "73.640767-7", "73x640767-7", "736407677" };
+
+    @Test
+    public void shouldFormatAndUnformatWithoutRegex() {
+        Formatter formatter = new MascaraFormatter(new Mascara("###.###.###-##"), new Mascara("###########"),
+                new RejeitaTudo());
+        assertEquals("248.438.034-80", formatter.format("24843803480"));
+        assertEquals("24843803480", formatter.unformat("248.438.034-80"));
+    }
+
+    @Test
+    public void shouldDelegateValuesThatDoNotMatchMasks() {
+        Formatter formatter = new MascaraFormatter(new Mascara("##.######-#"), new Mascara("#########"),
+                new RenavamFormatter());
+        assertEquals("736407677", formatter.unformat("73x640767-7"));
+    }
+
+    @Test
+    public void shouldFormatIntoAppendable() throws IOException {
+        AppendableFormatter formatter = new CNPJFormatter();
+        StringBuilder out = new StringBuilder("cnpj=");
+        formatter.formatTo(new StringBuilder("26637142000158"), out);
+        formatter.unformatTo("26.637.142/0001-58", out.append(';'));
+        assertEquals("cnpj=26.637.142/0001-58;26637142000158", out.toString());
+    }
+
+    @Test
+    public void shouldNotWriteInvalidValues() throws IOException {
+        StringBuilder out = new StringBuilder();
+        try {
+            new CPFFormatter().formatTo("248438034-80", out);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("", out.toString());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotFormatNull() {
+        new CPFFormatter().format(null);
+    }
+
+    @Test
+    public void shouldBehaveAsRegexFormatters() {
+        verificaEquivalencia(new CPFFormatter(), new BaseFormatter(CPFValidator.FORMATED, "$1.$2.$3-$4",
+                CPFValidator.UNFORMATED, "$1$2$3$4"));
+        verificaEquivalencia(new CNPJFormatter(), new BaseFormatter(CNPJValidator.FORMATED, "$1.$2.$3/$4-$5",
+                CNPJValidator.UNFORMATED, "$1$2$3$4$5"));
+        verificaEquivalencia(new RenavamFormatter(), new BaseFormatter(RenavamFormatter.FORMATTED, "$1.$2-$3",
+                RenavamFormatter.UNFORMATTED, "$1$2$3"));
+    }
+
+    private void verificaEquivalencia(AppendableFormatter formatter, AppendableFormatter regex) {
+        for (String cadeia : CADEIAS) {
+            assertEquals(cadeia, resultado(regex, cadeia, true), resultado(formatter, cadeia, true));
+            assertEquals(cadeia, resultado(regex, cadeia, false), resultado(formatter, cadeia, false));
+        }
+    }
+
+    private String resultado(AppendableFormatter formatter, String cadeia, boolean format) {
+        try {
+            String result = format ? formatter.format(cadeia) : formatter.unformat(cadeia);
+            StringBuilder out = new StringBuilder();
+            if (format) {
+                formatter.formatTo(cadeia, out);
+            } else {
+                formatter.unformatTo(cadeia, out);
+            }
+            assertEquals(result, out.toString());
+            return result;
+        } catch (IllegalArgumentException e) {
+            return "IllegalArgumentException: " + e.getMessage();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static final class RejeitaTudo implements Formatter {
+
+        public String format(String value) {
+            fail();
+            return null;
+        }
+
+        public String unformat(String value) {
+            fail();
+            return null;
+        }
+
+    }
+
+}
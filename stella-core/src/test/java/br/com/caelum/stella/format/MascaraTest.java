@@ -0,0 +1,187 @@
+package br.com.caelum.stella.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MascaraTest {
+
+    @Test
+    public void shouldExtractDigitsOfFormattedValue() {
+        Mascara mascara = new Mascara("###.###.###-##");
+        assertEquals(24845408333L, mascara.digitos("248.454.083-33"));
+    }
+
+    @Test
+    public void shouldKeepLeftSideZerosAsLeadingDigits() {
+        Mascara mascara = new Mascara("###########");
+        assertEquals(1234567890L, mascara.digitos("01234567890"));
+    }
+
+    @Test
+    public void shouldRejectValueWithWrongLiteral() {
+        Mascara mascara = new Mascara("###.###.###-##");
+        assertEquals(Mascara.INVALIDA, mascara.digitos("248.454.083.33"));
+        assertFalse(mascara.matches("248-454.083-33"));
+    }
+
+    @Test
+    public void shouldRejectValueWithWrongLength() {
+        Mascara mascara = new Mascara("###########");
+        assertFalse(mascara.matches("2484540833"));
+        assertFalse(mascara.matches("248454083333"));
+        assertFalse(mascara.matches(""));
+    }
+
+    @Test
+    public void shouldRejectNonDigitCharacters() {
+        Mascara mascara = new Mascara("###########");
+        assertFalse(mascara.matches("2484540833a"));
+        assertFalse(mascara.matches("2484540833/"));
+        assertFalse(mascara.matches("2484540833:"));
+    }
+
+    @Test
+    public void shouldValidateFixedDigitsAndDigitClasses() {
+        Mascara mascara = new Mascara("01[0-4]#[79]");
+        assertTrue(mascara.matches("01057"));
+        assertTrue(mascara.matches("01499"));
+        assertEquals(1057L, mascara.digitos("01057"));
+        assertFalse(mascara.matches("02057"));
+        assertFalse(mascara.matches("01557"));
+        assertFalse(mascara.matches("01058"));
+    }
+
+    @Test
+    public void shouldChooseAlternativeByLength() {
+        Mascara mascara = new Mascara("##.###.###-#", "##.###.###-##");
+        assertEquals(123456789L, mascara.digitos("12.345.678-9"));
+        assertEquals(1234567890L, mascara.digitos("12.345.678-90"));
+    }
+
+    @Test
+    public void shouldTryEveryAlternativeWithSameLength() {
+        Mascara mascara = new Mascara("290[1-3]#######", "2999#######");
+        assertTrue(mascara.matches("29011234567"));
+        assertTrue(mascara.matches("29991234567"));
+        assertFalse(mascara.matches("29041234567"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptMaskWithMoreThanEighteenDigits() {
+        new Mascara("###################");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptUnterminatedDigitClass() {
+        new Mascara("##[0-4");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptMaskWithoutAlternatives() {
+        new Mascara();
+    }
+
+    @Test
+    public void shouldExtractDigitsOfSliceOfBuffer() {
+        Mascara mascara = new Mascara("###.###.###-##");
+        char[] buffer = "id=248.454.083-33;".toCharArray();
+        assertEquals(24845408333L, mascara.digitos(buffer, 3, 14));
+        assertEquals(Mascara.INVALIDA, mascara.digitos(buffer, 2, 14));
+        assertEquals(Mascara.INVALIDA, mascara.digitos(buffer, 3, 15));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotReadOutsideOfBuffer() {
+        new Mascara("###").digitos("12".toCharArray(), 0, 3);
+    }
+
+    @Test
+    public void shouldExtractDigitsOfAsciiBytes() throws Exception {
+        Mascara mascara = new Mascara("###.###.###-##");
+        byte[] bytes = "id=248.454.083-33;".getBytes("US-ASCII");
+        assertEquals(24845408333L, mascara.digitos(bytes, 3, 14));
+        assertEquals(Mascara.INVALIDA, mascara.digitos(bytes, 2, 14));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.position(3).limit(17);
+        assertEquals(24845408333L, mascara.digitos(direct));
+        assertEquals(3, direct.position());
+    }
+
+    @Test
+    public void shouldRejectNonAsciiBytes() throws Exception {
+        Mascara mascara = new Mascara("####");
+        assertEquals(Mascara.INVALIDA, mascara.digitos("1\u00b72".getBytes("UTF-8"), 0, 4));
+    }
+
+    @Test
+    public void shouldTellWhetherLengthAndFirstCharacterCanMatch() {
+        Mascara mascara = new Mascara("P-########.#/###", "[1-3]#.###");
+        assertTrue(mascara.aceitaInicio(16, 'P'));
+        assertFalse(mascara.aceitaInicio(15, 'P'));
+        assertTrue(mascara.aceitaInicio(6, '3'));
+        assertFalse(mascara.aceitaInicio(6, '4'));
+        assertEquals(16, mascara.getTamanhoMaximo());
+    }
+
+    @Test
+    public void shouldFormatDigitsWithLeftSideZeros() {
+        Mascara mascara = new Mascara("###.###.###-##", "###########");
+        assertEquals("012.345.678-90", mascara.formata(1234567890L));
+        assertEquals(1234567890L, mascara.digitos(mascara.formata(1234567890L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotFormatDigitsThatDoNotFit() {
+        new Mascara("##-#").formata(1000L);
+    }
+
+    @Test
+    public void shouldFormatDigitsWithChosenAlternative() {
+        Mascara mascara = new Mascara("29.0[1-3].###.###-#", "29.99.###.###-#");
+        assertEquals(2, mascara.getQuantidadeDeAlternativas());
+        assertEquals("29.99.022.783-6", mascara.formata(29990227836L, 1));
+    }
+
+    @Test
+    public void shouldDrawDigitsAcceptedByAlternative() {
+        Mascara mascara = new Mascara("29.0[1-3].###.###-#", "[1789]#.###.###");
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            long primeira = mascara.sorteia(random.nextLong(), 0);
+            assertEquals(primeira, mascara.digitos(mascara.formata(primeira, 0)));
+            long segunda = mascara.sorteia(random.nextLong(), 1);
+            assertEquals(segunda, mascara.digitos(mascara.formata(segunda, 1)));
+        }
+    }
+
+    @Test
+    public void shouldReplaceDigitsKeepingLiterals() {
+        Mascara mascara = new Mascara("###.###.###-##");
+        char[] buffer = "x 248.438.034-00".toCharArray();
+        assertTrue(mascara.substituiDigitos(buffer, 2, 14, 24843803480L));
+        assertEquals("x 248.438.034-80", new String(buffer));
+        assertFalse(mascara.substituiDigitos(buffer, 0, 14, 24843803480L));
+        assertEquals("x 248.438.034-80", new String(buffer));
+    }
+
+    @Test
+    public void shouldConvertBetweenMasks() {
+        Mascara formatada = new Mascara("##.###.###/####-##");
+        Mascara semFormato = new Mascara("##############");
+        assertEquals("26.637.142/0001-58", semFormato.converte("26637142000158", formatada));
+        assertEquals("26637142000158", formatada.converte("26.637.142/0001-58", semFormato));
+        assertNull(formatada.converte("26.637.142-0001/58", semFormato));
+        assertNull(semFormato.converte("2663714200015", formatada));
+        assertNull(new Mascara("###").converte("123", formatada));
+    }
+
+}
@@ -0,0 +1,72 @@
+package br.com.caelum.stella.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.validation.CPFValidator;
+
+public class NormalizadorTest {
+
+    @Test
+    public void shouldDropSeparators() {
+        assertEquals(24843803480L, Normalizador.CPF.digitos(" 248.438.034 - 80"));
+        assertEquals(24843803480L, Normalizador.CPF.digitos("248438034/80"));
+        assertEquals(24843803480L, Normalizador.CPF.digitos("248\t438–034‐80"));
+        assertEquals(26637142000158L, Normalizador.CNPJ.digitos("26 637 142 0001 58"));
+        assertEquals(543275360116L, Normalizador.TITULO_ELEITORAL.digitos(new StringBuilder("5432753601/16")));
+    }
+
+    @Test
+    public void shouldPadOnlyPlainDigits() {
+        assertEquals(1169538452L, Normalizador.CPF.digitos("1169538452"));
+        assertEquals(Mascara.INVALIDA, Normalizador.CPF.digitos("11.695.384-52"));
+    }
+
+    @Test
+    public void shouldRejectOtherCharactersAndDigitCounts() {
+        assertEquals(Mascara.INVALIDA, Normalizador.CPF.digitos(null));
+        assertEquals(Mascara.INVALIDA, Normalizador.CPF.digitos(""));
+        assertEquals(Mascara.INVALIDA, Normalizador.CPF.digitos(" . - "));
+        assertEquals(Mascara.INVALIDA, Normalizador.CPF.digitos("248.438.034-8O"));
+        assertEquals(Mascara.INVALIDA, Normalizador.CPF.digitos("248438034800"));
+        assertEquals(Mascara.INVALIDA, Normalizador.NIT.digitos("٢٤843803480"));
+    }
+
+    @Test
+    public void shouldCheckDigitsOfNormalizedDocuments() {
+        assertTrue(Normalizador.CPF.isValid(" 248.438.034 - 80"));
+        assertFalse(Normalizador.CPF.isValid(" 248.438.034 - 70"));
+        assertTrue(Normalizador.CPF.isValid("1169538452"));
+        assertTrue(Normalizador.CNPJ.isValid("26 637 142 0001 58"));
+        assertFalse(Normalizador.CNPJ.isValid("26 637 142 0001 68"));
+        assertTrue(Normalizador.NIT.isValid("123.45678.91-9"));
+        assertTrue(Normalizador.TITULO_ELEITORAL.isValid("13785610434"));
+        assertTrue(Normalizador.RENAVAM.isValid("73.640767-7"));
+        assertFalse(Normalizador.RENAVAM.isValid("73.640767"));
+    }
+
+    @Test
+    public void shouldApplyEveryRuleOfTheValidator() {
+        assertFalse(Normalizador.TITULO_ELEITORAL.isValid("123456789997"));
+        assertTrue(Normalizador.TITULO_ELEITORAL.isValid("543275360116"));
+        assertTrue(Normalizador.CPF.isValid("111.111.111-11"));
+        assertFalse(Normalizador.CPF.isValid("111.111.111-11", new CPFValidator(new SimpleMessageProducer(), true,
+                false)));
+        assertTrue(Normalizador.CPF.isValid("248.438.034-80", new CPFValidator(new SimpleMessageProducer(), true,
+                false)));
+    }
+
+    @Test
+    public void shouldRejectAllZeros() {
+        assertFalse(Normalizador.CPF.isValid("0"));
+        assertFalse(Normalizador.CPF.isValid("00000000000"));
+        assertFalse(Normalizador.CPF.isValid("000.000.000-00"));
+        assertFalse(Normalizador.CNPJ.isValid("0"));
+        assertFalse(Normalizador.NIT.isValid("00000000000"));
+    }
+
+}
@@ -257,4 +257,15 @@ public abstract class IntegerNumericToWordsConverterTest {
         assertEquals("dois tredecilhões de inteiros", actual);
     }
 
-}
\ No newline at end of file
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotTransform1E45() {
+        converter.toWords(1E45);
+    }
+
+    @Test
+    public void shouldTransformEveryBlockOfLong() {
+        assertEquals("novecentos e noventa e nove mil e novecentos e noventa e nove inteiros", converter
+                .toWords(999999L));
+        assertEquals("um milhão e um mil e um inteiros", converter.toWords(1001001L));
+    }
+}
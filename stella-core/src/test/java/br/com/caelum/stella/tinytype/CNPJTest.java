@@ -24,4 +24,21 @@ public class CNPJTest {
         Assert.assertTrue(b.equals(a));
     }
 
+    @Test
+    public void shouldKeepNumberAsInformed() {
+        Assert.assertEquals("03.121.367/0001-69", new CNPJ("03.121.367/0001-69").getNumero());
+        Assert.assertEquals("03121367000169", new CNPJ("03121367000169").toString());
+        Assert.assertEquals("CNPJ", new CNPJ("CNPJ").getNumero());
+    }
+
+    @Test
+    public void shouldConvertFromAndToLong() {
+        CNPJ cnpj = CNPJ.fromLong(3121367000169L);
+        Assert.assertEquals("03121367000169", cnpj.getNumero());
+        Assert.assertEquals(3121367000169L, cnpj.toLong());
+        Assert.assertEquals(new CNPJ("03121367000169"), cnpj);
+        Assert.assertEquals(3121367000169L, new CNPJ("03.121.367/0001-69").toLong());
+        Assert.assertFalse(new CNPJ("CNPJ").isCompactado());
+    }
+
 }
@@ -24,4 +24,37 @@ public class CPFTest {
         Assert.assertTrue(b.equals(a));
     }
 
+    @Test
+    public void shouldKeepNumberAsInformed() {
+        Assert.assertEquals("012.345.678-90", new CPF("012.345.678-90").getNumero());
+        Assert.assertEquals("01234567890", new CPF("01234567890").toString());
+        Assert.assertEquals("0123.456.789-0", new CPF("0123.456.789-0").getNumero());
+        Assert.assertNull(new CPF(null).getNumero());
+    }
+
+    @Test
+    public void shouldConvertFromAndToLong() {
+        CPF cpf = CPF.fromLong(1234567890L);
+        Assert.assertEquals("01234567890", cpf.getNumero());
+        Assert.assertEquals(1234567890L, cpf.toLong());
+        Assert.assertEquals(new CPF("01234567890"), cpf);
+        Assert.assertEquals(new CPF("01234567890").hashCode(), cpf.hashCode());
+        Assert.assertEquals(1234567890L, new CPF("012.345.678-90").toLong());
+    }
+
+    @Test
+    public void shouldDistinguishFormattedFromUnformattedNumber() {
+        Assert.assertFalse(new CPF("012.345.678-90").equals(new CPF("01234567890")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotConvertToLongNumberOutOfFormat() {
+        new CPF("0123.456.789-0").toLong();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotConvertFromLongWithMoreThanElevenDigits() {
+        CPF.fromLong(100000000000L);
+    }
+
 }
@@ -13,9 +13,14 @@ import org.junit.Test;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.validation.error.CPFError;
 
 public class BaseValidatorTest {
 
+    private enum ManyErrors implements InvalidValue {
+        E0, E1, E2, E3, E4, E5, E6, E7;
+    }
+
     @Test
     public void testGetValidationMessagesT() {
         Mockery mockery = new Mockery();
@@ -87,4 +92,53 @@ public class BaseValidatorTest {
         mockery.assertIsSatisfied();
     }
 
+    @Test
+    public void testMaskOfShouldUseOrdinalOfEnumErrors() {
+        assertEquals(1, BaseValidator.maskOf(CPFError.INVALID_CHECK_DIGITS));
+        assertEquals(8, BaseValidator.maskOf(CPFError.INVALID_FORMAT));
+    }
+
+    @Test
+    public void testMaskOfShouldFitInAByte() {
+        assertEquals(1 << 6, BaseValidator.maskOf(ManyErrors.E6));
+        try {
+            BaseValidator.maskOf(ManyErrors.E7);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testMaskOfShouldReserveABitForErrorsThatAreNotEnums() {
+        InvalidValue error = new InvalidValue() {
+            public String name() {
+                return "ERROR";
+            }
+        };
+        assertEquals(BaseValidator.ERRO_NAO_ENUMERADO, BaseValidator.maskOf(error));
+        assertEquals(BaseValidator.ERRO_NAO_ENUMERADO, ((byte) BaseValidator.maskOf(error)) & 0xFF);
+    }
+
+    @Test
+    public void testInvalidValuesOfShouldListErrorsPresentInMask() {
+        int errors = BaseValidator.maskOf(CPFError.INVALID_FORMAT) | BaseValidator.maskOf(CPFError.INVALID_DIGITS);
+        List<InvalidValue> expected = new ArrayList<InvalidValue>();
+        expected.add(CPFError.INVALID_DIGITS);
+        expected.add(CPFError.INVALID_FORMAT);
+        assertEquals(expected, BaseValidator.invalidValuesOf(errors, CPFError.class));
+        assertEquals(new ArrayList<InvalidValue>(), BaseValidator.invalidValuesOf(0, CPFError.class));
+    }
+
+    @Test
+    public void testAssertValidShouldNotGenerateMessagesWhenMaskIsZero() {
+        Mockery mockery = new Mockery();
+        final MessageProducer messageProducer = mockery.mock(MessageProducer.class);
+
+        mockery.checking(new Expectations());
+        BaseValidator validator = new BaseValidator(messageProducer);
+        validator.assertValid(0, CPFError.class);
+
+        mockery.assertIsSatisfied();
+    }
+
 }
@@ -1,9 +1,12 @@
 package br.com.caelum.stella.validation;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.List;
 
 import org.jmock.Expectations;
@@ -11,6 +14,7 @@ import org.jmock.Mockery;
 import org.junit.Test;
 
 import br.com.caelum.stella.MessageProducer;
+import br.com.caelum.stella.SimpleMessageProducer;
 import br.com.caelum.stella.ValidationMessage;
 import br.com.caelum.stella.validation.error.CPFError;
 
@@ -317,4 +321,92 @@ public class CPFValidatorTest {
         mockery.assertIsSatisfied();
     }
 
+    @Test
+    public void shouldReportErrorsWithoutGeneratingMessages() {
+        Mockery mockery = new Mockery();
+        final MessageProducer messageProducer = mockery.mock(MessageProducer.class);
+
+        mockery.checking(new Expectations());
+        CPFValidator validator = new CPFValidator(messageProducer, true, false);
+
+        assertTrue(validator.isValid(validString));
+        assertTrue(validator.isValid(null));
+        assertFalse(validator.isValid(firstCheckDigitWrong));
+        assertEquals(0, validator.errorsFor(validString));
+        assertEquals(BaseValidator.maskOf(CPFError.INVALID_CHECK_DIGITS), validator.errorsFor(firstCheckDigitWrong));
+        assertEquals(BaseValidator.maskOf(CPFError.INVALID_FORMAT), validator.errorsFor("248.438.03480"));
+        assertEquals(BaseValidator.maskOf(CPFError.REPEATED_DIGITS), validator.errorsFor("111.111.111-11"));
+
+        mockery.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldValidateAllValuesOfBatch() {
+        CPFValidator validator = new CPFValidator();
+        CharSequence[] values = { validString, firstCheckDigitWrong, null, new StringBuilder(validString),
+                "248.438.03480" };
+
+        BitSet valid = new BitSet();
+        valid.set(4);
+        validator.validateAll(values, valid);
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        expected.set(3);
+        assertEquals(expected, valid);
+
+        byte[] errors = new byte[values.length];
+        validator.validateAll(values, errors);
+        assertEquals(0, errors[0]);
+        assertEquals(BaseValidator.maskOf(CPFError.INVALID_CHECK_DIGITS), errors[1]);
+        assertEquals(0, errors[2]);
+        assertEquals(0, errors[3]);
+        assertEquals(BaseValidator.maskOf(CPFError.INVALID_FORMAT), errors[4]);
+    }
+
+    @Test
+    public void shouldValidateCharSequenceAndSliceOfBuffer() {
+        CPFValidator validator = new CPFValidator();
+        assertTrue(validator.isValid(new StringBuilder(validString)));
+        assertFalse(validator.isValid(new StringBuilder(firstCheckDigitWrong)));
+
+        char[] buffer = ("x;" + validString + ";" + firstCheckDigitWrong).toCharArray();
+        assertTrue(validator.isValid(buffer, 2, 14));
+        assertFalse(validator.isValid(buffer, 17, 14));
+        assertFalse(validator.isValid(buffer, 2, 15));
+    }
+
+    @Test
+    public void shouldValidateAsciiBytesWithoutDecoding() throws Exception {
+        CPFValidator validator = new CPFValidator();
+        byte[] bytes = ("x;" + validString + ";" + firstCheckDigitWrong).getBytes("US-ASCII");
+        assertTrue(validator.isValidAscii(bytes, 2, 14));
+        assertFalse(validator.isValidAscii(bytes, 17, 14));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.position(2).limit(16);
+        assertTrue(validator.isValidAscii(direct));
+        assertEquals(2, direct.position());
+        direct.limit(bytes.length).position(17);
+        assertFalse(validator.isValidAscii(direct));
+
+        ByteBuffer heap = ByteBuffer.wrap(bytes, 2, 14).slice();
+        assertTrue(validator.isValidAscii(heap));
+    }
+
+    @Test
+    public void shouldGiveSameResultsWithCache() {
+        CacheDeValidacao cache = new CacheDeValidacao(64);
+        CPFValidator validator = new CPFValidator(new SimpleMessageProducer(), true, false, cache);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(0, validator.errorsFor(validString));
+            assertEquals(BaseValidator.maskOf(CPFError.INVALID_CHECK_DIGITS), validator
+                    .errorsFor(firstCheckDigitWrong));
+            assertEquals(BaseValidator.maskOf(CPFError.REPEATED_DIGITS), validator.errorsFor("111.111.111-11"));
+            assertEquals(BaseValidator.maskOf(CPFError.INVALID_FORMAT), validator.errorsFor("248.438.03480"));
+        }
+        assertEquals(0, cache.get(24843803480L));
+    }
+
 }
@@ -0,0 +1,78 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CacheDeValidacaoTest {
+
+    @Test
+    public void shouldReturnStoredErrors() {
+        CacheDeValidacao cache = new CacheDeValidacao(16);
+        assertEquals(CacheDeValidacao.AUSENTE, cache.get(24843803480L));
+        cache.put(24843803480L, 0);
+        cache.put(24843803470L, 4);
+        assertEquals(0, cache.get(24843803480L));
+        assertEquals(4, cache.get(24843803470L));
+    }
+
+    @Test
+    public void shouldAcceptKeysUpToFourteenDigits() {
+        CacheDeValidacao cache = new CacheDeValidacao(16);
+        cache.put(0L, 1);
+        cache.put(99999999999999L, 2);
+        cache.put(CacheDeValidacao.MAIOR_CHAVE, 3);
+        assertEquals(1, cache.get(0L));
+        assertEquals(2, cache.get(99999999999999L));
+        assertEquals(3, cache.get(CacheDeValidacao.MAIOR_CHAVE));
+    }
+
+    @Test
+    public void shouldIgnoreKeysAndErrorsOutOfRange() {
+        CacheDeValidacao cache = new CacheDeValidacao(16);
+        cache.put(-1L, 0);
+        cache.put(CacheDeValidacao.MAIOR_CHAVE + 1, 0);
+        cache.put(1L, 256);
+        assertEquals(CacheDeValidacao.AUSENTE, cache.get(-1L));
+        assertEquals(CacheDeValidacao.AUSENTE, cache.get(CacheDeValidacao.MAIOR_CHAVE + 1));
+        assertEquals(CacheDeValidacao.AUSENTE, cache.get(1L));
+    }
+
+    @Test
+    public void shouldKeepAtMostItsCapacity() {
+        CacheDeValidacao cache = new CacheDeValidacao(100);
+        assertEquals(128, cache.getCapacidade());
+        for (long chave = 0; chave < 10000; chave++) {
+            cache.put(chave, (int) (chave % 7));
+        }
+        int presentes = 0;
+        for (long chave = 0; chave < 10000; chave++) {
+            int erros = cache.get(chave);
+            if (erros != CacheDeValidacao.AUSENTE) {
+                assertEquals(chave % 7, erros);
+                presentes++;
+            }
+        }
+        assertTrue(presentes > 0);
+        assertTrue(presentes <= cache.getCapacidade());
+    }
+
+    @Test
+    public void shouldKeepRecentlyReadEntries() {
+        CacheDeValidacao cache = new CacheDeValidacao(8);
+        for (long chave = 0; chave < 8; chave++) {
+            cache.put(chave, 1);
+        }
+        cache.get(3L);
+        cache.put(100L, 2);
+        assertEquals(1, cache.get(3L));
+        assertEquals(2, cache.get(100L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptNonPositiveCapacity() {
+        new CacheDeValidacao(0);
+    }
+
+}
@@ -0,0 +1,61 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class ClassificadorDeDocumentosTest {
+
+    private final ClassificadorDeDocumentos classificador = new ClassificadorDeDocumentos();
+
+    private void assertClassificacao(TipoDeDocumento tipo, boolean valido, String documento) {
+        assertSame(Classificacao.de(tipo, valido), classificador.classifica(documento));
+    }
+
+    @Test
+    public void shouldClassifyFormattedDocuments() {
+        assertClassificacao(TipoDeDocumento.CPF, true, "248.438.034-80");
+        assertClassificacao(TipoDeDocumento.NIT, true, "123.45678.91-9");
+        assertClassificacao(TipoDeDocumento.CNPJ, true, "63.025.530/0001-04");
+        assertClassificacao(TipoDeDocumento.TITULO_ELEITORAL, true, "5432753601/16");
+    }
+
+    @Test
+    public void shouldClassifyUnformattedDocuments() {
+        assertClassificacao(TipoDeDocumento.CPF, true, "24843803480");
+        assertClassificacao(TipoDeDocumento.NIT, true, "12345678919");
+        assertClassificacao(TipoDeDocumento.CNPJ, true, "63025530000104");
+        assertClassificacao(TipoDeDocumento.TITULO_ELEITORAL, true, "543275360116");
+    }
+
+    @Test
+    public void shouldReportInvalidDocumentsWithDetectedType() {
+        assertClassificacao(TipoDeDocumento.CPF, false, "248.438.034-70");
+        assertClassificacao(TipoDeDocumento.NIT, false, "123.45678.91-8");
+        assertClassificacao(TipoDeDocumento.CNPJ, false, "63.025.530/0001-05");
+        assertClassificacao(TipoDeDocumento.TITULO_ELEITORAL, false, "543275360106");
+    }
+
+    @Test
+    public void shouldClassifyElevenDigitsWithoutValidCheckDigitsAsCPF() {
+        assertClassificacao(TipoDeDocumento.CPF, false, "24843803470");
+    }
+
+    @Test
+    public void shouldClassifyUnknownFormatsAsUnknown() {
+        assertClassificacao(TipoDeDocumento.DESCONHECIDO, false, null);
+        assertClassificacao(TipoDeDocumento.DESCONHECIDO, false, "");
+        assertClassificacao(TipoDeDocumento.DESCONHECIDO, false, "248.438.034/80");
+        assertClassificacao(TipoDeDocumento.DESCONHECIDO, false, "1234567890");
+        assertClassificacao(TipoDeDocumento.DESCONHECIDO, false, "2484380348a");
+    }
+
+    @Test
+    public void shouldNeverConsiderUnknownValid() {
+        assertFalse(Classificacao.de(TipoDeDocumento.DESCONHECIDO, true).isValido());
+        assertEquals(TipoDeDocumento.CNPJ, Classificacao.de(TipoDeDocumento.CNPJ, true).getTipo());
+    }
+
+}
@@ -0,0 +1,115 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class ConjuntoDeDocumentosTest {
+
+    private File arquivoCom(String conteudo) throws IOException {
+        File arquivo = File.createTempFile("stella", ".txt");
+        arquivo.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(arquivo);
+        try {
+            out.write(conteudo.getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+        return arquivo;
+    }
+
+    @Test
+    public void shouldContainDocumentsInAnyFormat() {
+        ConjuntoDeDocumentos conjunto = ConjuntoDeDocumentos.de("248.438.034-80", "63025530000104");
+        assertEquals(2, conjunto.getQuantidade());
+        assertTrue(conjunto.contem("248.438.034-80"));
+        assertTrue(conjunto.contem(new StringBuilder("24843803480")));
+        assertTrue(conjunto.contem("63.025.530/0001-04"));
+        assertTrue(conjunto.contem("63025530000104"));
+    }
+
+    @Test
+    public void shouldNotContainOtherOrInvalidDocuments() {
+        ConjuntoDeDocumentos conjunto = ConjuntoDeDocumentos.de("248.438.034-80", "248.438.034-70", "abc", null);
+        assertEquals(1, conjunto.getQuantidade());
+        assertFalse(conjunto.contem("248.438.034-70"));
+        assertFalse(conjunto.contem("111.444.777-35"));
+        assertFalse(conjunto.contem(null));
+        assertFalse(conjunto.contem(""));
+    }
+
+    @Test
+    public void shouldDistinguishCPFFromCNPJWithSameDigits() {
+        ConjuntoDeDocumentos conjunto = ConjuntoDeDocumentos.de("000.000.001-91");
+        assertTrue(conjunto.contem("00000000191"));
+        assertFalse(conjunto.contem("00000000000191"));
+    }
+
+    @Test
+    public void shouldLoadDocumentsFromFile() throws IOException {
+        File arquivo = arquivoCom("248.438.034-80\r\n63025530000104\n\ninvalido\n248.438.034-80\n");
+        ConjuntoDeDocumentos conjunto = ConjuntoDeDocumentos.de(arquivo);
+        assertEquals(2, conjunto.getQuantidade());
+        assertTrue(conjunto.contem("24843803480"));
+        assertTrue(conjunto.contem("63.025.530/0001-04"));
+    }
+
+    @Test
+    public void shouldLoadLastLineWithoutLineBreakAndSkipInvalidDocumentsOfSameLength() throws IOException {
+        File arquivo = arquivoCom("248.438.034-70\r\n24843803470\n63.025.530/0001-04");
+        ConjuntoDeDocumentos conjunto = ConjuntoDeDocumentos.de(arquivo);
+        assertEquals(1, conjunto.getQuantidade());
+        assertTrue(conjunto.contem("63025530000104"));
+        assertFalse(conjunto.contem("248.438.034-70"));
+    }
+
+    @Test
+    public void shouldLoadEveryOneOfManyDocumentsFromFile() throws IOException {
+        StringBuilder conteudo = new StringBuilder();
+        String[] cpfs = new String[5000];
+        for (int i = 0; i < cpfs.length; i++) {
+            cpfs[i] = completaCPF(100000000L + i * 7919L);
+            conteudo.append(cpfs[i]).append('\n');
+        }
+        ConjuntoDeDocumentos conjunto = ConjuntoDeDocumentos.de(arquivoCom(conteudo.toString()));
+        assertEquals(cpfs.length, conjunto.getQuantidade());
+        for (String cpf : cpfs) {
+            assertTrue(cpf, conjunto.contem(cpf));
+        }
+    }
+
+    @Test
+    public void shouldAcceptEmptyFile() throws IOException {
+        assertEquals(0, ConjuntoDeDocumentos.de(arquivoCom("")).getQuantidade());
+    }
+
+    @Test
+    public void shouldFindEveryOneOfManyDocuments() {
+        String[] cpfs = new String[5000];
+        for (int i = 0; i < cpfs.length; i++) {
+            cpfs[i] = completaCPF(100000000L + i * 7919L);
+        }
+        ConjuntoDeDocumentos conjunto = ConjuntoDeDocumentos.de(cpfs);
+        assertEquals(cpfs.length, conjunto.getQuantidade());
+        for (String cpf : cpfs) {
+            assertTrue(cpf, conjunto.contem(cpf));
+        }
+    }
+
+    private String completaCPF(long base) {
+        for (int dv = 0; dv < 100; dv++) {
+            String cpf = String.format("%09d%02d", base, dv);
+            if (new CPFValidator(false).isValid(cpf)) {
+                return cpf;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+}
@@ -0,0 +1,63 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.format.Mascara;
+
+public class DigitosVerificadoresTest {
+
+    @Test
+    public void shouldCompleteCheckDigitsOfEachDocument() {
+        assertEquals(24843803480L, DigitosVerificadores.completaCPF(248438034L));
+        assertEquals(26637142000158L, DigitosVerificadores.completaCNPJ(266371420001L));
+        assertEquals(12345678919L, DigitosVerificadores.completaNIT(1234567891L));
+        assertEquals(543275360116L, DigitosVerificadores.completaTituloEleitoral(5432753601L));
+        assertEquals(639884962L, DigitosVerificadores.completaRenavam(63988496L));
+    }
+
+    @Test
+    public void shouldCompleteBasesWithLeadingZeros() {
+        assertEquals(13785610434L, DigitosVerificadores.completaTituloEleitoral(137856104L));
+        assertTrue(new CPFValidator(false).isValid(new Mascara("###########").formata(
+                DigitosVerificadores.completaCPF(1L))));
+    }
+
+    @Test
+    public void shouldCompleteCheckDigitsInBulk() {
+        long[] bases = { 248438034L, 99075865L, 0L };
+        long[] cpfs = new long[bases.length];
+        DigitosVerificadores.completaCPFs(bases, cpfs);
+        for (int i = 0; i < bases.length; i++) {
+            assertEquals(DigitosVerificadores.completaCPF(bases[i]), cpfs[i]);
+        }
+        DigitosVerificadores.completaCPFs(bases, bases);
+        assertEquals(24843803480L, bases[0]);
+    }
+
+    @Test
+    public void shouldRebuildGeneratedDocuments() {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(7);
+        for (int i = 0; i < 1000; i++) {
+            long cnpj = gerador.cnpj(Defeito.NENHUM);
+            assertEquals(cnpj, DigitosVerificadores.completaCNPJ(cnpj / 100));
+            long nit = gerador.nit(Defeito.NENHUM);
+            assertEquals(nit, DigitosVerificadores.completaNIT(nit / 10));
+            long titulo = gerador.tituloEleitoral(Defeito.NENHUM);
+            assertEquals(titulo, DigitosVerificadores.completaTituloEleitoral(titulo / 100));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCompleteBaseWithTooManyDigits() {
+        DigitosVerificadores.completaCPF(1000000000L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCompleteNegativeBase() {
+        DigitosVerificadores.completaCNPJ(-1L);
+    }
+
+}
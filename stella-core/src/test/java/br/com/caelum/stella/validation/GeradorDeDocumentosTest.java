@@ -0,0 +1,112 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.validation.error.CNPJError;
+import br.com.caelum.stella.validation.error.CPFError;
+import br.com.caelum.stella.validation.error.NITError;
+import br.com.caelum.stella.validation.error.RenavamError;
+import br.com.caelum.stella.validation.error.TituloEleitoralError;
+
+public class GeradorDeDocumentosTest {
+
+    private static final int AMOSTRAS = 2000;
+
+    @Test
+    public void shouldGenerateSameDocumentsForSameSeed() {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(42);
+        GeradorDeDocumentos outro = new GeradorDeDocumentos(42);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(gerador.cpf(Defeito.NENHUM, true), outro.cpf(Defeito.NENHUM, true));
+            assertEquals(gerador.cnpj(Defeito.DV_INVALIDO), outro.cnpj(Defeito.DV_INVALIDO));
+        }
+    }
+
+    @Test
+    public void shouldGenerateCPFs() {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(1);
+        CPFValidator formatado = new CPFValidator(new SimpleMessageProducer(), true, false);
+        CPFValidator semFormato = new CPFValidator(new SimpleMessageProducer(), false, false);
+        for (int i = 0; i < AMOSTRAS; i++) {
+            assertEquals(0, formatado.errorsFor(gerador.cpf(Defeito.NENHUM, true)));
+            assertEquals(0, semFormato.errorsFor(gerador.cpf(Defeito.NENHUM, false)));
+            assertEquals(BaseValidator.maskOf(CPFError.INVALID_CHECK_DIGITS), formatado.errorsFor(gerador.cpf(
+                    Defeito.DV_INVALIDO, true)));
+            assertEquals(BaseValidator.maskOf(CPFError.REPEATED_DIGITS), semFormato.errorsFor(gerador.cpf(
+                    Defeito.DIGITOS_REPETIDOS, false)));
+        }
+    }
+
+    @Test
+    public void shouldGenerateCNPJs() {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(2);
+        CNPJValidator formatado = new CNPJValidator(true);
+        CNPJValidator semFormato = new CNPJValidator(false);
+        for (int i = 0; i < AMOSTRAS; i++) {
+            assertEquals(0, formatado.errorsFor(gerador.cnpj(Defeito.NENHUM, true)));
+            assertEquals(0, semFormato.errorsFor(gerador.cnpj(Defeito.NENHUM, false)));
+            assertEquals(BaseValidator.maskOf(CNPJError.INVALID_CHECK_DIGITS), semFormato.errorsFor(gerador.cnpj(
+                    Defeito.DV_INVALIDO, false)));
+        }
+    }
+
+    @Test
+    public void shouldGenerateNITs() {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(3);
+        NITValidator formatado = new NITValidator(true);
+        NITValidator semFormato = new NITValidator(false);
+        for (int i = 0; i < AMOSTRAS; i++) {
+            assertEquals(0, formatado.errorsFor(gerador.nit(Defeito.NENHUM, true)));
+            assertEquals(0, semFormato.errorsFor(gerador.nit(Defeito.NENHUM, false)));
+            assertEquals(BaseValidator.maskOf(NITError.INVALID_CHECK_DIGITS), formatado.errorsFor(gerador.nit(
+                    Defeito.DV_INVALIDO, true)));
+        }
+    }
+
+    @Test
+    public void shouldGenerateTitulosEleitorais() {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(4);
+        TituloEleitoralValidator formatado = new TituloEleitoralValidator(true);
+        TituloEleitoralValidator semFormato = new TituloEleitoralValidator(false);
+        for (int i = 0; i < AMOSTRAS; i++) {
+            assertEquals(0, formatado.errorsFor(gerador.tituloEleitoral(Defeito.NENHUM, true)));
+            assertEquals(0, semFormato.errorsFor(gerador.tituloEleitoral(Defeito.NENHUM, false)));
+            assertEquals(BaseValidator.maskOf(TituloEleitoralError.INVALID_CHECK_DIGITS), semFormato
+                    .errorsFor(gerador.tituloEleitoral(Defeito.DV_INVALIDO, false)));
+            assertEquals(BaseValidator.maskOf(TituloEleitoralError.INVALID_CODIGO_DE_ESTADO), formatado
+                    .errorsFor(gerador.tituloEleitoral(Defeito.CODIGO_DE_ESTADO_INVALIDO, true)));
+        }
+    }
+
+    @Test
+    public void shouldGenerateRenavams() {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(5);
+        RenavamValidator formatado = new RenavamValidator(true);
+        RenavamValidator semFormato = new RenavamValidator(false);
+        for (int i = 0; i < AMOSTRAS; i++) {
+            assertEquals(0, formatado.errorsFor(gerador.renavam(Defeito.NENHUM, true)));
+            assertEquals(0, semFormato.errorsFor(gerador.renavam(Defeito.NENHUM, false)));
+            assertEquals(BaseValidator.maskOf(RenavamError.INVALID_CHECK_DIGIT), formatado.errorsFor(gerador
+                    .renavam(Defeito.DV_INVALIDO, true)));
+        }
+    }
+
+    @Test
+    public void shouldGenerateDigitsMatchingFormattedDocuments() {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(6);
+        GeradorDeDocumentos outro = new GeradorDeDocumentos(6);
+        long cpf = gerador.cpf(Defeito.NENHUM);
+        assertTrue(CPFValidator.hasValidCheckDigits(cpf));
+        assertEquals(outro.cpf(Defeito.NENHUM, false), String.format("%011d", cpf));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectDefectThatDoesNotApply() {
+        new GeradorDeDocumentos(7).cnpj(Defeito.DIGITOS_REPETIDOS);
+    }
+
+}
@@ -0,0 +1,178 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndiceDeDocumentosTest {
+
+    private File arquivoTemporario() throws IOException {
+        File arquivo = File.createTempFile("stella", ".idx");
+        arquivo.deleteOnExit();
+        return arquivo;
+    }
+
+    private IndiceDeDocumentos indiceDe(EscritorDeIndice escritor) throws IOException {
+        File arquivo = arquivoTemporario();
+        escritor.escreve(arquivo);
+        return IndiceDeDocumentos.abre(arquivo);
+    }
+
+    private static String cpfCom(int base) {
+        StringBuilder cpf = new StringBuilder(String.format("%09d", base));
+        for (int dv = 0; dv < 2; dv++) {
+            int soma = 0;
+            for (int i = 0; i < cpf.length(); i++) {
+                soma += (cpf.charAt(i) - '0') * (cpf.length() + 1 - i);
+            }
+            int resto = soma % 11;
+            cpf.append(resto < 2 ? 0 : 11 - resto);
+        }
+        return cpf.toString();
+    }
+
+    @Test
+    public void shouldFindDocumentsInAnyFormat() throws IOException {
+        EscritorDeIndice escritor = new EscritorDeIndice(0);
+        assertTrue(escritor.adiciona("248.438.034-80"));
+        assertTrue(escritor.adiciona("63025530000104"));
+        IndiceDeDocumentos indice = indiceDe(escritor);
+        assertEquals(2, indice.getQuantidade());
+        assertEquals(0, indice.getLarguraDoConteudo());
+        assertTrue(indice.contem("24843803480"));
+        assertTrue(indice.contem("63.025.530/0001-04"));
+        assertFalse(indice.contem("111.444.777-35"));
+        assertFalse(indice.contem("248.438.034-70"));
+        assertFalse(indice.contem(null));
+    }
+
+    @Test
+    public void shouldIgnoreInvalidDocuments() throws IOException {
+        EscritorDeIndice escritor = new EscritorDeIndice(0);
+        assertFalse(escritor.adiciona("248.438.034-70"));
+        assertFalse(escritor.adiciona("abc"));
+        assertFalse(escritor.adiciona(null));
+        IndiceDeDocumentos indice = indiceDe(escritor);
+        assertEquals(0, indice.getQuantidade());
+        assertFalse(indice.contem("248.438.034-80"));
+    }
+
+    @Test
+    public void shouldKeepLastContentOfRepeatedDocument() throws IOException {
+        EscritorDeIndice escritor = new EscritorDeIndice(2);
+        escritor.adiciona("248.438.034-80", new byte[] { 1, 2 });
+        escritor.adiciona("63025530000104", new byte[] { 3, 4 });
+        escritor.adiciona("24843803480", new byte[] { 5, 6 });
+        IndiceDeDocumentos indice = indiceDe(escritor);
+        assertEquals(2, indice.getQuantidade());
+
+        byte[] conteudo = new byte[2];
+        assertTrue(indice.conteudoDe("248.438.034-80", conteudo));
+        assertEquals(5, conteudo[0]);
+        assertEquals(6, conteudo[1]);
+        assertTrue(indice.conteudoDe("63.025.530/0001-04", conteudo));
+        assertEquals(3, conteudo[0]);
+        assertEquals(4, conteudo[1]);
+        assertFalse(indice.conteudoDe("111.444.777-35", conteudo));
+        assertEquals(3, conteudo[0]);
+    }
+
+    @Test
+    public void shouldFindEveryDocumentOfLargeIndex() throws IOException {
+        Random random = new Random(42);
+        int[] bases = new int[20000];
+        EscritorDeIndice escritor = new EscritorDeIndice(4);
+        for (int i = 0; i < bases.length; i++) {
+            bases[i] = random.nextInt(1000000000);
+            escritor.adiciona(cpfCom(bases[i]), new byte[] { 0, 0, (byte) (bases[i] >> 8), (byte) bases[i] });
+        }
+        IndiceDeDocumentos indice = indiceDe(escritor);
+        byte[] conteudo = new byte[4];
+        for (int base : bases) {
+            assertTrue(indice.conteudoDe(cpfCom(base), conteudo));
+            assertEquals((byte) base, conteudo[3]);
+        }
+        int[] ordenadas = bases.clone();
+        Arrays.sort(ordenadas);
+        for (int i = 0; i < 1000; i++) {
+            int base = random.nextInt(1000000000);
+            assertEquals(Arrays.binarySearch(ordenadas, base) >= 0, indice.contem(cpfCom(base)));
+        }
+    }
+
+    @Test
+    public void shouldRejectContentOfWrongWidth() {
+        try {
+            new EscritorDeIndice(2).adiciona("248.438.034-80", new byte[3]);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void shouldRejectFileThatIsNotAnIndex() throws IOException {
+        File arquivo = arquivoTemporario();
+        FileOutputStream out = new FileOutputStream(arquivo);
+        try {
+            out.write("248.438.034-80\n63025530000104\n".getBytes("US-ASCII"));
+        } finally {
+            out.close();
+        }
+        try {
+            IndiceDeDocumentos.abre(arquivo);
+            fail();
+        } catch (IOException e) {
+        }
+    }
+
+    @Test
+    public void shouldRejectFileOf2GBOrMore() throws IOException {
+        File arquivo = arquivoTemporario();
+        RandomAccessFile file = new RandomAccessFile(arquivo, "rw");
+        try {
+            file.setLength(Integer.MAX_VALUE + 1L);
+        } finally {
+            file.close();
+        }
+        try {
+            IndiceDeDocumentos.abre(arquivo);
+            fail();
+        } catch (IOException e) {
+        } finally {
+            arquivo.delete();
+        }
+    }
+
+    @Test
+    public void shouldLimitDocumentsToWhatFitsIn2GB() throws IOException {
+        assertEquals(268435453, IndiceDeDocumentos.maximoDeDocumentos(0));
+        assertEquals(53687090, IndiceDeDocumentos.maximoDeDocumentos(32));
+        try {
+            new EscritorDeIndice(Integer.MAX_VALUE);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        EscritorDeIndice escritor = new EscritorDeIndice(0, 3);
+        for (int base = 1; base <= 3; base++) {
+            assertTrue(escritor.adiciona(cpfCom(base)));
+        }
+        try {
+            escritor.adiciona(cpfCom(4));
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        assertEquals(3, indiceDe(escritor).getQuantidade());
+    }
+
+}
@@ -0,0 +1,66 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.SimpleValidationMessage;
+import br.com.caelum.stella.ValidationMessage;
+
+public class InvalidStateExceptionTest {
+
+    private InvalidStateException rejectionOf(Validator<String> validator, String value) {
+        try {
+            validator.assertValid(value);
+            fail();
+            return null;
+        } catch (InvalidStateException e) {
+            return e;
+        }
+    }
+
+    private CPFValidator stacklessValidator() {
+        return new CPFValidator(new SimpleMessageProducer(), true, true, null, false);
+    }
+
+    @Test
+    public void shouldHaveStackTraceByDefault() {
+        InvalidStateException exception = new InvalidStateException(new SimpleValidationMessage("message"));
+        assertTrue(exception.getStackTrace().length > 0);
+        assertTrue(rejectionOf(new CPFValidator(), "248.438.034-70").getStackTrace().length > 0);
+    }
+
+    @Test
+    public void shouldNotFillStackTraceWhenValidatorIsStackless() {
+        InvalidStateException exception = rejectionOf(stacklessValidator(), "248.438.034-70");
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    public void shouldHandOutModifiableMessagesWhenValidatorIsStackless() {
+        CPFValidator validator = stacklessValidator();
+        List<ValidationMessage> messages = rejectionOf(validator, "248.438.034-70").getInvalidMessages();
+        assertEquals("CPFError : INVALID CHECK DIGITS", messages.get(0).getMessage());
+
+        messages.add(new SimpleValidationMessage("message"));
+        assertEquals(2, messages.size());
+
+        List<ValidationMessage> others = rejectionOf(validator, "111.222.333-44").getInvalidMessages();
+        assertEquals(1, others.size());
+        assertEquals("CPFError : INVALID CHECK DIGITS", others.get(0).getMessage());
+        others.clear();
+        assertEquals(1, rejectionOf(validator, "111.222.333-44").getInvalidMessages().size());
+    }
+
+    @Test
+    public void shouldDescribeMessagesWhenValidatorIsStackless() {
+        InvalidStateException exception = rejectionOf(stacklessValidator(), "248.438.034-70");
+        assertEquals("Validation errors: " + exception.getInvalidMessages(), exception.getMessage());
+    }
+
+}
@@ -0,0 +1,96 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.junit.Test;
+
+import br.com.caelum.stella.MessageProducer;
+import br.com.caelum.stella.validation.error.CNPJError;
+import br.com.caelum.stella.validation.error.CPFError;
+
+public class LogicOrComposedValidatorTest {
+
+    @SuppressWarnings("unchecked")
+    private LogicOrComposedValidator<String> newValidator(MessageProducer messageProducer) {
+        return new LogicOrComposedValidator<String>(messageProducer, new CPFValidator(messageProducer, true),
+                new CNPJValidator(messageProducer, true));
+    }
+
+    @Test
+    public void shouldAcceptValueValidForAnyValidatorWithoutGeneratingMessages() {
+        Mockery mockery = new Mockery();
+        final MessageProducer messageProducer = mockery.mock(MessageProducer.class);
+        mockery.checking(new Expectations());
+
+        LogicOrComposedValidator<String> validator = newValidator(messageProducer);
+        validator.assertValid("248.438.034-80");
+        validator.assertValid("63.025.530/0001-04");
+        assertTrue(validator.isValid("63.025.530/0001-04"));
+        assertTrue(validator.invalidMessagesFor("248.438.034-80").isEmpty());
+
+        mockery.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldGenerateMessagesOnlyForLastEligibleValidator() {
+        Mockery mockery = new Mockery();
+        final MessageProducer messageProducer = mockery.mock(MessageProducer.class);
+        mockery.checking(new Expectations() {
+            {
+                exactly(1).of(messageProducer).getMessage(CNPJError.INVALID_CHECK_DIGITS);
+            }
+        });
+
+        LogicOrComposedValidator<String> validator = newValidator(messageProducer);
+        try {
+            validator.assertValid("63.025.530/0001-05");
+            fail();
+        } catch (InvalidStateException e) {
+            assertEquals(1, e.getInvalidMessages().size());
+        }
+        assertFalse(validator.isValid("63.025.530/0001-05"));
+        assertEquals(BaseValidator.maskOf(CNPJError.INVALID_CHECK_DIGITS), validator.errorsFor("63.025.530/0001-05"));
+
+        mockery.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldReportInvalidFormatWhenNoValidatorIsEligible() {
+        Mockery mockery = new Mockery();
+        final MessageProducer messageProducer = mockery.mock(MessageProducer.class);
+        mockery.checking(new Expectations() {
+            {
+                exactly(1).of(messageProducer).getMessage(CPFError.INVALID_FORMAT);
+            }
+        });
+
+        @SuppressWarnings("unchecked")
+        LogicOrComposedValidator<String> validator = new LogicOrComposedValidator<String>(messageProducer,
+                CPFError.INVALID_FORMAT, new CPFValidator(messageProducer, true), new CNPJValidator(messageProducer,
+                        true));
+        assertEquals(1, validator.invalidMessagesFor("123").size());
+        assertEquals(BaseValidator.maskOf(CPFError.INVALID_FORMAT), validator.errorsFor("123"));
+
+        mockery.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldNotConfuseDefaultInvalidFormatWithFirstEnumError() {
+        Mockery mockery = new Mockery();
+        final MessageProducer messageProducer = mockery.mock(MessageProducer.class);
+        mockery.checking(new Expectations());
+
+        LogicOrComposedValidator<String> validator = newValidator(messageProducer);
+        int errors = validator.errorsFor("123");
+        assertEquals(BaseValidator.ERRO_NAO_ENUMERADO, errors);
+        assertTrue(BaseValidator.invalidValuesOf(errors, CPFError.class).isEmpty());
+
+        mockery.assertIsSatisfied();
+    }
+
+}
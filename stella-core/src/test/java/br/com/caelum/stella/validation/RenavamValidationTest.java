@@ -5,6 +5,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.List;
 
 import org.jmock.Expectations;
@@ -12,6 +14,7 @@ import org.jmock.Mockery;
 import org.junit.Test;
 
 import br.com.caelum.stella.MessageProducer;
+import br.com.caelum.stella.SimpleMessageProducer;
 import br.com.caelum.stella.ValidationMessage;
 import br.com.caelum.stella.validation.error.RenavamError;
 
@@ -163,4 +166,84 @@ public class RenavamValidationTest {
 
         mockery.assertIsSatisfied();
     }
+
+    @Test
+    public void shouldValidateCharSequenceAndSliceOfBuffer() {
+        RenavamValidator validator = new RenavamValidator();
+        assertTrue(validator.isValid(new StringBuilder(validFormattedRenavam1)));
+        assertFalse(validator.isValid(new StringBuilder(renavamFormattedWithInvalidCheckDigit)));
+
+        char[] buffer = (validFormattedRenavam2 + renavamFormattedWithInvalidCheckDigit).toCharArray();
+        assertTrue(validator.isValid(buffer, 0, 11));
+        assertFalse(validator.isValid(buffer, 11, 11));
+
+        RenavamValidator unformatted = new RenavamValidator(false);
+        assertTrue(unformatted.isValid(new StringBuilder(validUnformattedRenavam2)));
+        assertFalse(unformatted.isValid(new StringBuilder(renavamUnformattedWithInvalidCheckDigit)));
+    }
+
+    @Test
+    public void shouldValidateAsciiBytesWithoutDecoding() throws Exception {
+        RenavamValidator validator = new RenavamValidator();
+        byte[] bytes = (validFormattedRenavam2 + renavamFormattedWithInvalidCheckDigit).getBytes("US-ASCII");
+        assertTrue(validator.isValidAscii(bytes, 0, 11));
+        assertFalse(validator.isValidAscii(bytes, 11, 11));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.position(0).limit(11);
+        assertTrue(validator.isValidAscii(direct));
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void shouldConsiderNullValidInEveryOverload() {
+        RenavamValidator validator = new RenavamValidator();
+        assertTrue(validator.isValid((String) null));
+        assertTrue(validator.isValid((CharSequence) null));
+        assertEquals(0, validator.errorsFor((String) null));
+        assertTrue(validator.invalidMessagesFor(null).isEmpty());
+        validator.assertValid(null);
+    }
+
+    @Test
+    public void shouldOnlyAcceptDotAsFirstSeparator() {
+        RenavamValidator validator = new RenavamValidator();
+        assertFalse(validator.isEligible("73x640767-7"));
+        assertEquals(BaseValidator.maskOf(RenavamError.INVALID_DIGITS), validator.errorsFor("73x640767-7"));
+    }
+
+    @Test
+    public void shouldValidateAllValuesOfBatch() {
+        BatchValidator validator = new RenavamValidator();
+        CharSequence[] values = { validFormattedRenavam1, renavamFormattedWithInvalidCheckDigit,
+                renavamWithLessThenNineDigits, null };
+
+        BitSet valid = new BitSet();
+        validator.validateAll(values, valid);
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(3);
+        assertEquals(expected, valid);
+
+        byte[] errors = new byte[values.length];
+        validator.validateAll(values, errors);
+        assertEquals(0, errors[0]);
+        assertEquals(BaseValidator.maskOf(RenavamError.INVALID_CHECK_DIGIT), errors[1]);
+        assertEquals(BaseValidator.maskOf(RenavamError.INVALID_DIGITS), errors[2]);
+        assertEquals(0, errors[3]);
+    }
+
+    @Test
+    public void shouldRejectWithoutStackTraceWhenAsked() {
+        RenavamValidator validator = new RenavamValidator(new SimpleMessageProducer(), true, false);
+        try {
+            validator.assertValid(renavamFormattedWithInvalidCheckDigit);
+            fail();
+        } catch (InvalidStateException e) {
+            assertEquals(0, e.getStackTrace().length);
+            assertEquals("RenavamError : INVALID CHECK DIGIT", e.getInvalidMessages().get(0).getMessage());
+        }
+    }
+
 }
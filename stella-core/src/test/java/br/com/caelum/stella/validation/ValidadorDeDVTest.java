@@ -1,5 +1,6 @@
 package br.com.caelum.stella.validation;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -113,4 +114,85 @@ public class ValidadorDeDVTest {
         assertFalse(dvIsValid);
     }
 
+    private ValidadorDeDV validadorRJ(RotinaDeDigitoVerificador segundaRotina) {
+        RotinaDeDigitoVerificador[] rotinas = { IEConstraints.Rotina.E, segundaRotina };
+        DigitoVerificadorInfo info = new DigitoVerificadorInfo(0, rotinas, 11, IEConstraints.P8, 14);
+        return new ValidadorDeDV(info);
+    }
+
+    @Test
+    public void testDVConsideraZerosAEsquerdaNaoPresentesNaCadeia() {
+        ValidadorDeDV verificador = validadorRJ(IEConstraints.Rotina.POS_IE);
+        assertTrue(verificador.isDVValid("80336012", 14));
+        assertFalse(verificador.isDVValid("80336013", 14));
+        assertTrue(verificador.isDVValid("84920045", IEConstraints.PRE_VALIDATION_LENGTH));
+    }
+
+    @Test
+    public void testDVAceitaQualquerCharSequence() {
+        ValidadorDeDV verificador = validadorRJ(IEConstraints.Rotina.POS_IE);
+        assertTrue(verificador.isDVValid(new StringBuilder("00000080336012")));
+        assertFalse(verificador.isDVValid(new StringBuilder("00000080336013")));
+    }
+
+    @Test
+    public void testDVAceitaValorNumerico() {
+        ValidadorDeDV verificador = validadorRJ(IEConstraints.Rotina.POS_IE);
+        assertTrue(verificador.isDVValid(80336012L, 14));
+        assertFalse(verificador.isDVValid(80336013L, 14));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDVRejeitaCadeiaMaiorQueAQuantidadeDeDigitos() {
+        validadorRJ(IEConstraints.Rotina.POS_IE).isDVValid("000000080336012", 14);
+    }
+
+    @Test
+    public void testDVComRotinaNaoPrimitivaUtilizaRotinaParameters() {
+        RotinaDeDigitoVerificador posIE = new RotinaDeDigitoVerificador() {
+            public Integer transform(RotinaParameters parameter) {
+                return IEConstraints.Rotina.POS_IE.transform(parameter);
+            }
+        };
+        ValidadorDeDV verificador = validadorRJ(posIE);
+        assertTrue(verificador.isDVValid("00000080336012"));
+        assertTrue(verificador.isDVValid("80336012", 14));
+        assertTrue(verificador.isDVValid(80336012L, 14));
+        assertFalse(verificador.isDVValid("00000084920048"));
+    }
+
+    @Test
+    public void testCalculaDVIgnorandoODigitoEmSuaPosicao() {
+        ValidadorDeDV verificador = validadorRJ(IEConstraints.Rotina.POS_IE);
+        assertEquals(2, verificador.calculaDV(80336012L, 14));
+        assertEquals(2, verificador.calculaDV(80336019L, 14));
+        assertEquals(80336012L, verificador.completaDV(80336010L, 14));
+        assertEquals(84920045L, verificador.completaDV(84920047L, 14));
+    }
+
+    @Test
+    public void testCalculaDVComRotinaNaoPrimitiva() {
+        RotinaDeDigitoVerificador posIE = new RotinaDeDigitoVerificador() {
+            public Integer transform(RotinaParameters parameter) {
+                return IEConstraints.Rotina.POS_IE.transform(parameter);
+            }
+        };
+        assertEquals(80336012L, validadorRJ(posIE).completaDV(80336015L, 14));
+    }
+
+    @Test
+    public void testCompletaDVSemDigitoPossivel() {
+        DigitoVerificadorInfo info = new DigitoVerificadorInfo(0,
+                new RotinaDeDigitoVerificador[] { IEConstraints.Rotina.E }, 11, IEConstraints.P8, 14);
+        ValidadorDeDV verificador = new ValidadorDeDV(info);
+        for (long numero = 80336000L; numero < 80336100L; numero += 10) {
+            long completo = verificador.completaDV(numero, 14);
+            if (completo == ValidadorDeDV.SEM_DV) {
+                assertTrue(verificador.calculaDV(numero, 14) > 9);
+            } else {
+                assertTrue(verificador.isDVValid(completo, 14));
+            }
+        }
+    }
+
 }
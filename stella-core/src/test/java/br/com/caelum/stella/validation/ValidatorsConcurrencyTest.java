@@ -0,0 +1,212 @@
+package br.com.caelum.stella.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.ie.GeradorDeIE;
+import br.com.caelum.stella.validation.ie.IEValidatorRegistry;
+
+/**
+ * Valida o mesmo conjunto de documentos com os validadores compartilhados de
+ * {@link Validators}, a partir de várias threads ao mesmo tempo, e compara os
+ * resultados com os de validadores novos, usados por uma única thread.
+ */
+public class ValidatorsConcurrencyTest {
+
+    private static final int THREADS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+
+    private static final int RODADAS = 20;
+
+    private static final int DOCUMENTOS_POR_TIPO = 200;
+
+    @Test
+    public void shouldReturnSameInstances() {
+        assertSame(Validators.cpf(true), Validators.cpf(true));
+        assertSame(Validators.cpf(false), Validators.cpf(false, true));
+        assertSame(Validators.cnpj(false), Validators.cnpj(false));
+        assertSame(IEValidatorRegistry.getInstance(true).getValidator(Estado.SP), Validators.ie(Estado.SP, true));
+    }
+
+    @Test
+    public void shouldValidateConsistentlyUnderContention() throws InterruptedException {
+        final List<Caso> casos = casos();
+        final ConcurrentLinkedQueue<String> falhas = new ConcurrentLinkedQueue<String>();
+        executaEmParalelo(new Tarefa() {
+            public void executa(int thread) {
+                for (int rodada = 0; rodada < RODADAS; rodada++) {
+                    // cada thread percorre os casos a partir de um ponto diferente
+                    for (int i = 0; i < casos.size(); i++) {
+                        Caso caso = casos.get((i + thread * 97 + rodada * 31) % casos.size());
+                        String falha = caso.confere();
+                        if (falha != null) {
+                            falhas.add(falha);
+                            return;
+                        }
+                    }
+                }
+            }
+        });
+        assertTrue(falhas.toString(), falhas.isEmpty());
+    }
+
+    @Test
+    public void shouldValidateBatchesConsistentlyUnderContention() throws InterruptedException {
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(11);
+        final CharSequence[] cpfs = new CharSequence[DOCUMENTOS_POR_TIPO];
+        final BitSet esperado = new BitSet();
+        for (int i = 0; i < cpfs.length; i++) {
+            boolean valido = i % 3 != 0;
+            cpfs[i] = gerador.cpf(valido ? Defeito.NENHUM : Defeito.DV_INVALIDO, true);
+            esperado.set(i, valido);
+        }
+        final ConcurrentLinkedQueue<String> falhas = new ConcurrentLinkedQueue<String>();
+        executaEmParalelo(new Tarefa() {
+            public void executa(int thread) {
+                BitSet validos = new BitSet();
+                for (int rodada = 0; rodada < RODADAS * 10; rodada++) {
+                    Validators.cpf(true).validateAll(cpfs, validos);
+                    if (!validos.equals(esperado)) {
+                        falhas.add("thread " + thread + ": " + validos + " != " + esperado);
+                        return;
+                    }
+                }
+            }
+        });
+        assertTrue(falhas.toString(), falhas.isEmpty());
+    }
+
+    /**
+     * Documentos válidos, inválidos e malformados de todos os tipos, com o
+     * resultado esperado calculado por validadores novos.
+     */
+    private List<Caso> casos() {
+        List<Caso> casos = new ArrayList<Caso>();
+        GeradorDeDocumentos gerador = new GeradorDeDocumentos(7);
+        GeradorDeIE geradorDeIE = new GeradorDeIE(7);
+        SimpleMessageProducer producer = new SimpleMessageProducer();
+        for (int i = 0; i < DOCUMENTOS_POR_TIPO; i++) {
+            boolean isFormatted = i % 2 == 0;
+            Defeito defeito = i % 4 < 2 ? Defeito.NENHUM : Defeito.DV_INVALIDO;
+            Defeito defeitoDoCPF = i % 10 == 9 ? Defeito.DIGITOS_REPETIDOS : defeito;
+            casos.add(new Caso(Validators.cpf(isFormatted, false), new CPFValidator(producer, isFormatted, false),
+                    gerador.cpf(defeitoDoCPF, isFormatted)));
+            casos.add(new Caso(Validators.cpf(isFormatted), new CPFValidator(isFormatted), gerador.cpf(defeitoDoCPF,
+                    isFormatted)));
+            casos.add(new Caso(Validators.cnpj(isFormatted), new CNPJValidator(isFormatted), gerador.cnpj(defeito,
+                    isFormatted)));
+            casos.add(new Caso(Validators.nit(isFormatted), new NITValidator(isFormatted), gerador.nit(defeito,
+                    isFormatted)));
+            casos.add(new Caso(Validators.tituloEleitoral(isFormatted), new TituloEleitoralValidator(isFormatted),
+                    gerador.tituloEleitoral(defeito, isFormatted)));
+            casos.add(new Caso(Validators.renavam(isFormatted), new RenavamValidator(isFormatted), gerador.renavam(
+                    defeito, isFormatted)));
+            casos.add(new Caso(Validators.cpf(isFormatted), new CPFValidator(isFormatted), "não é um CPF " + i));
+            Estado estado = Estado.values()[i % Estado.values().length];
+            casos.add(new Caso(Validators.ie(estado, isFormatted), estado.getIEValidator(producer, isFormatted),
+                    geradorDeIE.gera(estado, defeito, isFormatted)));
+            casos.add(new Caso(Validators.ie(estado, isFormatted), estado.getIEValidator(producer, isFormatted),
+                    "0"));
+        }
+        return casos;
+    }
+
+    private static void executaEmParalelo(final Tarefa tarefa) throws InterruptedException {
+        final CountDownLatch largada = new CountDownLatch(1);
+        final CountDownLatch chegada = new CountDownLatch(THREADS);
+        final ConcurrentLinkedQueue<Throwable> erros = new ConcurrentLinkedQueue<Throwable>();
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            new Thread("validators-" + i) {
+                @Override
+                public void run() {
+                    try {
+                        largada.await();
+                        tarefa.executa(thread);
+                    } catch (Throwable e) {
+                        erros.add(e);
+                    } finally {
+                        chegada.countDown();
+                    }
+                }
+            }.start();
+        }
+        largada.countDown();
+        assertTrue("threads não terminaram", chegada.await(60, TimeUnit.SECONDS));
+        assertEquals(erros.toString(), 0, erros.size());
+    }
+
+    private interface Tarefa {
+
+        void executa(int thread) throws Exception;
+
+    }
+
+    private static final class Caso {
+
+        private final Validator<String> compartilhado;
+
+        private final String valor;
+
+        private final int erros;
+
+        private final boolean isEligible;
+
+        private final List<String> mensagens;
+
+        Caso(Validator<String> compartilhado, Validator<String> novo, String valor) {
+            this.compartilhado = compartilhado;
+            this.valor = valor;
+            this.erros = novo.errorsFor(valor);
+            this.isEligible = novo.isEligible(valor);
+            this.mensagens = textos(novo.invalidMessagesFor(valor));
+        }
+
+        /**
+         * @return descrição da divergência, ou <code>null</code> se o
+         *         validador compartilhado se comportou como o novo.
+         */
+        String confere() {
+            if (compartilhado.errorsFor(valor) != erros || compartilhado.isValid(valor) != (erros == 0)
+                    || compartilhado.isEligible(valor) != isEligible) {
+                return valor + ": resultado divergente";
+            }
+            if (!textos(compartilhado.invalidMessagesFor(valor)).equals(mensagens)) {
+                return valor + ": mensagens divergentes";
+            }
+            try {
+                compartilhado.assertValid(valor);
+                if (erros != 0) {
+                    return valor + ": deveria ser inválido";
+                }
+            } catch (InvalidStateException e) {
+                if (erros == 0 || !textos(e.getInvalidMessages()).equals(mensagens)) {
+                    return valor + ": exception divergente";
+                }
+            }
+            return null;
+        }
+
+        private static List<String> textos(List<ValidationMessage> mensagens) {
+            List<String> result = new ArrayList<String>();
+            for (ValidationMessage mensagem : mensagens) {
+                result.add(mensagem.getMessage());
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package br.com.caelum.stella.validation.arquivo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.validation.BaseValidator;
+import br.com.caelum.stella.validation.CPFValidator;
+import br.com.caelum.stella.validation.error.CPFError;
+import br.com.caelum.stella.validation.error.IEError;
+
+public class ValidadorDeArquivoTest {
+
+    private static final String VALIDO = "248.438.034-80";
+
+    private static final String DV_INVALIDO = "248.438.034-70";
+
+    private static final String FORMATO_INVALIDO = "248.438.03480";
+
+    private File arquivoCom(String conteudo) throws IOException {
+        File arquivo = File.createTempFile("stella", ".txt");
+        arquivo.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(arquivo);
+        try {
+            out.write(conteudo.getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+        return arquivo;
+    }
+
+    @Test
+    public void shouldReportInvalidLinesWithTheirOffsetsAndErrors() throws IOException {
+        String conteudo = VALIDO + "\n" + DV_INVALIDO + "\r\n\n" + FORMATO_INVALIDO + "\n" + VALIDO;
+        File arquivo = arquivoCom(conteudo);
+
+        List<RegistroInvalido> invalidos = new ValidadorDeArquivo(new CPFValidator()).valida(arquivo);
+
+        List<RegistroInvalido> expected = new ArrayList<RegistroInvalido>();
+        expected.add(new RegistroInvalido(2, 15, BaseValidator.maskOf(CPFError.INVALID_CHECK_DIGITS)));
+        expected.add(new RegistroInvalido(4, 32, BaseValidator.maskOf(CPFError.INVALID_FORMAT)));
+        assertEquals(expected, invalidos);
+    }
+
+    @Test
+    public void shouldNumberLinesAcrossBlocks() throws IOException {
+        StringBuilder conteudo = new StringBuilder();
+        List<RegistroInvalido> expected = new ArrayList<RegistroInvalido>();
+        int posicao = 0;
+        for (int linha = 1; linha <= 1000; linha++) {
+            String cpf = linha % 7 == 0 ? DV_INVALIDO : VALIDO;
+            if (linha % 7 == 0) {
+                expected.add(new RegistroInvalido(linha, posicao, BaseValidator.maskOf(CPFError.INVALID_CHECK_DIGITS)));
+            }
+            conteudo.append(cpf).append('\n');
+            posicao += cpf.length() + 1;
+        }
+        File arquivo = arquivoCom(conteudo.toString());
+
+        ValidadorDeArquivo validador = new ValidadorDeArquivo(new CPFValidator()).comTamanhoDoBloco(100);
+        assertEquals(expected, validador.valida(arquivo));
+    }
+
+    @Test
+    public void shouldValidateIEOfEachState() throws IOException {
+        String conteudo = "SP,P-01100424.3/002\nMG;062.307.904/0045\nXX,062.307.904/0081\n062.307.904/0081\n"
+                + "MG,062.307.904/0081\n";
+        File arquivo = arquivoCom(conteudo);
+
+        List<RegistroInvalido> invalidos = ValidadorDeArquivo.deInscricoesEstaduais(true).valida(arquivo);
+
+        List<RegistroInvalido> expected = new ArrayList<RegistroInvalido>();
+        expected.add(new RegistroInvalido(2, 20, BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS)));
+        expected.add(new RegistroInvalido(3, 40, BaseValidator.maskOf(IEError.UNDEFINED_STATE)));
+        expected.add(new RegistroInvalido(4, 60, BaseValidator.maskOf(IEError.UNDEFINED_STATE)));
+        assertEquals(expected, invalidos);
+    }
+
+    @Test
+    public void shouldValidateIEOfStatesWithTwoFormats() throws IOException {
+        String conteudo = "SP,110.042.490.114\nPE;0321418-40\nPE,18.1.001.0000004-3\nSP,P-01100424.0/002\n"
+                + "SP,110.042.490\n";
+        File arquivo = arquivoCom(conteudo);
+
+        List<RegistroInvalido> invalidos = ValidadorDeArquivo.deInscricoesEstaduais(true).valida(arquivo);
+
+        List<RegistroInvalido> expected = new ArrayList<RegistroInvalido>();
+        expected.add(new RegistroInvalido(3, 33, BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS)));
+        expected.add(new RegistroInvalido(4, 55, BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS)));
+        expected.add(new RegistroInvalido(5, 75, BaseValidator.maskOf(IEError.INVALID_FORMAT)));
+        assertEquals(expected, invalidos);
+    }
+
+    @Test
+    public void shouldAcceptEmptyFile() throws IOException {
+        File arquivo = arquivoCom("");
+        assertEquals(new ArrayList<RegistroInvalido>(), new ValidadorDeArquivo(new CPFValidator()).valida(arquivo));
+    }
+
+}
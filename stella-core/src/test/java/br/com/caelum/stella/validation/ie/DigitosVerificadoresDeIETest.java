@@ -0,0 +1,58 @@
+package br.com.caelum.stella.validation.ie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.Defeito;
+
+public class DigitosVerificadoresDeIETest {
+
+    @Test
+    public void shouldCompleteFormattedAndUnformattedIEs() {
+        char[] formatada = "01.004.823/001-00".toCharArray();
+        assertTrue(DigitosVerificadoresDeIE.completa(Estado.AC, formatada));
+        assertEquals("01.004.823/001-12", new String(formatada));
+
+        char[] semFormato = "110042490110".toCharArray();
+        assertTrue(DigitosVerificadoresDeIE.completa(Estado.SP, semFormato));
+        assertEquals("110042490114", new String(semFormato));
+    }
+
+    @Test
+    public void shouldCompleteIEInsideBuffer() {
+        char[] buffer = "x;01.004.823/001-99;y".toCharArray();
+        assertTrue(DigitosVerificadoresDeIE.completa(Estado.AC, buffer, 2, 17));
+        assertEquals("x;01.004.823/001-12;y", new String(buffer));
+    }
+
+    @Test
+    public void shouldNotChangeIEOfAnotherEstado() {
+        char[] ie = "01.004.823/001-00".toCharArray();
+        assertFalse(DigitosVerificadoresDeIE.completa(Estado.SP, ie));
+        assertEquals("01.004.823/001-00", new String(ie));
+    }
+
+    @Test
+    public void shouldRebuildGeneratedIEsForEveryEstado() {
+        GeradorDeIE gerador = new GeradorDeIE(3);
+        for (Estado estado : Estado.values()) {
+            for (int i = 0; i < 50; i++) {
+                String valida = gerador.gera(estado, Defeito.NENHUM, i % 2 == 0);
+                char[][] ies = { gerador.gera(estado, Defeito.DV_INVALIDO, i % 2 == 0).toCharArray() };
+                char[] ie = valida.toCharArray();
+                assertTrue(estado + ": " + valida, DigitosVerificadoresDeIE.completa(estado, ie));
+                assertEquals(valida, new String(ie));
+                BitSet completadas = new BitSet();
+                DigitosVerificadoresDeIE.completaTodas(estado, ies, completadas);
+                assertTrue(estado + ": " + new String(ies[0]), completadas.get(0));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package br.com.caelum.stella.validation.ie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.BaseValidator;
+import br.com.caelum.stella.validation.Defeito;
+import br.com.caelum.stella.validation.Validator;
+import br.com.caelum.stella.validation.error.IEError;
+
+public class GeradorDeIETest {
+
+    private static final int AMOSTRAS = 500;
+
+    @Test
+    public void shouldGenerateValidIEsForEveryEstado() {
+        GeradorDeIE gerador = new GeradorDeIE(1);
+        for (Estado estado : Estado.values()) {
+            Validator<String> formatado = IEValidatorRegistry.getInstance(true).getValidator(estado);
+            Validator<String> semFormato = IEValidatorRegistry.getInstance(false).getValidator(estado);
+            for (int i = 0; i < AMOSTRAS; i++) {
+                String ie = gerador.gera(estado, Defeito.NENHUM, true);
+                assertTrue(estado + ": " + ie, formatado.invalidMessagesFor(ie).isEmpty());
+                ie = gerador.gera(estado, Defeito.NENHUM, false);
+                assertTrue(estado + ": " + ie, semFormato.invalidMessagesFor(ie).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void shouldGenerateEveryFormatOfEstado() {
+        GeradorDeIE gerador = new GeradorDeIE(2);
+        Set<Integer> tamanhos = new HashSet<Integer>();
+        for (int i = 0; i < AMOSTRAS; i++) {
+            tamanhos.add(gerador.gera(Estado.SP, Defeito.NENHUM, true).length());
+        }
+        assertEquals(2, tamanhos.size());
+    }
+
+    @Test
+    public void shouldGenerateIEsWithInvalidCheckDigitForEveryEstado() {
+        GeradorDeIE gerador = new GeradorDeIE(3);
+        int dvInvalido = BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS);
+        for (Estado estado : Estado.values()) {
+            for (boolean isFormatted : new boolean[] { true, false }) {
+                Validator<String> validator = IEValidatorRegistry.getInstance(isFormatted).getValidator(estado);
+                for (int i = 0; i < AMOSTRAS; i++) {
+                    String ie = gerador.gera(estado, Defeito.DV_INVALIDO, isFormatted);
+                    assertTrue(estado + ": " + ie, validator.isEligible(ie));
+                    assertTrue(estado + ": " + ie, (validator.errorsFor(ie) & dvInvalido) != 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldGenerateSameIEsForSameSeed() {
+        GeradorDeIE gerador = new GeradorDeIE(4);
+        GeradorDeIE outro = new GeradorDeIE(4);
+        for (Estado estado : Estado.values()) {
+            assertEquals(gerador.gera(estado, Defeito.NENHUM, true), outro.gera(estado, Defeito.NENHUM, true));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectDefectThatDoesNotApply() {
+        new GeradorDeIE(5).gera(Estado.SP, Defeito.DIGITOS_REPETIDOS, true);
+    }
+
+}
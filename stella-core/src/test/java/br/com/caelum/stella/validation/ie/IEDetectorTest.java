@@ -0,0 +1,85 @@
+package br.com.caelum.stella.validation.ie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.type.Estado;
+
+public class IEDetectorTest {
+
+    private final String[] formattedStrings = { "24.000.004-8", "03.012.345-9", "04.193.980-8", "06.000.001-5",
+            "07.408.738/002-50", "082.223.54-8", "10.987.654-7", "12.000.038-5", "28.303.759-8", "0013199075-6",
+            "062.307.904/0081", "15.999.999-5", "16.000.001-7", "123.45678-50", "18.1.001.0000004-9", "19.301.656-7",
+            "78.045.302", "224/3658792", "101.62521-3", "24004145-5", "251.040.852", "P-01100424.3/002",
+            "110.042.490.114", "27123456-3", "29.01.022.783-6", "29.040.636-6", "24.000.004-9", "P-01100424.0/002",
+            "", "2" };
+
+    private final String[] unformattedStrings = { "240000048", "030123459", "060000015", "0740873800250",
+            "082223548", "109876547", "120000385", "283037598", "159999995", "160000017", "193016567", "29010227836",
+            "290406366", "P011004243002", "110042490114", "240000049" };
+
+    private Set<Estado> detectaComTodosOsValidadores(IEValidatorRegistry registry, String ie) {
+        Set<Estado> result = EnumSet.noneOf(Estado.class);
+        for (Estado estado : Estado.values()) {
+            if (registry.getValidator(estado).isValid(ie)) {
+                result.add(estado);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void shouldDetectSameEstadosAsEveryValidatorForFormattedStrings() {
+        IEDetector detector = IEDetector.getInstance(true);
+        for (String ie : formattedStrings) {
+            Set<Estado> expected = detectaComTodosOsValidadores(IEValidatorRegistry.getInstance(true), ie);
+            assertEquals(ie, expected, detector.detecta(ie));
+            assertEquals(ie, !expected.isEmpty(), detector.isValidInAnyEstado(ie));
+        }
+    }
+
+    @Test
+    public void shouldDetectSameEstadosAsEveryValidatorForUnformattedStrings() {
+        IEDetector detector = IEDetector.getInstance(false);
+        for (String ie : unformattedStrings) {
+            Set<Estado> expected = detectaComTodosOsValidadores(IEValidatorRegistry.getInstance(false), ie);
+            assertEquals(ie, expected, detector.detecta(ie));
+        }
+    }
+
+    @Test
+    public void shouldDetectOnlyEstadoWithUniqueLayout() {
+        assertEquals(EnumSet.of(Estado.SP), IEDetector.getInstance(true).detecta("P-01100424.3/002"));
+        assertTrue(IEDetector.getInstance(true).detecta("07.408.738/002-50").contains(Estado.DF));
+    }
+
+    @Test
+    public void shouldDetectNoEstadoForNullOrNonAsciiStrings() {
+        IEDetector detector = new IEDetector(true);
+        assertTrue(detector.detecta(null).isEmpty());
+        assertTrue(detector.detecta("é-01100424.3/002").isEmpty());
+        assertFalse(detector.isValidInAnyEstado(null));
+    }
+
+    @Test
+    public void shouldShareImmutableResults() {
+        IEDetector detector = IEDetector.getInstance(true);
+        Set<Estado> detectados = detector.detecta("P-01100424.3/002");
+        assertSame(detectados, detector.detecta("P-01100424.3/002"));
+        assertSame(detector.detecta(null), detector.detecta("123"));
+        try {
+            detectados.add(Estado.AC);
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+    }
+
+}
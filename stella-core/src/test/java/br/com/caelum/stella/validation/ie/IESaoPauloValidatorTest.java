@@ -1,9 +1,12 @@
 package br.com.caelum.stella.validation.ie;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.List;
 
 import org.jmock.Expectations;
@@ -12,6 +15,7 @@ import org.junit.Test;
 
 import br.com.caelum.stella.MessageProducer;
 import br.com.caelum.stella.ValidationMessage;
+import br.com.caelum.stella.validation.BaseValidator;
 import br.com.caelum.stella.validation.InvalidStateException;
 import br.com.caelum.stella.validation.Validator;
 import br.com.caelum.stella.validation.error.IEError;
@@ -178,4 +182,94 @@ public class IESaoPauloValidatorTest {
         mockery.assertIsSatisfied();
     }
 
+    @Test
+    public void shouldReportErrorsOfEligibleValidatorWithoutGeneratingMessages() {
+        Validator<String> validator = new IESaoPauloValidator();
+
+        assertTrue(validator.isValid(validString));
+        assertFalse(validator.isValid(wrongCheckDigitString));
+        assertEquals(BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS), validator.errorsFor(wrongCheckDigitString));
+        assertEquals(BaseValidator.maskOf(IEError.INVALID_FORMAT), validator.errorsFor("P-01100424.3-002"));
+    }
+
+    @Test
+    public void shouldValidateAllValuesOfBatch() {
+        IESaoPauloValidator validator = new IESaoPauloValidator();
+        CharSequence[] values = { validString, wrongCheckDigitString, "110.042.490.114", "P-01100424.3-002" };
+
+        BitSet valid = new BitSet();
+        validator.validateAll(values, valid);
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        assertEquals(expected, valid);
+
+        byte[] errors = new byte[values.length];
+        validator.validateAll(values, errors);
+        assertEquals(0, errors[0]);
+        assertEquals(BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS), errors[1]);
+        assertEquals(0, errors[2]);
+        assertEquals(BaseValidator.maskOf(IEError.INVALID_FORMAT), errors[3]);
+    }
+
+    private CharSequence semCopia(final String value) {
+        return new CharSequence() {
+            public char charAt(int index) {
+                return value.charAt(index);
+            }
+
+            public int length() {
+                return value.length();
+            }
+
+            public CharSequence subSequence(int start, int end) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String toString() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    public void shouldReportErrorsOfCharSequenceWithoutCopyingIt() {
+        IESaoPauloValidator validator = new IESaoPauloValidator();
+        assertEquals(0, validator.errorsFor(semCopia(validString)));
+        assertEquals(0, validator.errorsFor(semCopia("110.042.490.114")));
+        assertEquals(BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS), validator.errorsFor(
+                semCopia(wrongCheckDigitString)));
+        assertEquals(BaseValidator.maskOf(IEError.INVALID_FORMAT), validator.errorsFor(semCopia("P-01100424.3-002")));
+        assertTrue(validator.isEligible(semCopia(wrongCheckDigitString)));
+
+        byte[] errors = new byte[2];
+        validator.validateAll(new CharSequence[] { semCopia(validString), semCopia(wrongCheckDigitString) }, errors);
+        assertEquals(0, errors[0]);
+        assertEquals(BaseValidator.maskOf(IEError.INVALID_CHECK_DIGITS), errors[1]);
+    }
+
+    @Test
+    public void shouldValidateCharSequenceAndSliceOfBufferWithEveryAlternative() {
+        IESaoPauloValidator validator = new IESaoPauloValidator();
+        assertTrue(validator.isValid(new StringBuilder(validString)));
+        assertTrue(validator.isValid(new StringBuilder("110.042.490.114")));
+        assertFalse(validator.isValid(new StringBuilder(wrongCheckDigitString)));
+
+        char[] buffer = (validString + ",110.042.490.114").toCharArray();
+        assertTrue(validator.isValid(buffer, 0, 16));
+        assertTrue(validator.isValid(buffer, 17, 15));
+        assertFalse(validator.isValid(buffer, 0, 17));
+    }
+
+    @Test
+    public void shouldValidateAsciiBytesWithEveryAlternative() throws Exception {
+        IESaoPauloValidator validator = new IESaoPauloValidator();
+        byte[] bytes = (validString + ",110.042.490.114").getBytes("US-ASCII");
+        assertTrue(validator.isValidAscii(bytes, 0, 16));
+        assertTrue(validator.isValidAscii(bytes, 17, 15));
+        assertFalse(validator.isValidAscii(wrongCheckDigitString.getBytes("US-ASCII"), 0, 16));
+        assertTrue(validator.isValidAscii(ByteBuffer.wrap(bytes, 17, 15)));
+    }
+
 }
@@ -0,0 +1,37 @@
+package br.com.caelum.stella.validation.ie;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.com.caelum.stella.SimpleMessageProducer;
+import br.com.caelum.stella.type.Estado;
+
+public class IEValidatorRegistryTest {
+
+    @Test
+    public void shouldHaveValidatorForEveryEstado() {
+        IEValidatorRegistry registry = new IEValidatorRegistry(new SimpleMessageProducer(), false);
+        for (Estado estado : Estado.values()) {
+            assertNotNull(registry.getValidator(estado));
+        }
+    }
+
+    @Test
+    public void shouldReturnSameValidatorOnEveryCall() {
+        IEValidatorRegistry registry = IEValidatorRegistry.getInstance(true);
+        assertSame(registry, IEValidatorRegistry.getInstance(true));
+        assertSame(registry.getValidator(Estado.SP), registry.getValidator(Estado.SP));
+    }
+
+    @Test
+    public void shouldUseFormatOfRegistry() {
+        assertTrue(IEValidatorRegistry.getInstance(true).getValidator(Estado.SP).isValid("P-01100424.3/002"));
+        assertFalse(IEValidatorRegistry.getInstance(false).getValidator(Estado.SP).isValid("P-01100424.3/002"));
+        assertTrue(IEValidatorRegistry.getInstance(false).getValidator(Estado.SP).isValid("P011004243002"));
+    }
+
+}
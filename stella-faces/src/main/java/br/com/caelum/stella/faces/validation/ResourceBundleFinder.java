@@ -2,10 +2,14 @@ package br.com.caelum.stella.faces.validation;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.faces.application.Application;
 import javax.faces.context.FacesContext;
 
+import br.com.caelum.stella.ResourceBundleMessageProducer;
+
 /**
  * Busca o arquivo de mensagens configurado no faces-config.xml: <p/>
  * <code><pre>
@@ -24,12 +28,25 @@ import javax.faces.context.FacesContext;
 public class ResourceBundleFinder {
     private static ResourceBundle STELLA_MESSAGES;
 
+    /**
+     * Limite de produtores guardados. Os ResourceBundles já são guardados pela
+     * própria JVM, um para cada nome e Locale; o limite apenas impede que o
+     * mapa cresça indefinidamente caso eles sejam recarregados.
+     */
+    private static final int MAXIMO_DE_PRODUTORES = 64;
+
+    private static final ConcurrentMap<ResourceBundle, ResourceBundleMessageProducer> PRODUCERS =
+            new ConcurrentHashMap<ResourceBundle, ResourceBundleMessageProducer>();
+
     /**
      * Encontra o ResourceBundle para o Locale da &aacute;rvore de componentes
      * (UIViewRoot) atual.
      * 
      * @param facesContext
-     * @return
+     *            contexto da requisição, que informa o arquivo de mensagens e
+     *            o Locale atual.
+     * @return o ResourceBundle configurado no faces-config.xml, ou o padrão
+     *         do stella-faces.
      */
     public ResourceBundle getForCurrentLocale(FacesContext facesContext) {
         Application application = facesContext.getApplication();
@@ -42,6 +59,33 @@ public class ResourceBundleFinder {
         return bundle;
     }
 
+    /**
+     * Devolve o produtor de mensagens do ResourceBundle do Locale atual. Os
+     * produtores são compartilhados para cada ResourceBundle, já que guardam
+     * as mensagens que geram.
+     * 
+     * @param facesContext
+     *            contexto da requisição, que informa o arquivo de mensagens e
+     *            o Locale atual.
+     * @return produtor de mensagens do ResourceBundle encontrado por
+     *         {@link #getForCurrentLocale(FacesContext)}.
+     */
+    public ResourceBundleMessageProducer getMessageProducerForCurrentLocale(FacesContext facesContext) {
+        ResourceBundle bundle = getForCurrentLocale(facesContext);
+        ResourceBundleMessageProducer producer = PRODUCERS.get(bundle);
+        if (producer == null) {
+            if (PRODUCERS.size() >= MAXIMO_DE_PRODUTORES) {
+                PRODUCERS.clear();
+            }
+            producer = new ResourceBundleMessageProducer(bundle);
+            ResourceBundleMessageProducer previous = PRODUCERS.putIfAbsent(bundle, producer);
+            if (previous != null) {
+                producer = previous;
+            }
+        }
+        return producer;
+    }
+
     private ResourceBundle defaultStellaBundle() {
         if (STELLA_MESSAGES == null) {
             STELLA_MESSAGES = ResourceBundle.getBundle("StellaMessages", new Locale("pt", "BR"));
@@ -1,7 +1,6 @@
 package br.com.caelum.stella.faces.validation;
 
 import java.util.List;
-import java.util.ResourceBundle;
 
 import javax.faces.application.FacesMessage;
 import javax.faces.component.StateHolder;
@@ -47,8 +46,7 @@ public class StellaCPFValidator implements Validator, StateHolder {
     }
 
     public void validate(FacesContext facesContext, UIComponent uiComponent, Object value) throws ValidatorException {
-        ResourceBundle bundle = resourceBundleFinder.getForCurrentLocale(facesContext);
-        ResourceBundleMessageProducer producer = new ResourceBundleMessageProducer(bundle);
+        ResourceBundleMessageProducer producer = resourceBundleFinder.getMessageProducerForCurrentLocale(facesContext);
         CPFValidator validator = new CPFValidator(producer, formatted);
 
         try {
@@ -1,7 +1,6 @@
 package br.com.caelum.stella.faces.validation;
 
 import java.util.List;
-import java.util.ResourceBundle;
 
 import javax.el.ValueExpression;
 import javax.faces.application.FacesMessage;
@@ -47,8 +46,7 @@ public class StellaIEValidator implements Validator, StateHolder {
     public void validate(final FacesContext facesContext, final UIComponent uiComponent, final Object value)
             throws ValidatorException {
 
-        ResourceBundle bundle = resourceBundleFinder.getForCurrentLocale(facesContext);
-        ResourceBundleMessageProducer producer = new ResourceBundleMessageProducer(bundle);
+        ResourceBundleMessageProducer producer = resourceBundleFinder.getMessageProducerForCurrentLocale(facesContext);
         try {
             br.com.caelum.stella.validation.Validator<String> validator;
             try {
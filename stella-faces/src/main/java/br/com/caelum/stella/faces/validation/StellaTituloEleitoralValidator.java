@@ -1,7 +1,6 @@
 package br.com.caelum.stella.faces.validation;
 
 import java.util.List;
-import java.util.ResourceBundle;
 
 import javax.faces.application.FacesMessage;
 import javax.faces.component.StateHolder;
@@ -33,8 +32,7 @@ public class StellaTituloEleitoralValidator implements Validator, StateHolder {
     private boolean transientValue = false;
 
     public void validate(FacesContext facesContext, UIComponent uiComponent, Object value) throws ValidatorException {
-        ResourceBundle bundle = resourceBundleFinder.getForCurrentLocale(facesContext);
-        ResourceBundleMessageProducer producer = new ResourceBundleMessageProducer(bundle);
+        ResourceBundleMessageProducer producer = resourceBundleFinder.getMessageProducerForCurrentLocale(facesContext);
         TituloEleitoralValidator validator = new TituloEleitoralValidator(producer);
 
         try {
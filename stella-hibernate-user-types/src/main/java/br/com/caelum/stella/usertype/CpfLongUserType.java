@@ -0,0 +1,44 @@
+package br.com.caelum.stella.usertype;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.hibernate.HibernateException;
+
+import br.com.caelum.stella.tinytype.CPF;
+
+/**
+ * Mapeia um {@link CPF} para uma coluna numérica (BIGINT), com os dígitos do
+ * CPF. Os valores são lidos e gravados por {@link CPF#fromLong(long)} e
+ * {@link CPF#toLong()}, sem passar por cadeias; CPFs lidos da coluna não têm
+ * formatação.
+ */
+public class CpfLongUserType extends CpfUserType {
+
+	private static final int[] SQL_TYPES = { Types.BIGINT };
+
+	@Override
+	public Object nullSafeGet(ResultSet resultSet, String[] names, Object owner)
+			throws HibernateException, SQLException {
+		long numero = resultSet.getLong(names[0]);
+		return resultSet.wasNull() ? null : CPF.fromLong(numero);
+	}
+
+	@Override
+	public void nullSafeSet(PreparedStatement statement, Object value, int index)
+			throws HibernateException, SQLException {
+		if (value == null) {
+			statement.setNull(index, Types.BIGINT);
+		} else {
+			statement.setLong(index, ((CPF) value).toLong());
+		}
+	}
+
+	@Override
+	public int[] sqlTypes() {
+		return SQL_TYPES;
+	}
+
+}
@@ -34,4 +34,15 @@ public class PessoaFisica {
 		this.cpf = cpf;
 	}
 
+	@Type(type = "br.com.caelum.stella.usertype.CpfLongUserType")
+	private CPF cpfCompactado;
+
+	public CPF getCpfCompactado() {
+		return cpfCompactado;
+	}
+
+	public void setCpfCompactado(CPF cpfCompactado) {
+		this.cpfCompactado = cpfCompactado;
+	}
+
 }
@@ -6,6 +6,7 @@ import org.hibernate.validator.Validator;
 
 import br.com.caelum.stella.hibernate.validator.IE;
 import br.com.caelum.stella.type.Estado;
+import br.com.caelum.stella.validation.ie.IEValidatorRegistry;
 
 /**
  * Valida a cadeia gerada através do método {@linkplain #toString()} para
@@ -16,7 +17,7 @@ import br.com.caelum.stella.type.Estado;
  */
 public class StellaIEValidator implements Validator<IE> {
 
-    private br.com.caelum.stella.validation.Validator<String> stellaValidator;
+    private IEValidatorRegistry registry;
 
     private IE ie;
 
@@ -25,6 +26,7 @@ public class StellaIEValidator implements Validator<IE> {
      */
     public void initialize(final IE ie) {
         this.ie = ie;
+        this.registry = new IEValidatorRegistry(new AnnotationMessageProducer(ie), ie.formatted());
     }
 
     /**
@@ -34,17 +36,16 @@ public class StellaIEValidator implements Validator<IE> {
         if (obj != null) {
             String ieValue = getIEValue(obj);
             String estadoValue = getEstadoValue(obj);
-            final AnnotationMessageProducer annotationMessageProducer = new AnnotationMessageProducer(ie);
             if (ieValue.trim().length() == 0) {
                 return true;
             } else {
+                final Estado estado;
                 try {
-                    final Estado estado = Estado.valueOf(estadoValue);
-                    stellaValidator = estado.getIEValidator(annotationMessageProducer, ie.formatted());
+                    estado = Estado.valueOf(estadoValue);
                 } catch (IllegalArgumentException e) {
                     return false;
                 }
-                return stellaValidator.invalidMessagesFor(ieValue).isEmpty();
+                return registry.getValidator(estado).isValid(ieValue);
             }
         } else {
             return true;
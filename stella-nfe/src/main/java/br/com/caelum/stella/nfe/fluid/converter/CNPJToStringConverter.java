@@ -1,15 +1,26 @@
 package br.com.caelum.stella.nfe.fluid.converter;
 
 import net.vidageek.fluid.proxy.converter.DataConverter;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.tinytype.CNPJ;
+import br.com.caelum.stella.validation.CNPJValidator;
 
 /**
+ * Converte o CNPJ para os 14 dígitos, sem formatação, exigidos pela NF-e. Os
+ * dígitos são lidos diretamente da forma compactada do CNPJ; números fora do
+ * formato de CNPJ são repassados como foram informados.
+ * 
  * @author jonasabreu
  * 
  */
 final public class CNPJToStringConverter implements DataConverter<CNPJ, String> {
 
+    private static final Mascara SEM_FORMATACAO = CNPJValidator.MASCARA_SEM_FORMATO;
+
     public String convert(final CNPJ object) {
+        if (object.isCompactado()) {
+            return SEM_FORMATACAO.formata(object.toLong());
+        }
         return object.getNumero();
     }
 
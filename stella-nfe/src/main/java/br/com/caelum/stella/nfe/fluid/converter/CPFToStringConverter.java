@@ -1,15 +1,26 @@
 package br.com.caelum.stella.nfe.fluid.converter;
 
 import net.vidageek.fluid.proxy.converter.DataConverter;
+import br.com.caelum.stella.format.Mascara;
 import br.com.caelum.stella.tinytype.CPF;
+import br.com.caelum.stella.validation.CPFValidator;
 
 /**
+ * Converte o CPF para os 11 dígitos, sem formatação, exigidos pela NF-e. Os
+ * dígitos são lidos diretamente da forma compactada do CPF; números fora do
+ * formato de CPF são repassados como foram informados.
+ * 
  * @author jonasabreu
  * 
  */
 final public class CPFToStringConverter implements DataConverter<CPF, String> {
 
+    private static final Mascara SEM_FORMATACAO = CPFValidator.MASCARA_SEM_FORMATO;
+
     public String convert(final CPF object) {
+        if (object.isCompactado()) {
+            return SEM_FORMATACAO.formata(object.toLong());
+        }
         return object.getNumero();
     }
 